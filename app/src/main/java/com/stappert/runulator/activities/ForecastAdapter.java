@@ -0,0 +1,156 @@
+package com.stappert.runulator.activities;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.stappert.runulator.R;
+
+/**
+ * Adapter for the list of forecasts. Rows are identified by their distance, so that a new list
+ * is compared with the shown one on a background thread and only changed rows are rebound.
+ */
+public class ForecastAdapter extends ListAdapter<ForecastAdapter.ForecastRow, ForecastAdapter.ViewHolder> {
+
+    /**
+     * Compares rows by distance and content.
+     */
+    private static final DiffUtil.ItemCallback<ForecastRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<ForecastRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ForecastRow oldRow, @NonNull ForecastRow newRow) {
+            return oldRow.getId() == newRow.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ForecastRow oldRow, @NonNull ForecastRow newRow) {
+            return oldRow.equals(newRow);
+        }
+    };
+
+    /**
+     * Creates an empty adapter.
+     */
+    public ForecastAdapter() {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return new ViewHolder(LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_forecast, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        final ForecastRow row = getItem(position);
+        holder.distanceTextView.setText(row.distance);
+        holder.durationTextView.setText(row.duration);
+        holder.paceTextView.setText(row.pace);
+        holder.speedTextView.setText(row.speed);
+        holder.itemView.setBackgroundColor(row.backgroundColor);
+    }
+
+    /**
+     * Views of a row.
+     */
+    static class ViewHolder extends RecyclerView.ViewHolder {
+
+        private final TextView distanceTextView;
+        private final TextView durationTextView;
+        private final TextView paceTextView;
+        private final TextView speedTextView;
+
+        /**
+         * Creates the holder of a row view.
+         *
+         * @param view row view
+         */
+        ViewHolder(View view) {
+            super(view);
+            distanceTextView = view.findViewById(R.id.forecastDistanceTextView);
+            durationTextView = view.findViewById(R.id.forecastDurationTextView);
+            paceTextView = view.findViewById(R.id.forecastPaceTextView);
+            speedTextView = view.findViewById(R.id.forecastSpeedTextView);
+        }
+    }
+
+    /**
+     * Formatted forecast for one distance.
+     */
+    public static final class ForecastRow {
+
+        private final float distanceInKm;
+        private final String distance;
+        private final String duration;
+        private final String pace;
+        private final String speed;
+        private final int backgroundColor;
+
+        /**
+         * Creates a row.
+         *
+         * @param distanceInKm    distance in km, which identifies the row
+         * @param distance        formatted distance
+         * @param duration        formatted duration
+         * @param pace            formatted pace
+         * @param speed           formatted speed
+         * @param backgroundColor background color
+         */
+        public ForecastRow(float distanceInKm, String distance, String duration, String pace,
+                           String speed, int backgroundColor) {
+            this.distanceInKm = distanceInKm;
+            this.distance = distance;
+            this.duration = duration;
+            this.pace = pace;
+            this.speed = speed;
+            this.backgroundColor = backgroundColor;
+        }
+
+        /**
+         * Returns the stable id of the row, which are the bits of the distance.
+         *
+         * @return id
+         */
+        long getId() {
+            return Float.floatToIntBits(distanceInKm);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ForecastRow row = (ForecastRow) o;
+            return Float.floatToIntBits(distanceInKm) == Float.floatToIntBits(row.distanceInKm)
+                    && backgroundColor == row.backgroundColor
+                    && distance.equals(row.distance)
+                    && duration.equals(row.duration)
+                    && pace.equals(row.pace)
+                    && speed.equals(row.speed);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(distanceInKm);
+            result = 31 * result + duration.hashCode();
+            result = 31 * result + backgroundColor;
+            return result;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import androidx.viewpager.widget.ViewPager;
 import com.google.android.material.tabs.TabLayout;
 import com.stappert.runulator.R;
 import com.stappert.runulator.dialogs.LoadRunDialog;
+import com.stappert.runulator.utils.SettingsManager;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -67,6 +68,15 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Writes pending settings, when the activity is paused.
+     */
+    @Override
+    protected void onPause() {
+        super.onPause();
+        SettingsManager.getInstance().flush();
+    }
+
     /**
      * Called on resume of activity.
      */
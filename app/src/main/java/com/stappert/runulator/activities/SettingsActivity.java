@@ -51,6 +51,15 @@ public class SettingsActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Writes pending settings, when the activity is paused.
+     */
+    @Override
+    protected void onPause() {
+        super.onPause();
+        settings.flush();
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         switch (item.getItemId()) {
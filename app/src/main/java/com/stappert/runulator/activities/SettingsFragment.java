@@ -102,7 +102,7 @@ public class SettingsFragment extends PreferenceFragmentCompat implements ValueC
         String[] unitLabels = new String[Unit.getDistanceUnits().size()];
         for (int i = 0; i < Unit.getDistanceUnits().size(); i++) {
             units[i] = Unit.getDistanceUnits().get(i).name();
-            unitLabels[i] = Unit.getDistanceUnits().get(i).getLabel(context);
+            unitLabels[i] = Utils.getLabel(context, Unit.getDistanceUnits().get(i));
         }
         ListPreference selectedUnitOfLength = new ListPreference(context);
         selectedUnitOfLength.setKey(SettingsManager.KEY_DISTANCE_UNIT);
@@ -112,7 +112,7 @@ public class SettingsFragment extends PreferenceFragmentCompat implements ValueC
         selectedUnitOfLength.setEntries(unitLabels);
         selectedUnitOfLength.setDefaultValue(Unit.KM.name());
         selectedUnitOfLength.setValue(settings.getDistanceUnit().name());
-        selectedUnitOfLength.setSummary(settings.getDistanceUnit().getLabel(context));
+        selectedUnitOfLength.setSummary(Utils.getLabel(context, settings.getDistanceUnit()));
         selectedUnitOfLength.setOnPreferenceChangeListener(new Preference.OnPreferenceChangeListener() {
             @Override
             public boolean onPreferenceChange(Preference preference, Object unit) {
@@ -128,7 +128,7 @@ public class SettingsFragment extends PreferenceFragmentCompat implements ValueC
                         settings.setPaceUnit(Unit.MIN_KM);
                         settings.setSpeedUnit(Unit.KM_H);
                 }
-                preference.setSummary(settings.getDistanceUnit().getLabel(context));
+                preference.setSummary(Utils.getLabel(context, settings.getDistanceUnit()));
                 return true;
             }
         });
@@ -281,7 +281,7 @@ public class SettingsFragment extends PreferenceFragmentCompat implements ValueC
                         .setPositiveButton(android.R.string.yes, new DialogInterface.OnClickListener() {
                             public void onClick(DialogInterface dialog, int whichButton) {
                                 Context context = SettingsFragment.this.context;
-                                context.getSharedPreferences("runulator", Context.MODE_PRIVATE).edit().clear().commit();
+                                settings.reset();
                                 weightButton.setSummary(settings.getWeightUnit().format(settings.getWeight()));
                                 Toast.makeText(context, "App wurde zurückgesetzt", Toast.LENGTH_LONG).show();
                             }
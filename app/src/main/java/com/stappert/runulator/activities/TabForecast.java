@@ -1,7 +1,6 @@
 package com.stappert.runulator.activities;
 
 import android.graphics.Color;
-import android.graphics.Typeface;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -15,10 +14,18 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.stappert.runulator.R;
+import com.stappert.runulator.forecast.ForecastModel;
+import com.stappert.runulator.forecast.RiegelModel;
+import com.stappert.runulator.forecast.TrainingPace;
+import com.stappert.runulator.forecast.VdotTables;
+import com.stappert.runulator.storage.PersonalRecords;
 import com.stappert.runulator.utils.SettingsManager;
 import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.PaceTable;
 import com.stappert.runulator.utils.Run;
 import com.stappert.runulator.utils.Unit;
 
@@ -38,9 +45,82 @@ public class TabForecast extends Fragment {
      */
     private SettingsManager settings;
     /**
-     * Table, to set forecast.
+     * Adapter of the forecast list.
      */
-    private TableLayout forecastTable;
+    private ForecastAdapter forecastAdapter;
+
+    /**
+     * Text views of the units in the header of the forecast list.
+     */
+    private TextView distanceUnitTextView;
+    private TextView durationUnitTextView;
+    private TextView paceUnitTextView;
+    private TextView speedUnitTextView;
+
+    /**
+     * Table, to set training paces.
+     */
+    private TableLayout trainingPaceTable;
+
+    /**
+     * Text views of the title and the unit of the training paces.
+     */
+    private TextView trainingPaceTitleTextView;
+    private TextView trainingPaceUnitTextView;
+
+    /**
+     * Text views of the training paces, indexed by the ordinal of the training pace.
+     */
+    private final TextView[] trainingPaceTextViews = new TextView[TrainingPace.values().length];
+
+    /**
+     * Table, to show the personal records.
+     */
+    private TableLayout personalRecordsTable;
+
+    /**
+     * Text view of the duration unit of the personal records.
+     */
+    private TextView personalRecordsUnitTextView;
+
+    /**
+     * Rows of the personal records with the distance and the time, indexed like
+     * {@link PersonalRecords#DISTANCES}.
+     */
+    private final TableRow[] personalRecordRows = new TableRow[PersonalRecords.DISTANCES.length];
+
+    /**
+     * Text view, to show the fatigue coefficient of the forecast.
+     */
+    private TextView fatigueCoefficientTextView;
+
+    /**
+     * Updates the personal records, after they were loaded in the background.
+     */
+    private final SettingsManager.PersonalRecordsListener personalRecordsListener =
+            new SettingsManager.PersonalRecordsListener() {
+                @Override
+                public void onPersonalRecords(int[] bestTimes) {
+                    if (!isAdded()) {
+                        return;
+                    }
+                    try {
+                        updatePersonalRecordsTable(bestTimes);
+                    } catch (CustomException ex) {
+                        Log.e(ex.getTitle(), ex.getMessage());
+                    }
+                }
+            };
+
+    /**
+     * Distances of the favorite runs in km, sorted and without duplicates.
+     */
+    private SortedSet<Float> favoriteDistances;
+
+    /**
+     * Version of the favorite runs, from which the favorite distances were created.
+     */
+    private int favoriteDistancesVersion = -1;
 
     /**
      * Creates view for tab forecast.
@@ -57,7 +137,32 @@ public class TabForecast extends Fragment {
                              @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.tab_layout_forecast, container, false);
         settings = SettingsManager.getInstance();
-        forecastTable = view.findViewById(R.id.forecastTable);
+        forecastAdapter = new ForecastAdapter();
+        RecyclerView forecastRecyclerView = view.findViewById(R.id.forecastRecyclerView);
+        forecastRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        forecastRecyclerView.setAdapter(forecastAdapter);
+        distanceUnitTextView = view.findViewById(R.id.forecastDistanceUnitTextView);
+        durationUnitTextView = view.findViewById(R.id.forecastDurationUnitTextView);
+        paceUnitTextView = view.findViewById(R.id.forecastPaceUnitTextView);
+        speedUnitTextView = view.findViewById(R.id.forecastSpeedUnitTextView);
+        trainingPaceTable = view.findViewById(R.id.trainingPaceTable);
+        trainingPaceTitleTextView = view.findViewById(R.id.trainingPaceTitleTextView);
+        trainingPaceUnitTextView = view.findViewById(R.id.trainingPaceUnitTextView);
+        final int[] trainingPaceIds = {R.id.trainingPaceEasyTextView,
+                R.id.trainingPaceMarathonTextView, R.id.trainingPaceThresholdTextView,
+                R.id.trainingPaceIntervalTextView, R.id.trainingPaceRepetitionTextView};
+        for (int i = 0; i < trainingPaceTextViews.length; i++) {
+            trainingPaceTextViews[i] = view.findViewById(trainingPaceIds[i]);
+        }
+        personalRecordsTable = view.findViewById(R.id.personalRecordsTable);
+        personalRecordsUnitTextView = view.findViewById(R.id.personalRecordsUnitTextView);
+        final int[] personalRecordIds = {R.id.personalRecord1kRow, R.id.personalRecord5kRow,
+                R.id.personalRecord10kRow, R.id.personalRecordHalfMarathonRow,
+                R.id.personalRecordMarathonRow};
+        for (int i = 0; i < personalRecordRows.length; i++) {
+            personalRecordRows[i] = view.findViewById(personalRecordIds[i]);
+        }
+        fatigueCoefficientTextView = view.findViewById(R.id.fatigueCoefficientTextView);
         updateForecastTable();
         return view;
     }
@@ -72,29 +177,40 @@ public class TabForecast extends Fragment {
     }
 
     /**
-     * Updates the forecast depending on the current run.
+     * Updates the forecast depending on the current run. The new rows are compared with the shown
+     * rows, so that only changed rows are rebound.
      */
     public void updateForecastTable() {
-        forecastTable.removeAllViews();
         try {
             Run run = SettingsManager.getInstance().getRun();
-            // add header
-            forecastTable.addView(createHeader(), new TableLayout.LayoutParams(
-                    TableLayout.LayoutParams.MATCH_PARENT, TableLayout.LayoutParams.WRAP_CONTENT));
-            // add header
-            forecastTable.addView(createUnits(), new TableLayout.LayoutParams(
-                    TableLayout.LayoutParams.MATCH_PARENT, TableLayout.LayoutParams.WRAP_CONTENT));
+            updateUnits();
+            // forecast all durations at once
+            List<Float> distanceList = createDistanceList();
+            float[] distances = new float[distanceList.size()];
+            for (int i = 0; i < distances.length; i++) {
+                distances[i] = distanceList.get(i);
+            }
+            int[] durations = new int[distances.length];
+            final float fatigueCoefficient = settings.getFatigueCoefficient();
+            fatigueCoefficientTextView.setText(getContext().getString(
+                    settings.isPersonalFatigueCoefficient() ? R.string.fatigue_coefficient_personal
+                            : R.string.fatigue_coefficient_default, fatigueCoefficient));
+            ForecastModel forecastModel = new RiegelModel(fatigueCoefficient);
+            settings.getForecastCache().predict(forecastModel, run.getDistanceAsNumber(Unit.KM),
+                    run.getDurationAsNumber(), distances, durations);
             // add runs
-            List<Float> distances = createDistanceList();
-            for (int i = 0; i < distances.size(); i++) {
-                final Run forecastRun = run.getForecastRun(distances.get(i), 1.0759f);
+            final PaceTable paceTable = settings.getPaceTable();
+            List<ForecastAdapter.ForecastRow> rows = new ArrayList<>(distances.length);
+            for (int i = 0; i < distances.length; i++) {
+                final Run forecastRun = Run.createWithDistanceAndDuration(distances[i], durations[i]);
                 final int backgroundColor = run.equals(forecastRun)
                         ? getContext().getColor(R.color.colorSelected) : i % 2 == 0
                         ? getContext().getColor(R.color.colorSeparator) : Color.TRANSPARENT;
-                TableRow forecast = createForecast(forecastRun, backgroundColor);
-                forecastTable.addView(forecast, new TableLayout.LayoutParams(
-                        TableLayout.LayoutParams.MATCH_PARENT, TableLayout.LayoutParams.WRAP_CONTENT));
+                rows.add(createForecast(distances[i], forecastRun, paceTable, backgroundColor));
             }
+            forecastAdapter.submitList(rows);
+            updateTrainingPaceTable(run, paceTable);
+            settings.loadPersonalRecords(personalRecordsListener);
         } catch (CustomException ex) {
             Log.e(ex.getTitle(), ex.getMessage());
             Toast.makeText(getContext(), ex.getMessage(), Toast.LENGTH_LONG).show();
@@ -102,114 +218,119 @@ public class TabForecast extends Fragment {
     }
 
     /**
-     * Returns the distances.
+     * Updates the training paces depending on the VDOT of the run. The rows of the layout are
+     * updated in place. The table is hidden, if the VDOT is not in range of the tables.
      *
-     * @return distances
+     * @param run       current run
+     * @param paceTable paces in the current unit
+     * @throws CustomException if pace can not be converted
      */
-    private List<Float> createDistanceList() {
-        SortedSet distances = new TreeSet();
-        distances.addAll(Arrays.asList(5f, 10f, Run.HALF_MARATHON, Run.MARATHON, settings.getDistance()));
-        try {
-            for (int i = 0; i < settings.getFavoriteRunsJson().size(); i++) {
-                distances.add(settings.getFavoriteRuns().get(i).getDistanceAsNumber(Unit.KM));
-            }
-        } catch (CustomException ex) {
-            Log.e("error", ex.getMessage());
+    private void updateTrainingPaceTable(Run run, PaceTable paceTable) throws CustomException {
+        final double vdot = VdotTables.getVdot(run.getDistanceAsNumber(Unit.KM), run.getDurationAsNumber());
+        if (!VdotTables.isInRange(vdot)) {
+            trainingPaceTable.setVisibility(View.GONE);
+            return;
+        }
+        trainingPaceTable.setVisibility(View.VISIBLE);
+        trainingPaceTitleTextView.setText(getContext().getString(R.string.training_paces, vdot));
+        trainingPaceUnitTextView.setText("[" + settings.getPaceUnit().toString() + "]");
+        for (TrainingPace trainingPace : TrainingPace.values()) {
+            final Run paceRun = Run.createWithDistanceAndPace(1, trainingPace.getPace(vdot));
+            trainingPaceTextViews[trainingPace.ordinal()].setText(paceTable.formatPace(paceRun));
         }
-        return new ArrayList<>(distances);
-    }
-
-    /**
-     * Creates the header row for the table including column titles.
-     *
-     * @return header of table
-     */
-    private TableRow createHeader() {
-        TableRow row = new TableRow(getContext());
-        row.addView(createColumnTitle(getContext().getString(R.string.distance)));
-        row.addView(createColumnTitle(getContext().getString(R.string.run_time)));
-        row.addView(createColumnTitle(getContext().getString(R.string.pace)));
-        row.addView(createColumnTitle(getContext().getString(R.string.speed)));
-        row.setLayoutParams(new TableRow.LayoutParams(
-                TableRow.LayoutParams.MATCH_PARENT, TableRow.LayoutParams.WRAP_CONTENT));
-        return row;
     }
 
     /**
-     * Creates the row for the table to define the unit for the column.
+     * Updates the best times of the completed runs at the standard distances. The rows of the
+     * layout are updated in place and only shown for distances with a record. The table is hidden,
+     * if no run was completed at a standard distance.
      *
-     * @return unit row
-     */
-    private TableRow createUnits() {
-        TableRow row = new TableRow(getContext());
-        row.addView(createColumnUnit("[" + settings.getDistanceUnit().toString() + "]"));
-        row.addView(createColumnUnit("[" + settings.getDurationUnit().toString() + "]"));
-        row.addView(createColumnUnit("[" + settings.getPaceUnit().toString() + "]"));
-        row.addView(createColumnUnit("[" + settings.getSpeedUnit().toString() + "]"));
-        row.setLayoutParams(new TableRow.LayoutParams(
-                TableRow.LayoutParams.MATCH_PARENT, TableRow.LayoutParams.WRAP_CONTENT));
-        return row;
+     * @param bestTimes best time in seconds per standard distance or 0, if no run exists
+     * @throws CustomException if distance can not be converted
+     */
+    private void updatePersonalRecordsTable(int[] bestTimes) throws CustomException {
+        final Unit distanceUnit = settings.getDistanceUnit();
+        personalRecordsUnitTextView.setText("[" + settings.getDurationUnit().toString() + "]");
+        int rows = 0;
+        for (int i = 0; i < personalRecordRows.length; i++) {
+            final TableRow row = personalRecordRows[i];
+            final int best = bestTimes[i];
+            if (best <= 0) {
+                row.setVisibility(View.GONE);
+                continue;
+            }
+            final Run record = Run.createWithDistanceAndDuration(PersonalRecords.DISTANCES[i], best);
+            ((TextView) row.getChildAt(0)).setText(
+                    record.getDistance(distanceUnit) + " " + distanceUnit);
+            ((TextView) row.getChildAt(1)).setText(record.getDuration());
+            row.setBackgroundColor(rows % 2 == 0
+                    ? getContext().getColor(R.color.colorSeparator) : Color.TRANSPARENT);
+            row.setVisibility(View.VISIBLE);
+            rows++;
+        }
+        personalRecordsTable.setVisibility(rows > 0 ? View.VISIBLE : View.GONE);
     }
 
     /**
-     * Creates a row for the table with a forecast.
+     * Returns the distances.
      *
-     * @param forecast
-     * @return forecast row
+     * @return distances
      */
-    private TableRow createForecast(Run forecast, int backgroundColor) throws CustomException {
-        TableRow row = new TableRow(getContext());
-        row.addView(createCellForecastValue(forecast.getDistance(settings.getDistanceUnit())));
-        row.addView(createCellForecastValue(forecast.getDuration()));
-        row.addView(createCellForecastValue(forecast.getPace(settings.getPaceUnit())));
-        row.addView(createCellForecastValue(forecast.getSpeed(settings.getSpeedUnit())));
-        row.setLayoutParams(new TableRow.LayoutParams(
-                TableRow.LayoutParams.MATCH_PARENT, TableRow.LayoutParams.WRAP_CONTENT));
-        row.setBackgroundColor(backgroundColor);
-        return row;
+    private List<Float> createDistanceList() {
+        SortedSet<Float> distances = new TreeSet<>(getFavoriteDistances());
+        distances.addAll(Arrays.asList(5f, 10f, Run.HALF_MARATHON, Run.MARATHON, settings.getDistance()));
+        return new ArrayList<>(distances);
     }
 
     /**
-     * Creates a cell for the column title.
+     * Returns the distances of the favorite runs. They are only recreated, if the favorite runs
+     * have changed since the last call.
      *
-     * @param columnTitle column title
-     * @return cell
-     */
-    private TextView createColumnTitle(String columnTitle) {
-        TextView columnTextView = new TextView(getContext());
-        columnTextView.setText(columnTitle);
-        columnTextView.setTypeface(null, Typeface.BOLD);
-        columnTextView.setLayoutParams(new TableRow.LayoutParams(
-                TableRow.LayoutParams.MATCH_PARENT, TableRow.LayoutParams.WRAP_CONTENT));
-        return columnTextView;
+     * @return distances of favorite runs
+     */
+    private SortedSet<Float> getFavoriteDistances() {
+        final int version = settings.getFavoriteRunsVersion();
+        if (favoriteDistances == null || favoriteDistancesVersion != version) {
+            favoriteDistances = new TreeSet<>();
+            try {
+                for (Run favoriteRun : settings.getFavoriteRuns()) {
+                    favoriteDistances.add(favoriteRun.getDistanceAsNumber(Unit.KM));
+                }
+            } catch (CustomException ex) {
+                Log.e("error", ex.getMessage());
+            }
+            favoriteDistancesVersion = version;
+        }
+        return favoriteDistances;
     }
 
     /**
-     * Creates a cell for the column unit.
-     *
-     * @param unit unit
-     * @return cell
-     */
-    private TextView createColumnUnit(String unit) {
-        TextView unitTextView = new TextView(getContext());
-        unitTextView.setText(unit);
-        unitTextView.setTypeface(null, Typeface.ITALIC);
-        unitTextView.setLayoutParams(new TableRow.LayoutParams(
-                TableRow.LayoutParams.MATCH_PARENT, TableRow.LayoutParams.WRAP_CONTENT));
-        return unitTextView;
+     * Updates the units in the header of the forecast list.
+     */
+    private void updateUnits() {
+        distanceUnitTextView.setText("[" + settings.getDistanceUnit().toString() + "]");
+        durationUnitTextView.setText("[" + settings.getDurationUnit().toString() + "]");
+        paceUnitTextView.setText("[" + settings.getPaceUnit().toString() + "]");
+        speedUnitTextView.setText("[" + settings.getSpeedUnit().toString() + "]");
     }
 
     /**
-     * Creates a cell with a forecast value.
+     * Creates a row for the list with a forecast.
      *
-     * @param value forecast value
-     * @return cell
-     */
-    private TextView createCellForecastValue(String value) {
-        TextView valueTextView = new TextView(getContext());
-        valueTextView.setText(value);
-        valueTextView.setLayoutParams(new TableRow.LayoutParams(
-                TableRow.LayoutParams.MATCH_PARENT, TableRow.LayoutParams.WRAP_CONTENT));
-        return valueTextView;
+     * @param distance        distance in km, which identifies the row
+     * @param forecast        forecast run
+     * @param paceTable       paces and speeds in the current units
+     * @param backgroundColor background color
+     * @return forecast row
+     * @throws CustomException if values can not be converted
+     */
+    private ForecastAdapter.ForecastRow createForecast(float distance, Run forecast, PaceTable paceTable,
+                                                       int backgroundColor) throws CustomException {
+        return new ForecastAdapter.ForecastRow(distance,
+                forecast.getDistance(settings.getDistanceUnit()),
+                forecast.getDuration(),
+                paceTable.formatPace(forecast),
+                paceTable.formatSpeed(forecast),
+                backgroundColor);
     }
 }
@@ -2,6 +2,8 @@ package com.stappert.runulator.activities;
 
 import android.graphics.drawable.Icon;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.InputType;
 import android.text.TextWatcher;
@@ -28,15 +30,21 @@ import com.stappert.runulator.utils.ParameterType;
 import com.stappert.runulator.utils.RunLoadedListener;
 import com.stappert.runulator.utils.SettingsManager;
 import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.DebouncedCalculator;
+import com.stappert.runulator.utils.PaceTable;
 import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunCalculatorState;
+import com.stappert.runulator.utils.RunCalculatorState.Output;
+import com.stappert.runulator.utils.RunResult;
+import com.stappert.runulator.utils.RunSolver;
 import com.stappert.runulator.utils.Unit;
 import com.stappert.runulator.utils.Utils;
 import com.stappert.runulator.utils.ValueChangeListener;
 
-import org.json.JSONException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Organizes the run view of the application.
@@ -76,6 +84,11 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
     private final static int INPUT_TYPE_NUMBER = InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_DECIMAL;
     private final static int INPUT_TYPE_TIME = InputType.TYPE_CLASS_DATETIME | InputType.TYPE_DATETIME_VARIATION_TIME;
 
+    /**
+     * Delay between the last input and the calculation of the run in milliseconds.
+     */
+    private final static long CALCULATION_DELAY = 200;
+
     // Input elements
     private View runView;
     private TextView distanceButton;
@@ -109,24 +122,19 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
     private ImageButton favoriteButton;
 
     /**
-     * Type for run parameter 1, which can be distance or duration.
-     */
-    private ParameterType inputParameter1;
-
-    /**
-     * Type for run parameter 2, which can be duration, pace or speed.
+     * State of the selected input parameters, the entered values and the results.
      */
-    private ParameterType inputParameter2;
+    private final RunCalculatorState state = new RunCalculatorState();
 
     /**
-     * Current run.
+     * True, while changes of the state are applied to the views.
      */
-    private Run currentRun;
+    private boolean applyingChanges;
 
     /**
-     * Current run as json string.
+     * Calculates the run on a background thread, after the input settled.
      */
-    private String currentRunJson;
+    private DebouncedCalculator<RunInput, RunCalculation> calculator;
 
     /**
      * Favorite runs as json string.
@@ -151,12 +159,14 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
                              @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
         runView = inflater.inflate(R.layout.tab_layout_run, container, false);
+        initCalculator();
         try {
             settings = SettingsManager.getInstance().init(getContext());
             initElements();
             initListener();
+            // views are new, if the fragment was reattached
+            state.invalidate();
             applyRun(settings.getRunJson());
-            updateInputArea();
         } catch (CustomException ex) {
             Log.e(ex.getTitle(), ex.getMessage());
             Toast.makeText(getContext(), ex.getMessage(), Toast.LENGTH_LONG).show();
@@ -171,9 +181,8 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
     public void onResume() {
         super.onResume();
         try {
-            updatePillButtons();
-            updateInputArea();
-            updateResultArea();
+            // units may have changed in the settings
+            state.invalidate();
             calculateAndUpdateRun();
         } catch (CustomException ex) {
             Log.e(ex.getTitle(), ex.getMessage());
@@ -181,71 +190,205 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
         }
     }
 
+    /**
+     * Discards pending calculations, when the view is destroyed.
+     */
+    @Override
+    public void onDestroyView() {
+        calculator.shutdown();
+        super.onDestroyView();
+    }
+
     // =============================================================================================
     // private utility functions
     // =============================================================================================
 
     /**
-     * Calculates and updates run depending on input.
+     * Calculates and updates run depending on input. The changes of the state are shown at once,
+     * the run itself is calculated on a background thread after the input settled, see
+     * {@link #applyCalculatedRun(RunCalculation)}.
      */
     private void calculateAndUpdateRun() throws CustomException {
-        // both input parameters must be set
-        if (!inputParameter1EditText.isEnabled() || !inputParameter2EditText.isEnabled()) {
-            deactivateFavoriteButton();
-        } else if (inputParameter1EditText.getText().toString().isEmpty()
-                || inputParameter2EditText.getText().toString().isEmpty()) {
-            inputParamInfoTextView.setText(getString(R.string.input_info_enter_values));
-            resultParameter1ValueTextView.setText("-");
-            resultParameter2ValueTextView.setText("-");
-            deactivateFavoriteButton();
+        if (state.isComplete()) {
+            calculator.submit(new RunInput(state.getInputParameter1(), state.getInputText1(),
+                    state.getInputParameter2(), state.getInputText2(), settings));
         } else {
-            inputParamInfoTextView.setText("");
-            Number runValue1 = getRunParameterValue(inputParameter1, inputParameter1EditText);
-            Number runValue2 = getRunParameterValue(inputParameter2, inputParameter2EditText);
-            // run parameter 1 is distance or duration
-            if (ParameterType.DISTANCE.equals(inputParameter1)) {
-                // run parameter 2 is duration, pace or speed
-                if (ParameterType.DURATION.equals(inputParameter2)) {
-                    currentRun = Run.createWithDistanceAndDuration(runValue1.floatValue(), runValue2.intValue());
-                    currentRunJson = Run.jsonWithDistanceAndDuration(runValue1.floatValue(), runValue2.intValue());
-                    resultParameter1ValueTextView.setText(currentRun.getPace(settings.getPaceUnit()));
-                    resultParameter2ValueTextView.setText(currentRun.getSpeed(settings.getSpeedUnit()));
-                } else if (ParameterType.PACE.equals(inputParameter2)) {
-                    currentRun = Run.createWithDistanceAndPace(runValue1.floatValue(), runValue2.intValue());
-                    currentRunJson = Run.jsonWithDistanceAndPace(runValue1.floatValue(), runValue2.intValue());
-                    resultParameter1ValueTextView.setText(currentRun.getDuration());
-                    resultParameter2ValueTextView.setText(currentRun.getSpeed(settings.getSpeedUnit()));
-                } else if (ParameterType.SPEED.equals(inputParameter2)) {
-                    currentRun = Run.createWithDistanceAndSpeed(runValue1.floatValue(), runValue2.intValue());
-                    currentRunJson = Run.jsonWithDistanceAndSpeed(runValue1.floatValue(), runValue2.intValue());
-                    resultParameter1ValueTextView.setText(currentRun.getDuration());
-                    resultParameter2ValueTextView.setText(currentRun.getPace(settings.getPaceUnit()));
-                }
-            } else {
-                // run parameter 2 is pace or speed
-                if (ParameterType.PACE.equals(inputParameter2)) {
-                    currentRun = Run.createWithDurationAndPace(runValue1.intValue(), runValue2.intValue());
-                    currentRunJson = Run.jsonWithDurationAndPace(runValue1.intValue(), runValue2.intValue());
-                    resultParameter1ValueTextView.setText(currentRun.getDistance(settings.getDistanceUnit()));
-                    resultParameter2ValueTextView.setText(currentRun.getSpeed(settings.getSpeedUnit()));
-                } else if (ParameterType.SPEED.equals(inputParameter2)) {
-                    currentRun = Run.createWithDurationAndSpeed(runValue1.intValue(), runValue2.floatValue());
-                    currentRunJson = Run.jsonWithDurationAndSpeed(runValue1.intValue(), runValue2.floatValue());
-                    resultParameter1ValueTextView.setText(currentRun.getDistance(settings.getDistanceUnit()));
-                    resultParameter2ValueTextView.setText(currentRun.getPace(settings.getPaceUnit()));
+            calculator.cancel();
+        }
+        applyChanges();
+    }
+
+    /**
+     * Parses, solves and formats the run of an input. Called on the background thread only.
+     *
+     * @param input input
+     * @return calculated run
+     * @throws CustomException if input can not be parsed
+     */
+    private static RunCalculation calculateRun(RunInput input) throws CustomException {
+        final Number runValue1 = getRunParameterValue(input.parameter1, input.text1, input);
+        final Number runValue2 = getRunParameterValue(input.parameter2, input.text2, input);
+        final RunCalculation calculation = new RunCalculation();
+        if (RunSolver.solve(input.parameter1, runValue1.floatValue(),
+                input.parameter2, runValue2.floatValue(), calculation.result) != RunSolver.OK) {
+            return calculation;
+        }
+        calculation.solved = true;
+        calculation.flags = 1 << input.parameter1.ordinal() | 1 << input.parameter2.ordinal();
+        final Run run = Run.createWithResult(calculation.result);
+        // run parameter 1 is distance or duration
+        if (ParameterType.DISTANCE.equals(input.parameter1)) {
+            // run parameter 2 is duration, pace or speed
+            if (ParameterType.DURATION.equals(input.parameter2)) {
+                calculation.json = Run.jsonWithDistanceAndDuration(runValue1.floatValue(), runValue2.intValue());
+                calculation.value1 = input.paceTable.formatPace(run);
+                calculation.value2 = input.paceTable.formatSpeed(run);
+            } else if (ParameterType.PACE.equals(input.parameter2)) {
+                calculation.json = Run.jsonWithDistanceAndPace(runValue1.floatValue(), runValue2.intValue());
+                calculation.value1 = run.getDuration();
+                calculation.value2 = input.paceTable.formatSpeed(run);
+            } else if (ParameterType.SPEED.equals(input.parameter2)) {
+                calculation.json = Run.jsonWithDistanceAndSpeed(runValue1.floatValue(), runValue2.floatValue());
+                calculation.value1 = run.getDuration();
+                calculation.value2 = input.paceTable.formatPace(run);
+            }
+        } else {
+            // run parameter 2 is pace or speed
+            if (ParameterType.PACE.equals(input.parameter2)) {
+                calculation.json = Run.jsonWithDurationAndPace(runValue1.intValue(), runValue2.intValue());
+                calculation.value1 = run.getDistance(input.distanceUnit);
+                calculation.value2 = input.paceTable.formatSpeed(run);
+            } else if (ParameterType.SPEED.equals(input.parameter2)) {
+                calculation.json = Run.jsonWithDurationAndSpeed(runValue1.intValue(), runValue2.floatValue());
+                calculation.value1 = run.getDistance(input.distanceUnit);
+                calculation.value2 = input.paceTable.formatPace(run);
+            }
+        }
+        calculation.calories = run.calculateCalories(input.weightInKg);
+        calculation.cadenceCount = "" + run.calculateCadenceCount(input.heightInCm);
+        return calculation;
+    }
+
+    /**
+     * Shows a calculated run and stores it. Called on the main thread for the latest input only,
+     * so that fast typing leads to one update and one write of the run.
+     *
+     * @param calculation calculated run
+     */
+    private void applyCalculatedRun(RunCalculation calculation) {
+        if (!calculation.solved) {
+            state.setNotSolvable();
+            applyChanges();
+            return;
+        }
+        state.setResult(calculation.value1, calculation.value2, calculation.calories,
+                calculation.cadenceCount, calculation.json);
+        applyChanges();
+        try {
+            settings.setRun(calculation.json);
+        } catch (CustomException ex) {
+            Log.e(ex.getTitle(), ex.getMessage());
+        }
+        settings.addToHistory(calculation.result, calculation.flags);
+    }
+
+    /**
+     * Applies the changed outputs of the state to their views. Views of unchanged outputs are not
+     * touched.
+     */
+    private void applyChanges() {
+        final long changes = state.takeChanges();
+        if (changes == 0) {
+            return;
+        }
+        applyingChanges = true;
+        try {
+            // pill buttons
+            if (RunCalculatorState.isChanged(changes, Output.DISTANCE_SELECTED)) {
+                selectRunParameterButton(distanceButton, state.isSelected(ParameterType.DISTANCE));
+            }
+            if (RunCalculatorState.isChanged(changes, Output.DURATION_SELECTED)) {
+                selectRunParameterButton(durationButton, state.isSelected(ParameterType.DURATION));
+            }
+            if (RunCalculatorState.isChanged(changes, Output.PACE_SELECTED)) {
+                selectRunParameterButton(paceButton, state.isSelected(ParameterType.PACE));
+            }
+            if (RunCalculatorState.isChanged(changes, Output.SPEED_SELECTED)) {
+                selectRunParameterButton(speedButton, state.isSelected(ParameterType.SPEED));
+            }
+            if (RunCalculatorState.isChanged(changes, Output.DISTANCE_ENABLED)) {
+                distanceButton.setEnabled(state.isEnabled(ParameterType.DISTANCE));
+            }
+            if (RunCalculatorState.isChanged(changes, Output.DURATION_ENABLED)) {
+                durationButton.setEnabled(state.isEnabled(ParameterType.DURATION));
+            }
+            if (RunCalculatorState.isChanged(changes, Output.PACE_ENABLED)) {
+                paceButton.setEnabled(state.isEnabled(ParameterType.PACE));
+            }
+            if (RunCalculatorState.isChanged(changes, Output.SPEED_ENABLED)) {
+                speedButton.setEnabled(state.isEnabled(ParameterType.SPEED));
+            }
+            // input area
+            if (RunCalculatorState.isChanged(changes, Output.INFO)) {
+                updateInfo(state.getInfo());
+            }
+            if (RunCalculatorState.isChanged(changes, Output.INPUT_PARAMETER_1)) {
+                updateInputParameter1();
+            }
+            if (RunCalculatorState.isChanged(changes, Output.INPUT_TEXT_1)
+                    && !state.getInputText1().equals(inputParameter1EditText.getText().toString())) {
+                inputParameter1EditText.setText(state.getInputText1());
+            }
+            if (RunCalculatorState.isChanged(changes, Output.INPUT_PARAMETER_2)) {
+                updateInputParameter2();
+            }
+            if (RunCalculatorState.isChanged(changes, Output.INPUT_TEXT_2)
+                    && !state.getInputText2().equals(inputParameter2EditText.getText().toString())) {
+                inputParameter2EditText.setText(state.getInputText2());
+            }
+            // result area
+            final boolean resultEnabledChanged = RunCalculatorState.isChanged(changes, Output.RESULT_ENABLED);
+            if (resultEnabledChanged || RunCalculatorState.isChanged(changes, Output.RESULT_PARAMETER_1)) {
+                updateResultParameter(resultParameter1LabelTextView, resultParameter1ValueTextView,
+                        resultParameter1UnitTextView,
+                        state.getResultParameter1(), getString(R.string.run_result_param_1));
+            }
+            if (resultEnabledChanged || RunCalculatorState.isChanged(changes, Output.RESULT_PARAMETER_2)) {
+                updateResultParameter(resultParameter2LabelTextView, resultParameter2ValueTextView,
+                        resultParameter2UnitTextView,
+                        state.getResultParameter2(), getString(R.string.run_result_param_2));
+            }
+            if (resultEnabledChanged) {
+                enableStaticResultParameters(state.isResultEnabled());
+            }
+            if (RunCalculatorState.isChanged(changes, Output.RESULT_VALUE_1)) {
+                resultParameter1ValueTextView.setText(state.getResultValue1());
+            }
+            if (RunCalculatorState.isChanged(changes, Output.RESULT_VALUE_2)) {
+                resultParameter2ValueTextView.setText(state.getResultValue2());
+            }
+            if (RunCalculatorState.isChanged(changes, Output.CALORIES)) {
+                caloriesValueTextView.setText(state.getCalories());
+            }
+            if (RunCalculatorState.isChanged(changes, Output.CADENCE_COUNT)) {
+                cadenceCountValueTextView.setText(state.getCadenceCount());
+            }
+            if (RunCalculatorState.isChanged(changes, Output.RUN)) {
+                if (state.getRunJson() != null) {
+                    updateActiveFavoriteButton();
+                } else {
+                    deactivateFavoriteButton();
                 }
             }
-            caloriesValueTextView.setText(currentRun.calculateCalories(settings.getWeightInKg()));
-            cadenceCountValueTextView.setText("" + currentRun.calculateCadenceCount(settings.getHeightInCm()));
-            settings.setRun(currentRunJson);
-            updateActiveFavoriteButton();
+        } finally {
+            applyingChanges = false;
         }
     }
 
     private void updateActiveFavoriteButton() {
         favoriteButton.setEnabled(true);
         favoriteButton.setClickable(true);
-        if (favoriteRuns.contains(currentRunJson)) {
+        if (favoriteRuns.contains(state.getRunJson())) {
             favoriteButton.setImageIcon(Icon.createWithBitmap(
                     Utils.drawableToBitmap(getContext().getDrawable(R.drawable.ic_favorite))));
         } else {
@@ -262,20 +405,24 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
     }
 
     /**
-     * Returns distance from text field parsed to kilometer.
+     * Returns the value of a run parameter parsed to km, seconds or km/h.
      *
-     * @return distance
+     * @param type  run parameter type
+     * @param text  entered text
+     * @param input input with the units
+     * @return value
      * @throws CustomException if conversion failed
      */
-    private Number getRunParameterValue(ParameterType type, EditText textField) throws CustomException {
+    private static Number getRunParameterValue(ParameterType type, String text, RunInput input)
+            throws CustomException {
         if (ParameterType.DISTANCE.equals(type)) {
-            return settings.getDistanceUnit().toKm(Run.parseToFloat(textField.getText().toString()));
+            return input.distanceUnit.toKm(Run.parseToFloat(text));
         } else if (ParameterType.DURATION.equals(type)) {
-            return Run.parseTimeInSeconds(textField.getText().toString());
+            return Run.parseTimeInSeconds(text);
         } else if (ParameterType.PACE.equals(type)) {
-            return settings.getPaceUnit().toMinPerKm(Run.parseTimeInSeconds(textField.getText().toString()));
+            return input.paceUnit.toMinPerKm(Run.parseTimeInSeconds(text));
         } else if (ParameterType.SPEED.equals(type)) {
-            return settings.getSpeedUnit().toKmPerHour(Run.parseToFloat(textField.getText().toString()));
+            return input.speedUnit.toKmPerHour(Run.parseToFloat(text));
         } else {
             return Float.NaN;
         }
@@ -285,19 +432,6 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
     // Input area
     // =============================================================================================
 
-    /**
-     * Selects or disable
-     */
-    private void updatePillButtons() {
-        selectRunParameterButton(distanceButton, ParameterType.DISTANCE.equals(inputParameter1));
-        selectRunParameterButton(durationButton,
-                ParameterType.DURATION.equals(inputParameter1) || ParameterType.DURATION.equals(inputParameter2));
-        selectRunParameterButton(paceButton, ParameterType.PACE.equals(inputParameter2));
-        selectRunParameterButton(speedButton, ParameterType.SPEED.equals(inputParameter2));
-        enableButtons();
-    }
-
-
     /**
      * Selects or deselects a run parameter pill button.
      *
@@ -310,76 +444,27 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
     }
 
     /**
-     * Disable or enable  pill buttons for setting run parameters.
-     */
-    private void enableButtons() {
-        final boolean notAllParamSet = getNumberOfSetInputParameters() < 2;
-        distanceButton.setEnabled(ParameterType.DISTANCE.equals(inputParameter1) || notAllParamSet);
-        durationButton.setEnabled(ParameterType.DURATION.equals(inputParameter1) || ParameterType.DURATION.equals(inputParameter2) || notAllParamSet);
-        paceButton.setEnabled((notAllParamSet || ParameterType.PACE.equals(inputParameter2)) && !ParameterType.SPEED.equals(inputParameter2));
-        speedButton.setEnabled((notAllParamSet || ParameterType.SPEED.equals(inputParameter2)) && !ParameterType.PACE.equals(inputParameter2));
-    }
-
-    /**
-     * Updates the input area depending on selected run parameters.
-     */
-    private void updateInputArea() {
-        final int numberOfSetRunParameters = getNumberOfSetInputParameters();
-        inputParamInfoTextView.setText(
-                numberOfSetRunParameters == 0 ? R.string.input_info_select_please_two
-                        : numberOfSetRunParameters == 1 ? R.string.input_info_select_please_one
-                        : numberOfSetRunParameters == 2 ? R.string.input_info_enter_values
-                        : R.string.input_info_enter_values);
-        updateInputParameter();
-    }
-
-    /**
-     * Applies run parameter 1. Run parameter 1 can be distance or duration.
+     * Shows the information about the input.
      *
-     * @param parameterType parameter type
-     * @return if run parameter is selected or not
-     */
-    private boolean applyRunParameter1(ParameterType parameterType) {
-        final boolean isSelected = !parameterType.equals(inputParameter1);
-        if (isSelected) {
-            inputParameter2 = inputParameter1 != null ? inputParameter1 : inputParameter2;
-            // switch value for duration to parameter 2 if set
-            if (inputParameter1 != null) {
-                inputParameter2 = inputParameter1;
-                inputParameter2EditText.setText(inputParameter1EditText.getText());
-                inputParameter1EditText.setText("");
-            }
-            inputParameter1 = parameterType;
-        } else {
-            inputParameter1 = ParameterType.DURATION.equals(inputParameter2) ? ParameterType.DURATION : null;
-            inputParameter2 = ParameterType.DURATION.equals(inputParameter2) ? null : inputParameter2;
-            // switch value for duration to parameter 1 if set
-            if (ParameterType.DURATION.equals(inputParameter1)) {
-                inputParameter1EditText.setText(inputParameter2EditText.getText());
-                inputParameter2EditText.setText("");
-            }
+     * @param info information
+     */
+    private void updateInfo(RunCalculatorState.Info info) {
+        switch (info) {
+            case SELECT_TWO:
+                inputParamInfoTextView.setText(R.string.input_info_select_please_two);
+                break;
+            case SELECT_ONE:
+                inputParamInfoTextView.setText(R.string.input_info_select_please_one);
+                break;
+            case ENTER_VALUES:
+                inputParamInfoTextView.setText(R.string.input_info_enter_values);
+                break;
+            case VALUES_GREATER_ZERO:
+                inputParamInfoTextView.setText(R.string.input_info_values_greater_zero);
+                break;
+            default:
+                inputParamInfoTextView.setText("");
         }
-        return isSelected;
-    }
-
-    /**
-     * Applies run parameter 2. Run parameter 2 can be duration, speed or pace.
-     *
-     * @param parameterType parameter type
-     * @return if run parameter is selected or not
-     */
-    private boolean applyRunParameter2(ParameterType parameterType) {
-        final boolean isSelected = !parameterType.equals(inputParameter2);
-        inputParameter2 = isSelected ? parameterType : null;
-        return isSelected;
-    }
-
-    /**
-     * Updates both input parameters depending on selected parameter types.
-     */
-    private void updateInputParameter() {
-        updateInputParameter1();
-        updateInputParameter2();
     }
 
     /**
@@ -387,12 +472,13 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
      * The first input parameter can be distance or duration.
      */
     private void updateInputParameter1() {
+        final ParameterType inputParameter1 = state.getInputParameter1();
         if (ParameterType.DISTANCE.equals(inputParameter1)) {
             updateInputParameter1(true, getString(R.string.distance), INPUT_TYPE_NUMBER,
-                    settings.getDistanceUnit().getLabel(getContext()));
+                    Utils.getLabel(getContext(), settings.getDistanceUnit()));
         } else if (ParameterType.DURATION.equals(inputParameter1)) {
             updateInputParameter1(true, getString(R.string.run_time), INPUT_TYPE_TIME,
-                    settings.getDurationUnit().getLabel(getContext()));
+                    Utils.getLabel(getContext(), settings.getDurationUnit()));
         } else {
             updateInputParameter1(false, getString(R.string.run_parameter_1), InputType.TYPE_CLASS_TEXT, getString(R.string.unit));
         }
@@ -403,15 +489,16 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
      * The second input parameter can be duration, pace or speed.
      */
     private void updateInputParameter2() {
+        final ParameterType inputParameter2 = state.getInputParameter2();
         if (ParameterType.DURATION.equals(inputParameter2)) {
             updateInputParameter2(true, getString(R.string.run_time), INPUT_TYPE_TIME,
-                    settings.getDurationUnit().getLabel(getContext()));
+                    Utils.getLabel(getContext(), settings.getDurationUnit()));
         } else if (ParameterType.PACE.equals(inputParameter2)) {
             updateInputParameter2(true, getString(R.string.pace), INPUT_TYPE_TIME,
-                    settings.getPaceUnit().getLabel(getContext()));
+                    Utils.getLabel(getContext(), settings.getPaceUnit()));
         } else if (ParameterType.SPEED.equals(inputParameter2)) {
             updateInputParameter2(true, getString(R.string.speed), INPUT_TYPE_NUMBER,
-                    settings.getSpeedUnit().getLabel(getContext()));
+                    Utils.getLabel(getContext(), settings.getSpeedUnit()));
         } else {
             updateInputParameter2(false, getString(R.string.run_parameter_2), InputType.TYPE_CLASS_TEXT, getString(R.string.unit));
         }
@@ -431,7 +518,7 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
                 isEnabled, label, inputType, unit);
         // add dialogs
         if (settings.isDialogInput()) {
-            createInputParameterListeners(inputParameter1EditText, inputParameter1);
+            createInputParameterListeners(inputParameter1EditText, state.getInputParameter1());
         } else {
             inputParameter1EditText.setOnClickListener(null);
             inputParameter1EditText.setFocusable(true);
@@ -453,7 +540,7 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
                 isEnabled, label, inputType, unit);
         // add dialogs
         if (settings.isDialogInput()) {
-            createInputParameterListeners(inputParameter2EditText, inputParameter2);
+            createInputParameterListeners(inputParameter2EditText, state.getInputParameter2());
         } else {
             inputParameter2EditText.setOnClickListener(null);
             inputParameter2EditText.setFocusable(true);
@@ -531,15 +618,6 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
         });
     }
 
-    /**
-     * Returns the number of set run parameters.
-     *
-     * @return 2 if both parameters set, 1 if one parameter is set, 0 if no parameter is set
-     */
-    private int getNumberOfSetInputParameters() {
-        return (inputParameter1 != null ? 1 : 0) + (inputParameter2 != null ? 1 : 0);
-    }
-
     /**
      * Applys the set run parameter value.
      *
@@ -547,9 +625,9 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
      */
     @Override
     public void applyValue(ParameterType parameter, Object value, Unit unit) {
-        if (parameter.equals(inputParameter1)) {
+        if (parameter.equals(state.getInputParameter1())) {
             inputParameter1EditText.setText("" + value);
-        } else if (parameter.equals(inputParameter2)) {
+        } else if (parameter.equals(state.getInputParameter2())) {
             inputParameter2EditText.setText("" + value);
         }
     }
@@ -564,53 +642,40 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
     public void applyRun(String runJson) {
         try {
             Run run = Run.jsonToRun(runJson);
+            if (run == null) {
+                return;
+            }
+            ParameterType parameter1 = null;
+            String text1 = "";
+            ParameterType parameter2 = null;
+            String text2 = "";
             if (runJson.contains(ParameterType.DISTANCE.name())) {
-                inputParameter1 = ParameterType.DISTANCE;
-                inputParameter1EditText.setText(run.getDistance(settings.getDistanceUnit()));
-                selectRunParameterButton(distanceButton, true);
+                parameter1 = ParameterType.DISTANCE;
+                text1 = run.getDistance(settings.getDistanceUnit());
                 if (runJson.contains(ParameterType.DURATION.name())) {
-                    inputParameter2 = ParameterType.DURATION;
-                    inputParameter2EditText.setText(run.getDuration());
-                    selectRunParameterButton(durationButton, true);
-                    selectRunParameterButton(paceButton, false);
-                    selectRunParameterButton(speedButton, false);
+                    parameter2 = ParameterType.DURATION;
+                    text2 = run.getDuration();
                 } else if (runJson.contains(ParameterType.PACE.name())) {
-                    inputParameter2 = ParameterType.PACE;
-                    inputParameter2EditText.setText(run.getPace(settings.getPaceUnit()));
-                    selectRunParameterButton(durationButton, false);
-                    selectRunParameterButton(paceButton, true);
-                    selectRunParameterButton(speedButton, false);
+                    parameter2 = ParameterType.PACE;
+                    text2 = run.getPace(settings.getPaceUnit());
                 } else if (runJson.contains(ParameterType.SPEED.name())) {
-                    inputParameter2 = ParameterType.SPEED;
-                    inputParameter2EditText.setText(run.getSpeed(settings.getSpeedUnit()));
-                    selectRunParameterButton(durationButton, false);
-                    selectRunParameterButton(paceButton, false);
-                    selectRunParameterButton(speedButton, true);
+                    parameter2 = ParameterType.SPEED;
+                    text2 = run.getSpeed(settings.getSpeedUnit());
                 }
             } else if (runJson.contains(ParameterType.DURATION.name())) {
-                inputParameter1 = ParameterType.DURATION;
-                inputParameter1EditText.setText(run.getDuration());
-                selectRunParameterButton(durationButton, true);
-                selectRunParameterButton(distanceButton, false);
+                parameter1 = ParameterType.DURATION;
+                text1 = run.getDuration();
                 if (runJson.contains(ParameterType.PACE.name())) {
-                    inputParameter2 = ParameterType.PACE;
-                    inputParameter2EditText.setText(run.getPace(settings.getPaceUnit()));
-                    selectRunParameterButton(paceButton, true);
-                    selectRunParameterButton(speedButton, false);
+                    parameter2 = ParameterType.PACE;
+                    text2 = run.getPace(settings.getPaceUnit());
                 } else if (runJson.contains(ParameterType.SPEED.name())) {
-                    inputParameter2 = ParameterType.SPEED;
-                    inputParameter2EditText.setText(run.getSpeed(settings.getSpeedUnit()));
-                    selectRunParameterButton(paceButton, false);
-                    selectRunParameterButton(speedButton, true);
+                    parameter2 = ParameterType.SPEED;
+                    text2 = run.getSpeed(settings.getSpeedUnit());
                 }
             }
-            currentRun = run;
-            currentRunJson = run.toJson();
-            enableButtons();
-            updateInputArea();
-            updateResultArea();
+            state.setInput(parameter1, text1, parameter2, text2);
             calculateAndUpdateRun();
-        } catch (JSONException | CustomException ex) {
+        } catch (CustomException ex) {
             Log.e("error", ex.getMessage());
         }
     }
@@ -620,142 +685,46 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
     // =============================================================================================
 
     /**
-     * Initializes the run result.
-     */
-    private void updateResultArea() {
-        // get number of set input parameters
-        final int noOfSetRunParameters = getNumberOfSetInputParameters();
-
-        // reset calories and cadence count
-        resetStaticResultParameters(noOfSetRunParameters == 2);
-
-        // update temporary result parameters
-        if (noOfSetRunParameters == 2) {
-            final ParameterType outputParameter1 = defineOuputRunParameter1();
-            final ParameterType outputParameter2 = defineOuputRunParameter2(outputParameter1);
-            updateResultParameter1(outputParameter1);
-            updateResultParameter2(outputParameter2);
-        } else if (noOfSetRunParameters == 1 && ParameterType.PACE.equals(inputParameter2)) {
-            updateResultParameter1(false, getString(R.string.speed), settings.getSpeedUnit().toString());
-            updateResultParameter2(null);
-        } else if (noOfSetRunParameters == 1 && ParameterType.SPEED.equals(inputParameter2)) {
-            updateResultParameter1(false, getString(R.string.pace), settings.getPaceUnit().toString());
-            updateResultParameter2(null);
-        } else {
-            updateResultParameter1(null);
-            updateResultParameter2(null);
-        }
-    }
-
-    /**
-     * Defines the output run parameter 1, which can be distance, duration or pace.
-     *
-     * @return run parameter 1 for output
-     */
-    private ParameterType defineOuputRunParameter1() {
-        return !ParameterType.DISTANCE.equals(inputParameter1)
-                ? ParameterType.DISTANCE
-                : !ParameterType.DURATION.equals(inputParameter1) && !ParameterType.DURATION.equals(inputParameter2)
-                ? ParameterType.DURATION
-                : !ParameterType.PACE.equals(inputParameter2)
-                ? ParameterType.PACE : null;
-    }
-
-    /**
-     * Defines the output run parameter 2 depending on run parameter 1. Parameter can be duration,
-     * pace or speed.
-     *
-     * @param outputParameterType1 run parameter 1 for output
-     * @return run parameter 2 for output
-     */
-    private ParameterType defineOuputRunParameter2(ParameterType outputParameterType1) {
-        return !ParameterType.DURATION.equals(outputParameterType1)
-                && !ParameterType.DURATION.equals(inputParameter1) && !ParameterType.DURATION.equals(inputParameter2)
-                ? ParameterType.DURATION
-                : !ParameterType.PACE.equals(outputParameterType1) && !ParameterType.PACE.equals(inputParameter2)
-                ? ParameterType.PACE : ParameterType.SPEED;
-    }
-
-    /**
-     * Resets calories and cadence count fields.
+     * Enables or disables calories and cadence count fields.
      *
-     * @param isEnabled is enabled of both input parameters are selected.
+     * @param isEnabled is enabled if both input parameters are selected.
      */
-    private void resetStaticResultParameters(boolean isEnabled) {
+    private void enableStaticResultParameters(boolean isEnabled) {
         // calories row
         caloriesLabelTextView.setEnabled(isEnabled);
-        caloriesValueTextView.setText("-");
         caloriesValueTextView.setEnabled(isEnabled);
         caloriesUnitTextView.setEnabled(isEnabled);
         // cadence count row
         cadenceCountLabelTextView.setEnabled(isEnabled);
-        cadenceCountValueTextView.setText("-");
         cadenceCountValueTextView.setEnabled(isEnabled);
         cadenceCountUnitTextView.setEnabled(isEnabled);
     }
 
     /**
-     * Updates first result parameter.
-     *
-     * @param resultParameter result parameter
-     */
-    private void updateResultParameter1(ParameterType resultParameter) {
-        if (ParameterType.DISTANCE.equals(resultParameter)) {
-            updateResultParameter1(true, getString(R.string.distance), settings.getDistanceUnit().toString());
-        } else if (ParameterType.DURATION.equals(resultParameter)) {
-            updateResultParameter1(true, getString(R.string.run_time), settings.getDurationUnit().toString());
-        } else if (ParameterType.PACE.equals(resultParameter)) {
-            updateResultParameter1(true, getString(R.string.pace), settings.getPaceUnit().toString());
-        } else if (ParameterType.SPEED.equals(resultParameter)) {
-            updateResultParameter1(true, getString(R.string.speed), settings.getSpeedUnit().toString());
-        } else {
-            updateResultParameter1(false, getString(R.string.run_result_param_1), "");
-        }
-    }
-
-    /**
-     * Updates first result parameter.
+     * Updates label and unit of a result parameter. The value is updated separately.
      *
-     * @param resultParameter result parameter
+     * @param label           text view for label
+     * @param value           text view for result
+     * @param unit            text view for unit
+     * @param resultParameter result parameter or null
+     * @param placeholder     label, if no result parameter is defined
      */
-    private void updateResultParameter2(ParameterType resultParameter) {
+    private void updateResultParameter(TextView label, TextView value, TextView unit,
+                                       ParameterType resultParameter, String placeholder) {
+        final boolean isEnabled = state.isResultEnabled();
         if (ParameterType.DISTANCE.equals(resultParameter)) {
-            updateResultParameter2(true, getString(R.string.distance), settings.getDistanceUnit().toString());
+            updateResultParameter(label, value, unit, isEnabled, getString(R.string.distance), settings.getDistanceUnit().toString());
         } else if (ParameterType.DURATION.equals(resultParameter)) {
-            updateResultParameter2(true, getString(R.string.run_time), settings.getDurationUnit().toString());
+            updateResultParameter(label, value, unit, isEnabled, getString(R.string.run_time), settings.getDurationUnit().toString());
         } else if (ParameterType.PACE.equals(resultParameter)) {
-            updateResultParameter2(true, getString(R.string.pace), settings.getPaceUnit().toString());
+            updateResultParameter(label, value, unit, isEnabled, getString(R.string.pace), settings.getPaceUnit().toString());
         } else if (ParameterType.SPEED.equals(resultParameter)) {
-            updateResultParameter2(true, getString(R.string.speed), settings.getSpeedUnit().toString());
+            updateResultParameter(label, value, unit, isEnabled, getString(R.string.speed), settings.getSpeedUnit().toString());
         } else {
-            updateResultParameter2(false, getString(R.string.run_result_param_2), "");
+            updateResultParameter(label, value, unit, false, placeholder, "");
         }
     }
 
-    /**
-     * Updates first result parameter.
-     *
-     * @param isEnabled if value is enabled
-     * @param label     label
-     * @param unit      unit
-     */
-    private void updateResultParameter1(boolean isEnabled, String label, String unit) {
-        updateResultParameter(resultParameter1LabelTextView, resultParameter1ValueTextView,
-                resultParameter1UnitTextView, isEnabled, label, unit);
-    }
-
-    /**
-     * Updates second result parameter.
-     *
-     * @param isEnabled if value is enabled
-     * @param label     label
-     * @param unit      unit
-     */
-    private void updateResultParameter2(boolean isEnabled, String label, String unit) {
-        updateResultParameter(resultParameter2LabelTextView, resultParameter2ValueTextView,
-                resultParameter2UnitTextView, isEnabled, label, unit);
-    }
-
     /**
      * Updates the a result paremter.
      *
@@ -770,15 +739,48 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
                                        boolean isEnabled, String labelText, String unitText) {
         label.setText(labelText);
         label.setEnabled(isEnabled);
-        value.setText("-");
         value.setEnabled(isEnabled);
         unit.setText(unitText);
         unit.setEnabled(isEnabled);
     }
+
     // =============================================================================================
     // Initialize
     // =============================================================================================
 
+    /**
+     * Initializes the calculator, which calculates the run on a background thread and delivers
+     * the result on the main thread.
+     */
+    private void initCalculator() {
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        calculator = new DebouncedCalculator<>(
+                new DebouncedCalculator.Calculation<RunInput, RunCalculation>() {
+                    @Override
+                    public RunCalculation calculate(RunInput input) throws CustomException {
+                        return calculateRun(input);
+                    }
+                },
+                new DebouncedCalculator.Listener<RunCalculation>() {
+                    @Override
+                    public void onResult(RunCalculation calculation) {
+                        applyCalculatedRun(calculation);
+                    }
+
+                    @Override
+                    public void onError(CustomException ex) {
+                        Log.e("error", ex.getMessage());
+                        Toast.makeText(getContext(), ex.getMessage(), Toast.LENGTH_LONG).show();
+                    }
+                },
+                new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        mainHandler.post(command);
+                    }
+                }, CALCULATION_DELAY);
+    }
+
     /**
      * Initializes gui elements.
      */
@@ -827,15 +829,16 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
         favoriteButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View button) {
-                if (favoriteRuns.contains(currentRunJson)) {
-                    favoriteRuns.remove(currentRunJson);
+                final String runJson = state.getRunJson();
+                if (favoriteRuns.contains(runJson)) {
+                    favoriteRuns.remove(runJson);
+                    settings.removeFavoriteRun(runJson);
                     Toast.makeText(getContext(), getString(R.string.run_removed), Toast.LENGTH_LONG).show();
                 } else {
-                    favoriteRuns.add(currentRunJson);
+                    favoriteRuns.add(runJson);
+                    settings.addFavoriteRun(runJson);
                     Toast.makeText(getContext(), getString(R.string.run_added), Toast.LENGTH_LONG).show();
                 }
-                // save favorite runs
-                settings.setFavoriteRuns(favoriteRuns);
                 // update active favorite button
                 updateActiveFavoriteButton();
             }
@@ -847,7 +850,7 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
      *
      * @param inputField input field
      */
-    private void addTextWatcherToEditText(EditText inputField) {
+    private void addTextWatcherToEditText(final EditText inputField) {
         inputField.addTextChangedListener(new TextWatcher() {
 
             public void afterTextChanged(Editable s) { /* do nothing */ }
@@ -857,6 +860,15 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
 
             public void onTextChanged(CharSequence s, int start,
                                       int before, int count) {
+                // texts set from the state are known already
+                if (applyingChanges) {
+                    return;
+                }
+                if (inputField == inputParameter1EditText) {
+                    state.setInputText1(s.toString());
+                } else {
+                    state.setInputText2(s.toString());
+                }
                 try {
                     calculateAndUpdateRun();
                 } catch (Exception ex) {
@@ -878,23 +890,85 @@ public class TabRun extends Fragment implements ValueChangeListener, RunLoadedLi
             public void onClick(View button) {
                 switch (button.getId()) {
                     case R.id.distanceButton:
-                        selectRunParameterButton(distanceButton, applyRunParameter1(ParameterType.DISTANCE));
+                        state.select(ParameterType.DISTANCE);
                         break;
                     case R.id.durationButton:
-                        selectRunParameterButton(durationButton, ParameterType.DISTANCE.equals(inputParameter1)
-                                ? applyRunParameter2(ParameterType.DURATION) : applyRunParameter1(ParameterType.DURATION));
+                        state.select(ParameterType.DURATION);
                         break;
                     case R.id.paceButton:
-                        selectRunParameterButton(paceButton, applyRunParameter2(ParameterType.PACE));
+                        state.select(ParameterType.PACE);
                         break;
                     case R.id.speedButton:
-                        selectRunParameterButton(speedButton, applyRunParameter2(ParameterType.SPEED));
+                        state.select(ParameterType.SPEED);
                         break;
                 }
-                enableButtons();
-                updateInputArea();
-                updateResultArea();
+                try {
+                    calculateAndUpdateRun();
+                } catch (CustomException ex) {
+                    Log.e(ex.getTitle(), ex.getMessage());
+                    Toast.makeText(getContext(), ex.getMessage(), Toast.LENGTH_LONG).show();
+                }
             }
         });
     }
+
+    // =============================================================================================
+    // Calculation
+    // =============================================================================================
+
+    /**
+     * Input of a run calculation, which is taken from the gui on the main thread.
+     */
+    private static final class RunInput {
+
+        private final ParameterType parameter1;
+        private final String text1;
+        private final ParameterType parameter2;
+        private final String text2;
+        private final Unit distanceUnit;
+        private final Unit paceUnit;
+        private final Unit speedUnit;
+        private final PaceTable paceTable;
+        private final int weightInKg;
+        private final int heightInCm;
+
+        /**
+         * Creates an input of the entered texts and the current settings.
+         *
+         * @param parameter1 type of run parameter 1
+         * @param text1      entered text of run parameter 1
+         * @param parameter2 type of run parameter 2
+         * @param text2      entered text of run parameter 2
+         * @param settings   settings
+         * @throws CustomException if weight, height or units are invalid
+         */
+        private RunInput(ParameterType parameter1, String text1, ParameterType parameter2,
+                         String text2, SettingsManager settings) throws CustomException {
+            this.parameter1 = parameter1;
+            this.text1 = text1;
+            this.parameter2 = parameter2;
+            this.text2 = text2;
+            this.distanceUnit = settings.getDistanceUnit();
+            this.paceUnit = settings.getPaceUnit();
+            this.speedUnit = settings.getSpeedUnit();
+            this.paceTable = settings.getPaceTable();
+            this.weightInKg = settings.getWeightInKg();
+            this.heightInCm = settings.getHeightInCm();
+        }
+    }
+
+    /**
+     * Calculated run with the formatted texts for the gui.
+     */
+    private static final class RunCalculation {
+
+        private final RunResult result = new RunResult();
+        private boolean solved;
+        private int flags;
+        private String json;
+        private String value1;
+        private String value2;
+        private String calories;
+        private String cadenceCount;
+    }
 }
@@ -20,11 +20,10 @@ import com.stappert.runulator.R;
 import com.stappert.runulator.utils.CustomException;
 import com.stappert.runulator.utils.ParameterType;
 import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunJsonCodec;
 import com.stappert.runulator.utils.RunLoadedListener;
 import com.stappert.runulator.utils.SettingsManager;
 
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.w3c.dom.Text;
 
 import java.util.HashMap;
@@ -140,31 +139,43 @@ public class LoadRunDialog extends AppCompatDialogFragment {
         String preposition = "";
         String parameter2 = "";
         try {
-            JSONObject runJson = new JSONObject(runJsonString);
-            if (runJson.has(ParameterType.DISTANCE.name())) {
-                parameter1 = settings.getDistanceUnit().format(runJson.getDouble(ParameterType.DISTANCE.name()));
-                if (runJson.has(ParameterType.DURATION.name())) {
+            final float[] values = new float[RunJsonCodec.VALUE_COUNT];
+            final int mask = RunJsonCodec.read(runJsonString, values);
+            if (has(mask, ParameterType.DISTANCE)) {
+                parameter1 = settings.getDistanceUnit().format(values[ParameterType.DISTANCE.ordinal()]);
+                if (has(mask, ParameterType.DURATION)) {
                     preposition = getString(R.string.in);
-                    parameter2 = settings.getDurationUnit().format(runJson.getInt(ParameterType.DURATION.name()));
-                } else if (runJson.has(ParameterType.PACE.name())) {
+                    parameter2 = settings.getDurationUnit().format((int) values[ParameterType.DURATION.ordinal()]);
+                } else if (has(mask, ParameterType.PACE)) {
                     preposition = getString(R.string.with);
-                    parameter2 = settings.getPaceUnit().format(runJson.getInt(ParameterType.PACE.name()));
-                } else if (runJson.has(ParameterType.SPEED.name())) {
+                    parameter2 = settings.getPaceUnit().format((int) values[ParameterType.PACE.ordinal()]);
+                } else if (has(mask, ParameterType.SPEED)) {
                     preposition = getString(R.string.with);
-                    parameter2 = settings.getSpeedUnit().format(runJson.getInt(ParameterType.SPEED.name()));
+                    parameter2 = settings.getSpeedUnit().format(values[ParameterType.SPEED.ordinal()]);
                 }
-            } else if (runJson.has(ParameterType.DURATION.name())) {
-                parameter1 = settings.getDurationUnit().format(runJson.getInt(ParameterType.DURATION.name()));
+            } else if (has(mask, ParameterType.DURATION)) {
+                parameter1 = settings.getDurationUnit().format((int) values[ParameterType.DURATION.ordinal()]);
                 preposition = getString(R.string.with);
-                if (runJson.has(ParameterType.PACE.name())) {
-                    parameter2 = settings.getPaceUnit().format(runJson.getInt(ParameterType.PACE.name()));
-                } else if (runJson.has(ParameterType.SPEED.name())) {
-                    parameter2 = settings.getSpeedUnit().format(runJson.getInt(ParameterType.SPEED.name()));
+                if (has(mask, ParameterType.PACE)) {
+                    parameter2 = settings.getPaceUnit().format((int) values[ParameterType.PACE.ordinal()]);
+                } else if (has(mask, ParameterType.SPEED)) {
+                    parameter2 = settings.getSpeedUnit().format(values[ParameterType.SPEED.ordinal()]);
                 }
             }
-        } catch (JSONException e) {
+        } catch (CustomException e) {
             e.printStackTrace();
         }
         return parameter1 + " " + preposition + " " + parameter2;
     }
+
+    /**
+     * Returns true, if the mask of the read json string contains the parameter.
+     *
+     * @param mask      mask of read parameters
+     * @param parameter parameter
+     * @return true, if parameter was read
+     */
+    private static boolean has(int mask, ParameterType parameter) {
+        return (mask & 1 << parameter.ordinal()) != 0;
+    }
 }
@@ -2,12 +2,36 @@ package com.stappert.runulator.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
-import org.json.JSONException;
+import com.stappert.runulator.forecast.FatigueFitter;
+import com.stappert.runulator.forecast.ForecastCache;
+import com.stappert.runulator.forecast.RiegelModel;
+import com.stappert.runulator.storage.FavoriteRunRepository;
+import com.stappert.runulator.storage.PersonalRecords;
+import com.stappert.runulator.storage.RunEntry;
+import com.stappert.runulator.storage.RunHistory;
+import com.stappert.runulator.storage.RunLog;
+import com.stappert.runulator.storage.WriteBehindBuffer;
 
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages all settings for this application.
@@ -31,6 +55,33 @@ public class SettingsManager {
     private static String KEY_BIRTHDAY = "birthday";
     private static String KEY_IS_DIALOG_INPUT = "isDialogInput";
 
+    /**
+     * Keys of the settings, which are part of the snapshot.
+     */
+    private static final Set<String> SNAPSHOT_KEYS = new HashSet<>(Arrays.asList(KEY_DISTANCE,
+            KEY_DISTANCE_UNIT, KEY_DURATION, KEY_PACE_UNIT, KEY_SPEED_UNIT, KEY_WEIGHT,
+            KEY_WEIGHT_UNIT, KEY_HEIGHT, KEY_HEIGHT_UNIT, KEY_BIRTHDAY, KEY_IS_DIALOG_INPUT));
+
+    /**
+     * File name of the favorite runs in the app-private storage.
+     */
+    private static final String FAVORITES_FILE = "favorites.bin";
+
+    /**
+     * Directory of the run history in the app-private storage.
+     */
+    private static final String HISTORY_DIRECTORY = "history";
+
+    /**
+     * File of the personal records in the app-private storage.
+     */
+    private static final String RECORDS_FILE = "records.bin";
+
+    /**
+     * Maximum number of cached forecasts.
+     */
+    private static final int FORECAST_CACHE_CAPACITY = 512;
+
     /**
      * Single object of the settings manager.
      */
@@ -41,6 +92,97 @@ public class SettingsManager {
      */
     private SharedPreferences sharedPreferences;
 
+    /**
+     * Delay in milliseconds, after which changed values are written to the shared preferences.
+     */
+    private static final long WRITE_DELAY = 500;
+
+    /**
+     * Buffer of changed values, which are not written to the shared preferences yet.
+     */
+    private WriteBehindBuffer writeBehindBuffer;
+
+    /**
+     * Typed snapshot of the settings, which is replaced on each change.
+     */
+    private volatile SettingsSnapshot snapshot;
+
+    /**
+     * Updates the snapshot, when the shared preferences are changed. The shared preferences keep
+     * only a weak reference, so the listener is stored here.
+     */
+    private final SharedPreferences.OnSharedPreferenceChangeListener preferenceChangeListener =
+            new SharedPreferences.OnSharedPreferenceChangeListener() {
+                @Override
+                public void onSharedPreferenceChanged(SharedPreferences preferences, String key) {
+                    if (key == null || SNAPSHOT_KEYS.contains(key)) {
+                        updateSnapshot();
+                    }
+                }
+            };
+
+    /**
+     * Favorite runs, stored in a binary run log.
+     */
+    private FavoriteRunRepository favoriteRuns;
+
+    /**
+     * Single background thread, which reads and writes the run history and the personal records,
+     * so that their files are not accessed on the main thread. The history, the personal records
+     * and their file are only used by tasks of this executor.
+     */
+    private ExecutorService historyExecutor;
+
+    /**
+     * Handler, which delivers the personal records to the main thread.
+     */
+    private Handler mainHandler;
+
+    /**
+     * History of all calculated runs.
+     */
+    private RunHistory runHistory;
+
+    /**
+     * Distance of the run, which was added last to the history.
+     */
+    private float lastHistoryDistance;
+
+    /**
+     * Duration of the run, which was added last to the history.
+     */
+    private int lastHistoryDuration;
+
+    /**
+     * File of the personal records.
+     */
+    private File personalRecordsFile;
+
+    /**
+     * Personal records of the run history, loaded on first access.
+     */
+    private PersonalRecords personalRecords;
+
+    /**
+     * Number of history rows of the stored personal records.
+     */
+    private int savedPersonalRecordsRows = -1;
+
+    /**
+     * Fit of the personal fatigue coefficient over the favorite runs, created on first access.
+     */
+    private FatigueFitter fatigueFitter;
+
+    /**
+     * Forecasts of the current run, shared by all views.
+     */
+    private final ForecastCache forecastCache = new ForecastCache(FORECAST_CACHE_CAPACITY);
+
+    /**
+     * Paces and speeds in the current units, created on first access.
+     */
+    private PaceTable paceTable;
+
     // =============================================================================================
     // create singleton
     // =============================================================================================
@@ -68,6 +210,36 @@ public class SettingsManager {
      */
     public SettingsManager init(Context context) {
         this.sharedPreferences = Utils.getSharedPreferences(context);
+        if (writeBehindBuffer == null) {
+            writeBehindBuffer = new WriteBehindBuffer(new WriteBehindBuffer.Sink() {
+                @Override
+                public void write(Map<String, Object> values) {
+                    writeValues(values);
+                }
+            }, WRITE_DELAY);
+        }
+        if (favoriteRuns == null) {
+            favoriteRuns = new FavoriteRunRepository(
+                    new RunLog(new File(context.getFilesDir(), FAVORITES_FILE)));
+        }
+        if (runHistory == null) {
+            runHistory = new RunHistory(new File(context.getFilesDir(), HISTORY_DIRECTORY));
+            personalRecordsFile = new File(context.getFilesDir(), RECORDS_FILE);
+            mainHandler = new Handler(Looper.getMainLooper());
+            historyExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "run-history");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        if (snapshot == null) {
+            sharedPreferences.registerOnSharedPreferenceChangeListener(preferenceChangeListener);
+        }
+        migrateFavoriteRuns();
+        updateSnapshot();
         return SETTINGS;
     }
 
@@ -81,7 +253,7 @@ public class SettingsManager {
      * @return distance
      */
     public float getDistance() {
-        return sharedPreferences.getFloat(KEY_DISTANCE, 10);
+        return snapshot.getDistance();
     }
 
     /**
@@ -110,7 +282,7 @@ public class SettingsManager {
      * @return distance unit.
      */
     public Unit getDistanceUnit() {
-        return Unit.valueOf((sharedPreferences.getString(KEY_DISTANCE_UNIT, Unit.KM.name())));
+        return snapshot.getDistanceUnit();
     }
 
     /**
@@ -128,7 +300,7 @@ public class SettingsManager {
      * @return duration
      */
     public int getDuration() {
-        return sharedPreferences.getInt(KEY_DURATION, Unit.HOUR_IN_SECONDS);
+        return snapshot.getDuration();
     }
 
     /**
@@ -184,7 +356,7 @@ public class SettingsManager {
      * @return speed unit.
      */
     public Unit getPaceUnit() {
-        return Unit.valueOf((sharedPreferences.getString(KEY_PACE_UNIT, Unit.MIN_KM.name())));
+        return snapshot.getPaceUnit();
     }
 
     /**
@@ -222,7 +394,7 @@ public class SettingsManager {
      * @return speed unit.
      */
     public Unit getSpeedUnit() {
-        return Unit.valueOf((sharedPreferences.getString(KEY_SPEED_UNIT, Unit.KM_H.name())));
+        return snapshot.getSpeedUnit();
     }
 
     /**
@@ -234,6 +406,31 @@ public class SettingsManager {
         saveValue(KEY_SPEED_UNIT, unit.name());
     }
 
+    /**
+     * Returns the unit regarding to parameter type.
+     *
+     * @param parameterType parameter type
+     * @return unit
+     */
+    public Unit getUnit(ParameterType parameterType) {
+        switch (parameterType) {
+            case DISTANCE:
+                return getDistanceUnit();
+            case DURATION:
+                return getDurationUnit();
+            case PACE:
+                return getPaceUnit();
+            case SPEED:
+                return getSpeedUnit();
+            case WEIGHT:
+                return getWeightUnit();
+            case HEIGHT:
+                return getHeightUnit();
+            default:
+                return Unit.DEFAULT;
+        }
+    }
+
     /**
      * Returns the last calculated run. If no run is available, a default run (10 km, 60 minutes)
      * will be returned.
@@ -241,7 +438,7 @@ public class SettingsManager {
      * @return run
      */
     public String getRunJson() throws CustomException {
-        return sharedPreferences.getString(KEY_RUN, Run.defaultRun().toJson());
+        return getStringValue(KEY_RUN, Run.defaultRun().toJson());
     }
 
     /**
@@ -252,11 +449,13 @@ public class SettingsManager {
      * @throws CustomException if run can not be created
      */
     public Run getRun() throws CustomException {
+        Run run = null;
         try {
-        return Run.jsonToRun(getRunJson());
-    } catch (JSONException ex) {
-            return Run.defaultRun();
+            run = Run.jsonToRun(getRunJson());
+        } catch (CustomException ex) {
+            Log.e(ex.getTitle(), ex.getMessage());
         }
+        return run != null ? run : Run.defaultRun();
     }
 
     /**
@@ -271,12 +470,28 @@ public class SettingsManager {
     }
 
     /**
-     * Returns the favorite runs as json strings.
+     * Returns the favorite runs. The list is immutable and is only recreated, if the favorite runs
+     * have changed, see {@link #getFavoriteRunsVersion()}.
      *
      * @return favorite runs
      */
     public List<Run> getFavoriteRuns() {
-        return Run.jsonToRuns(sharedPreferences.getStringSet(KEY_RUNS, new HashSet<String>()));
+        try {
+            return favoriteRuns.getRuns();
+        } catch (IOException ex) {
+            Log.e("error", ex.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Returns the version of the favorite runs, which is increased with each change. Consumers can
+     * skip recalculations, while the version is unchanged.
+     *
+     * @return version of favorite runs
+     */
+    public int getFavoriteRunsVersion() {
+        return favoriteRuns.getVersion();
     }
 
     /**
@@ -285,16 +500,236 @@ public class SettingsManager {
      * @return favorite runs
      */
     public Set<String> getFavoriteRunsJson() {
-        return sharedPreferences.getStringSet(KEY_RUNS, new HashSet<String>());
+        Set<String> runsJson = new LinkedHashSet<>();
+        for (RunEntry entry : getFavoriteEntries()) {
+            try {
+                runsJson.add(entry.toJson());
+            } catch (CustomException ex) {
+                Log.e(ex.getTitle(), ex.getMessage());
+            }
+        }
+        return runsJson;
+    }
+
+    /**
+     * Adds a run to the favorite runs.
+     *
+     * @param runJson run as json string
+     */
+    public void addFavoriteRun(String runJson) {
+        try {
+            RunEntry entry = RunEntry.fromJson(runJson, System.currentTimeMillis());
+            if (favoriteRuns.add(entry)) {
+                if (fatigueFitter != null) {
+                    fatigueFitter.add(entry.getDistance(), entry.getDuration());
+                }
+                // a run is saved as favorite, after it was completed
+                appendToHistory(entry.getDistance(), entry.getDuration(), entry.getPace(),
+                        entry.getInputMask() | RunHistory.FLAG_COMPLETED);
+            }
+        } catch (CustomException | IOException ex) {
+            Log.e("error", ex.getMessage());
+        }
+    }
+
+    /**
+     * Removes a run from the favorite runs.
+     *
+     * @param runJson run as json string
+     */
+    public void removeFavoriteRun(String runJson) {
+        try {
+            RunEntry entry = RunEntry.fromJson(runJson, 0);
+            if (favoriteRuns.remove(entry)) {
+                if (fatigueFitter != null) {
+                    fatigueFitter.remove(entry.getDistance(), entry.getDuration());
+                }
+                // revokes the completed row, so that the run is no personal record anymore
+                appendToHistory(entry.getDistance(), entry.getDuration(), entry.getPace(),
+                        entry.getInputMask() | RunHistory.FLAG_REMOVED);
+            }
+        } catch (CustomException | IOException ex) {
+            Log.e("error", ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns the favorite runs as entries of the run log.
+     *
+     * @return favorite runs
+     */
+    private List<RunEntry> getFavoriteEntries() {
+        try {
+            return favoriteRuns.getEntries();
+        } catch (IOException ex) {
+            Log.e("error", ex.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Moves the favorite runs, which were stored as json strings in the shared preferences by
+     * previous versions, into the run log.
+     */
+    private void migrateFavoriteRuns() {
+        if (!sharedPreferences.contains(KEY_RUNS)) {
+            return;
+        }
+        List<RunEntry> entries = new ArrayList<>();
+        for (String runJson : sharedPreferences.getStringSet(KEY_RUNS, new HashSet<String>())) {
+            try {
+                entries.add(RunEntry.fromJson(runJson, 0));
+            } catch (CustomException ex) {
+                Log.e("error", ex.getMessage());
+            }
+        }
+        try {
+            favoriteRuns.addAll(entries);
+            sharedPreferences.edit().remove(KEY_RUNS).commit();
+        } catch (IOException ex) {
+            Log.e("error", ex.getMessage());
+        }
+    }
+
+    /**
+     * Adds a calculated run to the history, if it differs from the run, which was added last.
+     *
+     * @param run   calculated run
+     * @param flags input parameters as bit mask of their ordinals
+     */
+    public void addToHistory(RunResult run, int flags) {
+        if (run.getDistance() == lastHistoryDistance && run.getDuration() == lastHistoryDuration) {
+            return;
+        }
+        if (appendToHistory(run.getDistance(), run.getDuration(), run.getPace(), flags)) {
+            lastHistoryDistance = run.getDistance();
+            lastHistoryDuration = run.getDuration();
+        }
+    }
+
+    /**
+     * Listener of the personal records.
+     */
+    public interface PersonalRecordsListener {
+
+        /**
+         * Is called on the main thread with the best times at the standard distances.
+         *
+         * @param bestTimes best time in seconds per standard distance of
+         *                  {@link PersonalRecords#DISTANCES} or 0, if no run exists
+         */
+        void onPersonalRecords(int[] bestTimes);
+    }
+
+    /**
+     * Loads the best times of the personal records in the background and passes them to the
+     * listener on the main thread.
+     *
+     * @param listener listener of the best times
+     */
+    public void loadPersonalRecords(final PersonalRecordsListener listener) {
+        historyExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final PersonalRecords records = getPersonalRecords();
+                final int[] bestTimes = new int[PersonalRecords.DISTANCES.length];
+                for (int i = 0; i < bestTimes.length; i++) {
+                    bestTimes[i] = records.getBest(i);
+                }
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onPersonalRecords(bestTimes);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns the personal records of the run history. They are loaded from their file on first
+     * access, afterwards only the runs, which were added to the history since, are indexed. Must
+     * only be called by the history executor.
+     *
+     * @return personal records
+     */
+    private PersonalRecords getPersonalRecords() {
+        if (personalRecords == null) {
+            try {
+                personalRecords = PersonalRecords.load(personalRecordsFile);
+                savedPersonalRecordsRows = personalRecords.getHistoryRows();
+            } catch (IOException ex) {
+                // missing or damaged, rebuild from the history
+                personalRecords = new PersonalRecords();
+            }
+        }
+        try {
+            personalRecords.update(runHistory.getView());
+        } catch (IOException ex) {
+            Log.e("error", ex.getMessage());
+        }
+        return personalRecords;
+    }
+
+    /**
+     * Returns the cache of the forecasts of the current run. The forecasts are dropped, if the run
+     * changes.
+     *
+     * @return forecast cache
+     */
+    public ForecastCache getForecastCache() {
+        return forecastCache;
+    }
+
+    /**
+     * Returns the paces and speeds in the current pace and speed unit. The table is created again
+     * only, if a unit has changed since the last call.
+     *
+     * @return pace table
+     * @throws CustomException if units are not valid
+     */
+    public PaceTable getPaceTable() throws CustomException {
+        final Unit paceUnit = getPaceUnit();
+        final Unit speedUnit = getSpeedUnit();
+        if (paceTable == null || !paceTable.hasUnits(paceUnit, speedUnit)) {
+            paceTable = new PaceTable(paceUnit, speedUnit);
+        }
+        return paceTable;
     }
 
     /**
-     * Stores the favorite runs.
+     * Returns the fatigue coefficient for the forecast. If enough favorite runs over different
+     * distances exist, the coefficient is fitted to them, otherwise the default value is returned.
      *
-     * @param favoriteRuns favorite runs
+     * @return fatigue coefficient
      */
-    public void setFavoriteRuns(List<String> favoriteRuns) {
-        saveValue(KEY_RUNS, new HashSet<>(favoriteRuns));
+    public float getFatigueCoefficient() {
+        return getFatigueFitter().getFatigueCoefficient(RiegelModel.DEFAULT_FATIGUE_COEFFICIENT);
+    }
+
+    /**
+     * Returns true, if the fatigue coefficient is fitted to the favorite runs.
+     *
+     * @return true, if fatigue coefficient is personal
+     */
+    public boolean isPersonalFatigueCoefficient() {
+        return getFatigueFitter().isFitted();
+    }
+
+    /**
+     * Returns the fit of the fatigue coefficient. It is created from the favorite runs on first
+     * access, afterwards it is updated with each added or removed favorite run.
+     *
+     * @return fatigue fitter
+     */
+    private FatigueFitter getFatigueFitter() {
+        if (fatigueFitter == null) {
+            fatigueFitter = new FatigueFitter();
+            for (RunEntry entry : getFavoriteEntries()) {
+                fatigueFitter.add(entry.getDistance(), entry.getDuration());
+            }
+        }
+        return fatigueFitter;
     }
 
     /**
@@ -303,7 +738,7 @@ public class SettingsManager {
      * @return weight
      */
     public int getWeight() {
-        return sharedPreferences.getInt(KEY_WEIGHT, 100);
+        return snapshot.getWeight();
     }
 
     /**
@@ -322,7 +757,7 @@ public class SettingsManager {
      * @return weight unit
      */
     public Unit getWeightUnit() {
-        return Unit.valueOf((sharedPreferences.getString(KEY_WEIGHT_UNIT, Unit.KG.name())));
+        return snapshot.getWeightUnit();
     }
 
     /**
@@ -342,7 +777,7 @@ public class SettingsManager {
      * @return height
      */
     public int getHeight() {
-        return sharedPreferences.getInt(KEY_HEIGHT, 190);
+        return snapshot.getHeight();
     }
 
     /**
@@ -361,7 +796,7 @@ public class SettingsManager {
      * @return height unit
      */
     public Unit getHeightUnit() {
-        return Unit.valueOf((sharedPreferences.getString(KEY_HEIGHT_UNIT, Unit.CM.name())));
+        return snapshot.getHeightUnit();
     }
 
     /**
@@ -379,7 +814,7 @@ public class SettingsManager {
      * @return birthday
      */
     public long getBirthday() {
-        return sharedPreferences.getLong(KEY_BIRTHDAY, 0);
+        return snapshot.getBirthday();
     }
 
     /**
@@ -399,7 +834,7 @@ public class SettingsManager {
      * @return true, if dialog input is selected
      */
     public boolean isDialogInput() {
-        return sharedPreferences.getBoolean(KEY_IS_DIALOG_INPUT, true);
+        return snapshot.isDialogInput();
     }
 
     /**
@@ -412,26 +847,262 @@ public class SettingsManager {
     }
 
     /**
-     * Save value in shared preferences.
+     * Resets all settings to their default values.
+     */
+    public void reset() {
+        writeBehindBuffer.clear();
+        flushAndWait();
+        sharedPreferences.edit().clear().commit();
+        updateSnapshot();
+        favoriteRuns.clear();
+        lastHistoryDistance = 0;
+        lastHistoryDuration = 0;
+        historyExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                runHistory.clear();
+                personalRecordsFile.delete();
+                personalRecords = null;
+                savedPersonalRecordsRows = -1;
+            }
+        });
+        fatigueFitter = null;
+    }
+
+    /**
+     * Writes all pending values to the shared preferences without waiting, e.g. when the app is
+     * paused. The run history and the personal records are written in the background.
+     */
+    public void flush() {
+        if (writeBehindBuffer != null) {
+            writeBehindBuffer.flush();
+        }
+        if (historyExecutor != null) {
+            historyExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        runHistory.flush();
+                        if (personalRecords != null
+                                && personalRecords.getHistoryRows() != savedPersonalRecordsRows) {
+                            personalRecords.save(personalRecordsFile);
+                            savedPersonalRecordsRows = personalRecords.getHistoryRows();
+                        }
+                    } catch (IOException ex) {
+                        Log.e("error", ex.getMessage());
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes all pending values to the shared preferences and waits, until they are written.
+     */
+    public void flushAndWait() {
+        try {
+            writeBehindBuffer.flushAndWait();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of disk writes, which were saved by merging values into one write.
+     *
+     * @return number of saved writes
+     */
+    public long getSavedWrites() {
+        return writeBehindBuffer.getSavedWrites();
+    }
+
+    /**
+     * Appends a run with the current day to the history. The run is appended in the background.
+     *
+     * @param distance distance in km
+     * @param duration duration in seconds
+     * @param pace     pace in seconds per km
+     * @param flags    input parameters as bit mask of their ordinals,
+     *                 {@link RunHistory#FLAG_COMPLETED} and {@link RunHistory#FLAG_REMOVED}
+     * @return true, if run can be appended
+     */
+    private boolean appendToHistory(final float distance, final int duration, final int pace,
+                                    final int flags) {
+        if (!RunHistory.canAppend(distance, duration)) {
+            return false;
+        }
+        final long now = System.currentTimeMillis();
+        final int epochDay = (int) TimeUnit.MILLISECONDS.toDays(
+                now + TimeZone.getDefault().getOffset(now));
+        historyExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runHistory.append(epochDay, distance, duration, pace, flags);
+                } catch (IOException ex) {
+                    Log.e("error", ex.getMessage());
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Save value in shared preferences. The value is written together with other values after a
+     * short delay or on the next flush, but it can be read immediately.
      *
      * @param key   key
      * @param value value
      */
     private void saveValue(String key, Object value) {
+        writeBehindBuffer.put(key, value);
+        if (SNAPSHOT_KEYS.contains(key)) {
+            updateSnapshot(key, value);
+        }
+    }
+
+    /**
+     * Returns the snapshot of the typed settings. It does not change, so it can be used to read
+     * several settings consistently.
+     *
+     * @return snapshot of settings
+     */
+    public SettingsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Creates a new snapshot from the pending values and the shared preferences.
+     */
+    private void updateSnapshot() {
+        snapshot = new SettingsSnapshot(
+                getFloatValue(KEY_DISTANCE, 10),
+                Unit.valueOf(getStringValue(KEY_DISTANCE_UNIT, Unit.KM.name())),
+                getIntValue(KEY_DURATION, Unit.HOUR_IN_SECONDS),
+                Unit.valueOf(getStringValue(KEY_PACE_UNIT, Unit.MIN_KM.name())),
+                Unit.valueOf(getStringValue(KEY_SPEED_UNIT, Unit.KM_H.name())),
+                getIntValue(KEY_WEIGHT, 100),
+                Unit.valueOf(getStringValue(KEY_WEIGHT_UNIT, Unit.KG.name())),
+                getIntValue(KEY_HEIGHT, 190),
+                Unit.valueOf(getStringValue(KEY_HEIGHT_UNIT, Unit.CM.name())),
+                getLongValue(KEY_BIRTHDAY, 0),
+                getBooleanValue(KEY_IS_DIALOG_INPUT, true));
+    }
+
+    /**
+     * Creates a new snapshot from the current one, in which only the changed setting is replaced,
+     * so that saving a value does not read the shared preferences.
+     *
+     * @param key   key of the changed setting
+     * @param value new value as saved
+     */
+    private void updateSnapshot(String key, Object value) {
+        final SettingsSnapshot current = snapshot;
+        snapshot = new SettingsSnapshot(
+                KEY_DISTANCE.equals(key) ? (Float) value : current.getDistance(),
+                KEY_DISTANCE_UNIT.equals(key) ? Unit.valueOf((String) value) : current.getDistanceUnit(),
+                KEY_DURATION.equals(key) ? (Integer) value : current.getDuration(),
+                KEY_PACE_UNIT.equals(key) ? Unit.valueOf((String) value) : current.getPaceUnit(),
+                KEY_SPEED_UNIT.equals(key) ? Unit.valueOf((String) value) : current.getSpeedUnit(),
+                KEY_WEIGHT.equals(key) ? (Integer) value : current.getWeight(),
+                KEY_WEIGHT_UNIT.equals(key) ? Unit.valueOf((String) value) : current.getWeightUnit(),
+                KEY_HEIGHT.equals(key) ? (Integer) value : current.getHeight(),
+                KEY_HEIGHT_UNIT.equals(key) ? Unit.valueOf((String) value) : current.getHeightUnit(),
+                KEY_BIRTHDAY.equals(key) ? (Long) value : current.getBirthday(),
+                KEY_IS_DIALOG_INPUT.equals(key) ? (Boolean) value : current.isDialogInput());
+    }
+
+    /**
+     * Writes a batch of values into the shared preferences with one commit.
+     *
+     * @param values values by key
+     */
+    private void writeValues(Map<String, Object> values) {
         SharedPreferences.Editor editor = sharedPreferences.edit();
-        if (value instanceof Float) {
-            editor.putFloat(key, (Float) value);
-        } else if (value instanceof Integer) {
-            editor.putInt(key, (Integer) value);
-        } else if (value instanceof Set<?>) {
-            editor.putStringSet(key, (Set<String>) value);
-        } else if (value instanceof String) {
-            editor.putString(key, (String) value);
-        } else if (value instanceof Boolean) {
-            editor.putBoolean(key, (Boolean) value);
-        } else if (value instanceof Long) {
-            editor.putLong(key, (Long) value);
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            final String key = entry.getKey();
+            final Object value = entry.getValue();
+            if (value instanceof Float) {
+                editor.putFloat(key, (Float) value);
+            } else if (value instanceof Integer) {
+                editor.putInt(key, (Integer) value);
+            } else if (value instanceof Set<?>) {
+                editor.putStringSet(key, (Set<String>) value);
+            } else if (value instanceof String) {
+                editor.putString(key, (String) value);
+            } else if (value instanceof Boolean) {
+                editor.putBoolean(key, (Boolean) value);
+            } else if (value instanceof Long) {
+                editor.putLong(key, (Long) value);
+            } else if (value == WriteBehindBuffer.REMOVED) {
+                editor.remove(key);
+            }
         }
         editor.commit();
     }
+
+    /**
+     * Returns a float value, which is pending or stored in the shared preferences.
+     *
+     * @param key          key
+     * @param defaultValue default value
+     * @return value
+     */
+    private float getFloatValue(String key, float defaultValue) {
+        Object value = writeBehindBuffer.get(key);
+        return value instanceof Float ? (Float) value : value == WriteBehindBuffer.NOT_PENDING
+                ? sharedPreferences.getFloat(key, defaultValue) : defaultValue;
+    }
+
+    /**
+     * Returns an int value, which is pending or stored in the shared preferences.
+     *
+     * @param key          key
+     * @param defaultValue default value
+     * @return value
+     */
+    private int getIntValue(String key, int defaultValue) {
+        Object value = writeBehindBuffer.get(key);
+        return value instanceof Integer ? (Integer) value : value == WriteBehindBuffer.NOT_PENDING
+                ? sharedPreferences.getInt(key, defaultValue) : defaultValue;
+    }
+
+    /**
+     * Returns a long value, which is pending or stored in the shared preferences.
+     *
+     * @param key          key
+     * @param defaultValue default value
+     * @return value
+     */
+    private long getLongValue(String key, long defaultValue) {
+        Object value = writeBehindBuffer.get(key);
+        return value instanceof Long ? (Long) value : value == WriteBehindBuffer.NOT_PENDING
+                ? sharedPreferences.getLong(key, defaultValue) : defaultValue;
+    }
+
+    /**
+     * Returns a boolean value, which is pending or stored in the shared preferences.
+     *
+     * @param key          key
+     * @param defaultValue default value
+     * @return value
+     */
+    private boolean getBooleanValue(String key, boolean defaultValue) {
+        Object value = writeBehindBuffer.get(key);
+        return value instanceof Boolean ? (Boolean) value : value == WriteBehindBuffer.NOT_PENDING
+                ? sharedPreferences.getBoolean(key, defaultValue) : defaultValue;
+    }
+
+    /**
+     * Returns a string value, which is pending or stored in the shared preferences.
+     *
+     * @param key          key
+     * @param defaultValue default value
+     * @return value
+     */
+    private String getStringValue(String key, String defaultValue) {
+        Object value = writeBehindBuffer.get(key);
+        return value instanceof String ? (String) value : value == WriteBehindBuffer.NOT_PENDING
+                ? sharedPreferences.getString(key, defaultValue) : defaultValue;
+    }
 }
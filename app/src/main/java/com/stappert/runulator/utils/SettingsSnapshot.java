@@ -0,0 +1,194 @@
+package com.stappert.runulator.utils;
+
+/**
+ * Immutable snapshot of the typed settings. A new snapshot is created by the settings manager,
+ * whenever one of the settings changes, so that reading a setting does not access the shared
+ * preferences.
+ */
+public final class SettingsSnapshot {
+
+    /**
+     * Last set distance in km.
+     */
+    private final float distance;
+
+    /**
+     * Unit of distances.
+     */
+    private final Unit distanceUnit;
+
+    /**
+     * Last set duration in seconds.
+     */
+    private final int duration;
+
+    /**
+     * Unit of paces.
+     */
+    private final Unit paceUnit;
+
+    /**
+     * Unit of speeds.
+     */
+    private final Unit speedUnit;
+
+    /**
+     * Weight in weight unit.
+     */
+    private final int weight;
+
+    /**
+     * Unit of the weight.
+     */
+    private final Unit weightUnit;
+
+    /**
+     * Height in height unit.
+     */
+    private final int height;
+
+    /**
+     * Unit of the height.
+     */
+    private final Unit heightUnit;
+
+    /**
+     * Birthday in milliseconds since epoch.
+     */
+    private final long birthday;
+
+    /**
+     * True, if values are entered in dialogs.
+     */
+    private final boolean dialogInput;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param distance     last set distance in km
+     * @param distanceUnit distance unit
+     * @param duration     last set duration in seconds
+     * @param paceUnit     pace unit
+     * @param speedUnit    speed unit
+     * @param weight       weight in weight unit
+     * @param weightUnit   weight unit
+     * @param height       height in height unit
+     * @param heightUnit   height unit
+     * @param birthday     birthday
+     * @param dialogInput  true, if dialog input is selected
+     */
+    SettingsSnapshot(float distance, Unit distanceUnit, int duration, Unit paceUnit,
+                     Unit speedUnit, int weight, Unit weightUnit, int height, Unit heightUnit,
+                     long birthday, boolean dialogInput) {
+        this.distance = distance;
+        this.distanceUnit = distanceUnit;
+        this.duration = duration;
+        this.paceUnit = paceUnit;
+        this.speedUnit = speedUnit;
+        this.weight = weight;
+        this.weightUnit = weightUnit;
+        this.height = height;
+        this.heightUnit = heightUnit;
+        this.birthday = birthday;
+        this.dialogInput = dialogInput;
+    }
+
+    /**
+     * Returns the last set distance in km.
+     *
+     * @return distance
+     */
+    public float getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the distance unit.
+     *
+     * @return distance unit
+     */
+    public Unit getDistanceUnit() {
+        return distanceUnit;
+    }
+
+    /**
+     * Returns the last set duration in seconds.
+     *
+     * @return duration
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the pace unit.
+     *
+     * @return pace unit
+     */
+    public Unit getPaceUnit() {
+        return paceUnit;
+    }
+
+    /**
+     * Returns the speed unit.
+     *
+     * @return speed unit
+     */
+    public Unit getSpeedUnit() {
+        return speedUnit;
+    }
+
+    /**
+     * Returns the weight in weight unit.
+     *
+     * @return weight
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the weight unit.
+     *
+     * @return weight unit
+     */
+    public Unit getWeightUnit() {
+        return weightUnit;
+    }
+
+    /**
+     * Returns the height in height unit.
+     *
+     * @return height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the height unit.
+     *
+     * @return height unit
+     */
+    public Unit getHeightUnit() {
+        return heightUnit;
+    }
+
+    /**
+     * Returns the birthday.
+     *
+     * @return birthday
+     */
+    public long getBirthday() {
+        return birthday;
+    }
+
+    /**
+     * Returns true, if dialog input is selected.
+     *
+     * @return true, if dialog input is selected
+     */
+    public boolean isDialogInput() {
+        return dialogInput;
+    }
+}
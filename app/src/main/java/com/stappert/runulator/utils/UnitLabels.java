@@ -0,0 +1,112 @@
+package com.stappert.runulator.utils;
+
+import android.content.ComponentCallbacks;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+
+import java.util.Arrays;
+
+/**
+ * Labels of the units. The string resource id of a unit is looked up by name only once, the
+ * labels are kept by ordinal of the unit, so that the label of a unit is an array read. The
+ * labels are dropped, if the configuration (e.g. the language) changes, the resource ids stay.
+ */
+public final class UnitLabels {
+
+    /**
+     * Marks a resource id, which is not resolved yet.
+     */
+    private static final int UNRESOLVED = -1;
+
+    /**
+     * Resolved string resource ids by ordinal of the unit, 0 if the unit has no label.
+     */
+    private static final int[] RESOURCE_IDS = new int[Unit.values().length];
+
+    /**
+     * Labels by ordinal of the unit, null if not loaded yet.
+     */
+    private static final String[] LABELS = new String[Unit.values().length];
+
+    /**
+     * True, if the labels are dropped on configuration changes.
+     */
+    private static boolean registered;
+
+    static {
+        Arrays.fill(RESOURCE_IDS, UNRESOLVED);
+    }
+
+    /**
+     * Only static functions.
+     */
+    private UnitLabels() {
+    }
+
+    /**
+     * Returns the label of the unit. If no label exists, the international symbol is returned.
+     *
+     * @param context context
+     * @param unit    unit
+     * @return label
+     */
+    public static synchronized String get(Context context, Unit unit) {
+        String label = LABELS[unit.ordinal()];
+        if (label == null) {
+            register(context);
+            label = load(context.getResources(), context.getPackageName(), unit);
+            LABELS[unit.ordinal()] = label;
+        }
+        return label;
+    }
+
+    /**
+     * Drops all labels, so that they are loaded again in the current configuration.
+     */
+    public static synchronized void invalidate() {
+        Arrays.fill(LABELS, null);
+    }
+
+    // =============================================================================================
+    // private utility functions
+    // =============================================================================================
+
+    /**
+     * Loads the label of the unit and resolves its resource id, if not done yet.
+     *
+     * @param resources   resources
+     * @param packageName package of the resources
+     * @param unit        unit
+     * @return label
+     */
+    private static String load(Resources resources, String packageName, Unit unit) {
+        if (RESOURCE_IDS[unit.ordinal()] == UNRESOLVED) {
+            RESOURCE_IDS[unit.ordinal()] = unit.getLabelKey() != null
+                    ? resources.getIdentifier(unit.getLabelKey(), "string", packageName) : 0;
+        }
+        final int resourceId = RESOURCE_IDS[unit.ordinal()];
+        return resourceId != 0 ? resources.getString(resourceId) : unit.toString();
+    }
+
+    /**
+     * Registers at the application to drop the labels on configuration changes, once.
+     *
+     * @param context context
+     */
+    private static void register(Context context) {
+        if (registered) {
+            return;
+        }
+        context.getApplicationContext().registerComponentCallbacks(new ComponentCallbacks() {
+            @Override
+            public void onConfigurationChanged(Configuration configuration) {
+                invalidate();
+            }
+
+            @Override
+            public void onLowMemory() { /* labels are small */ }
+        });
+        registered = true;
+    }
+}
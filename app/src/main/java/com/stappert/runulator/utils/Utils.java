@@ -2,7 +2,6 @@ package com.stappert.runulator.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.drawable.BitmapDrawable;
@@ -10,6 +9,8 @@ import android.graphics.drawable.Drawable;
 
 import androidx.preference.Preference;
 
+import com.stappert.runulator.R;
+
 import java.time.Period;
 import java.util.Calendar;
 import java.util.Date;
@@ -18,15 +19,40 @@ import java.util.Set;
 public class Utils {
 
     /**
-     * Returns desired string via id name.
+     * Returns the label of the unit. If no label exists, the international symbol is returned.
+     * The labels are cached, see {@link UnitLabels}.
      *
      * @param context context
-     * @param idName  id name
-     * @return string
+     * @param unit    unit
+     * @return label
      */
-    public static String getStringByIdName(Context context, String idName) {
-        Resources resources = context.getResources();
-        return resources.getString(resources.getIdentifier(idName, "string", context.getPackageName()));
+    public static String getLabel(Context context, Unit unit) {
+        return UnitLabels.get(context, unit);
+    }
+
+    /**
+     * Returns the label regarding to parameter type.
+     *
+     * @param parameterType parameter type
+     * @return label
+     */
+    public static int getLabel(ParameterType parameterType) {
+        switch (parameterType) {
+            case DISTANCE:
+                return R.string.distance;
+            case DURATION:
+                return R.string.run_time;
+            case PACE:
+                return R.string.pace;
+            case SPEED:
+                return R.string.speed;
+            case WEIGHT:
+                return R.string.weight;
+            case HEIGHT:
+                return R.string.height;
+            default:
+                return R.string.unknown;
+        }
     }
 
     /**
@@ -0,0 +1,109 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.forecast.CameronModel;
+import com.stappert.runulator.forecast.ForecastModel;
+import com.stappert.runulator.forecast.PurdyModel;
+import com.stappert.runulator.forecast.RiegelModel;
+import com.stappert.runulator.forecast.VdotModel;
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.Run;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the forecast of a ladder of 1,000 distances (every 100 m up to 100 km) with the
+ * forecast runs and with each forecast model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkForecast {
+
+    // base run, not final to avoid constant folding
+    private float distance = 10.5f;
+    private int duration = 3125;
+
+    /**
+     * Base run.
+     */
+    private Run run;
+
+    /**
+     * Target distances.
+     */
+    private float[] distances;
+
+    /**
+     * Forecast durations.
+     */
+    private int[] durations;
+
+    /**
+     * Name of the forecast model.
+     */
+    @Param({"riegel", "cameron", "purdy", "vdot"})
+    private String modelName;
+
+    /**
+     * Forecast model.
+     */
+    private ForecastModel model;
+
+    /**
+     * Prepares the base run and the distance ladder.
+     *
+     * @throws CustomException if run can not be created
+     */
+    @Setup
+    public void setup() throws CustomException {
+        run = Run.createWithDistanceAndDuration(distance, duration);
+        distances = new float[1000];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = (i + 1) / 10f;
+        }
+        durations = new int[distances.length];
+        switch (modelName) {
+            case "cameron":
+                model = new CameronModel();
+                break;
+            case "purdy":
+                model = new PurdyModel();
+                break;
+            case "vdot":
+                model = new VdotModel();
+                break;
+            default:
+                model = new RiegelModel();
+                break;
+        }
+    }
+
+    @Benchmark
+    public void forecastRuns(Blackhole blackhole) throws CustomException {
+        for (float forecastDistance : distances) {
+            blackhole.consume(run.getForecastRun(forecastDistance, RiegelModel.DEFAULT_FATIGUE_COEFFICIENT));
+        }
+    }
+
+    @Benchmark
+    public int[] forecastModel() throws CustomException {
+        model.predict(distance, duration, distances, durations);
+        return durations;
+    }
+}
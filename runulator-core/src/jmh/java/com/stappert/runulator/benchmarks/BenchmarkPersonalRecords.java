@@ -0,0 +1,111 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.storage.PersonalRecords;
+import com.stappert.runulator.storage.RunHistory;
+import com.stappert.runulator.storage.RunHistoryView;
+import com.stappert.runulator.utils.Run;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the incremental personal records against a rebuild from a run history with
+ * 1,000,000 rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkPersonalRecords {
+
+    /**
+     * Number of rows.
+     */
+    private static final int SIZE = 1_000_000;
+
+    /**
+     * Directory of the column files.
+     */
+    private File directory;
+
+    /**
+     * Mapped view of all rows.
+     */
+    private RunHistoryView view;
+
+    /**
+     * Personal records of all rows.
+     */
+    private PersonalRecords records;
+
+    /**
+     * Reused array of the top times.
+     */
+    private final int[] top = new int[10];
+
+    // input values, not final to avoid constant folding
+    private float distance = Run.HALF_MARATHON;
+    private int duration = 5400;
+
+    /**
+     * Writes the history and indexes it.
+     *
+     * @throws IOException if history can not be written
+     */
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("history").toFile();
+        RunHistory history = new RunHistory(directory);
+        for (int i = 0; i < SIZE; i++) {
+            final float distance = PersonalRecords.DISTANCES[i % PersonalRecords.DISTANCES.length];
+            final int pace = 240 + i % 180;
+            history.append(17000 + i / 100, distance, Math.round(distance * pace), pace,
+                    RunHistory.FLAG_COMPLETED);
+        }
+        view = history.getView();
+        records = new PersonalRecords();
+        records.update(view);
+    }
+
+    /**
+     * Deletes the column files.
+     */
+    @TearDown
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public int rebuild() {
+        PersonalRecords rebuilt = new PersonalRecords();
+        rebuilt.update(view);
+        return rebuilt.getTop(3, top);
+    }
+
+    @Benchmark
+    public int addTopRemove() {
+        records.add(distance, duration);
+        final int count = records.getTop(3, top);
+        records.remove(distance, duration);
+        return count;
+    }
+}
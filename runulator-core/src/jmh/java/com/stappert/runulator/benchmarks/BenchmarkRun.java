@@ -0,0 +1,134 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.Run;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creation, json conversion and parsing of runs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkRun {
+
+    // input values, not final to avoid constant folding
+    private float distance = 10.5f;
+    private int duration = 3125;
+    private int pace = 298;
+    private float speed = 12.1f;
+    private String time = "1:02:05";
+
+    /**
+     * Run as json string with all parameters.
+     */
+    private String runJson;
+
+    /**
+     * Run to convert.
+     */
+    private Run run;
+
+    /**
+     * Prepares the run and its json string.
+     *
+     * @throws CustomException if run can not be created
+     */
+    @Setup
+    public void setup() throws CustomException {
+        run = Run.createWithDistanceAndDuration(distance, duration);
+        runJson = Run.jsonWithDistanceAndDuration(distance, duration);
+    }
+
+    // =============================================================================================
+    // create runs
+    // =============================================================================================
+
+    @Benchmark
+    public Run createWithDistanceAndDuration() throws CustomException {
+        return Run.createWithDistanceAndDuration(distance, duration);
+    }
+
+    @Benchmark
+    public Run createWithDistanceAndPace() throws CustomException {
+        return Run.createWithDistanceAndPace(distance, pace);
+    }
+
+    @Benchmark
+    public Run createWithDistanceAndSpeed() throws CustomException {
+        return Run.createWithDistanceAndSpeed(distance, speed);
+    }
+
+    @Benchmark
+    public Run createWithDurationAndPace() throws CustomException {
+        return Run.createWithDurationAndPace(duration, pace);
+    }
+
+    @Benchmark
+    public Run createWithDurationAndSpeed() throws CustomException {
+        return Run.createWithDurationAndSpeed(duration, speed);
+    }
+
+    // =============================================================================================
+    // create runs as json strings
+    // =============================================================================================
+
+    @Benchmark
+    public String jsonWithDistanceAndDuration() throws CustomException {
+        return Run.jsonWithDistanceAndDuration(distance, duration);
+    }
+
+    @Benchmark
+    public String jsonWithDistanceAndPace() throws CustomException {
+        return Run.jsonWithDistanceAndPace(distance, pace);
+    }
+
+    @Benchmark
+    public String jsonWithDistanceAndSpeed() throws CustomException {
+        return Run.jsonWithDistanceAndSpeed(distance, speed);
+    }
+
+    @Benchmark
+    public String jsonWithDurationAndPace() throws CustomException {
+        return Run.jsonWithDurationAndPace(duration, pace);
+    }
+
+    @Benchmark
+    public String jsonWithDurationAndSpeed() throws CustomException {
+        return Run.jsonWithDurationAndSpeed(duration, speed);
+    }
+
+    // =============================================================================================
+    // conversion and parsing
+    // =============================================================================================
+
+    @Benchmark
+    public Run jsonToRun() throws CustomException {
+        return Run.jsonToRun(runJson);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return run.toJson();
+    }
+
+    @Benchmark
+    public int parseTimeInSeconds() throws CustomException {
+        return Run.parseTimeInSeconds(time);
+    }
+}
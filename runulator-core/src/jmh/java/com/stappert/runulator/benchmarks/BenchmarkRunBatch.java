@@ -0,0 +1,97 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunBatch;
+import com.stappert.runulator.utils.RunBatchSolver;
+import com.stappert.runulator.utils.RunResult;
+import com.stappert.runulator.utils.RunSolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks calculating a batch of runs from distance and duration with the run factories, the
+ * scalar solver and the batch solver.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkRunBatch {
+
+    /**
+     * Number of runs per batch.
+     */
+    @Param({"1000", "100000"})
+    private int size;
+
+    // input values
+    private float[] distances;
+    private int[] durations;
+
+    /**
+     * Batch to calculate.
+     */
+    private RunBatch batch;
+
+    /**
+     * Reusable result of the scalar solver.
+     */
+    private final RunResult result = new RunResult();
+
+    /**
+     * Prepares random distances and durations.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        distances = new float[size];
+        durations = new int[size];
+        for (int i = 0; i < size; i++) {
+            distances[i] = 0.1f + random.nextFloat() * 50;
+            durations[i] = 60 + random.nextInt(5 * 60 * 60);
+        }
+        batch = new RunBatch(size);
+    }
+
+    @Benchmark
+    public void runFactories(Blackhole blackhole) throws CustomException {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(Run.createWithDistanceAndDuration(distances[i], durations[i]));
+        }
+    }
+
+    @Benchmark
+    public int scalarSolver() {
+        int paceSum = 0;
+        for (int i = 0; i < size; i++) {
+            RunSolver.solveWithDistanceAndDuration(distances[i], durations[i], result);
+            paceSum += result.getPace();
+        }
+        return paceSum;
+    }
+
+    @Benchmark
+    public int batchSolver() throws CustomException {
+        System.arraycopy(distances, 0, batch.getDistances(), 0, size);
+        System.arraycopy(durations, 0, batch.getDurations(), 0, size);
+        return RunBatchSolver.solve(ParameterType.DISTANCE, ParameterType.DURATION, batch);
+    }
+}
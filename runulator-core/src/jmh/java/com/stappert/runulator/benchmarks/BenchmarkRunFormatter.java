@@ -0,0 +1,155 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.PaceTable;
+import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunFormatter;
+import com.stappert.runulator.utils.Unit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks formatting of the run parameters into a reusable builder compared with the former
+ * string concatenation and String.format.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkRunFormatter {
+
+    // input values, not final to avoid constant folding
+    private int duration = 3725;
+    private int pace = 298;
+    private float distance = 6.2137f;
+    private float speed = 12.07f;
+
+    /**
+     * Reused builder.
+     */
+    private final StringBuilder sink = new StringBuilder();
+
+    /**
+     * Run with the pace.
+     */
+    private Run paceRun;
+
+    /**
+     * Precomputed paces and speeds.
+     */
+    private PaceTable paceTable;
+
+    /**
+     * Prepares the run and the pace table.
+     *
+     * @throws CustomException if run can not be created
+     */
+    @Setup
+    public void setup() throws CustomException {
+        paceRun = Run.createWithDistanceAndPace(10, pace);
+        paceTable = new PaceTable(Unit.MIN_MILE, Unit.MPH);
+    }
+
+    // =============================================================================================
+    // formatter
+    // =============================================================================================
+
+    @Benchmark
+    public int appendSeconds() {
+        sink.setLength(0);
+        return RunFormatter.appendSeconds(sink, duration).length();
+    }
+
+    @Benchmark
+    public int appendPace() {
+        sink.setLength(0);
+        return RunFormatter.appendPace(sink, pace).length();
+    }
+
+    @Benchmark
+    public int appendDistance() {
+        sink.setLength(0);
+        return RunFormatter.appendDistance(sink, distance).length();
+    }
+
+    @Benchmark
+    public int appendSpeed() {
+        sink.setLength(0);
+        return RunFormatter.appendSpeed(sink, speed).length();
+    }
+
+    @Benchmark
+    public int formatTime() {
+        sink.setLength(0);
+        return Unit.MIN_KM.format(sink, pace).length();
+    }
+
+    // =============================================================================================
+    // pace table
+    // =============================================================================================
+
+    @Benchmark
+    public String runPace() throws CustomException {
+        return paceRun.getPace(Unit.MIN_MILE);
+    }
+
+    @Benchmark
+    public String tablePace() throws CustomException {
+        return paceTable.formatPace(paceRun);
+    }
+
+    @Benchmark
+    public String runSpeed() throws CustomException {
+        return paceRun.getSpeed(Unit.MPH);
+    }
+
+    @Benchmark
+    public String tableSpeed() throws CustomException {
+        return paceTable.formatSpeed(paceRun);
+    }
+
+    @Benchmark
+    public PaceTable createPaceTable() throws CustomException {
+        return new PaceTable(Unit.MIN_MILE, Unit.MPH);
+    }
+
+    // =============================================================================================
+    // former formatting
+    // =============================================================================================
+
+    @Benchmark
+    public String formerSeconds() {
+        final int hours = duration / Unit.HOUR_IN_SECONDS;
+        final int minutes = duration / Unit.MINUTE_IN_SECONDS % Unit.MINUTE_IN_SECONDS;
+        final int seconds = duration % Unit.MINUTE_IN_SECONDS % Unit.MINUTE_IN_SECONDS;
+        return (hours > 0 ? hours + ":" : "")
+                + (hours > 0 && 10 > minutes ? "0" + minutes + ":" : minutes > 0 ? minutes + ":" : "")
+                + (hours + minutes > 0 && 10 > seconds ? "0" + seconds : seconds);
+    }
+
+    @Benchmark
+    public String formerDistance() {
+        int noOfDecimalPlaces = Float.toString(distance).split("\\.")[1].length();
+        return String.format(Locale.ENGLISH, "%." + (noOfDecimalPlaces < 4 ? noOfDecimalPlaces : 4) + "f", distance);
+    }
+
+    @Benchmark
+    public String formerSpeed() {
+        int noOfDecimalPlaces = Float.toString(speed).split("\\.")[1].length();
+        return String.format(Locale.ENGLISH, "%." + (noOfDecimalPlaces <= 1 ? 1 : 2) + "f", speed);
+    }
+}
@@ -0,0 +1,94 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.storage.RunHistory;
+import com.stappert.runulator.storage.RunHistoryView;
+import com.stappert.runulator.utils.ParameterType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks scans over 1,000,000 rows of the memory mapped run history. A scan reads 8 MB (day
+ * and distance column), so the time per scan shows the reached bandwidth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkRunHistory {
+
+    /**
+     * Number of rows.
+     */
+    private static final int SIZE = 1_000_000;
+
+    /**
+     * Directory of the column files.
+     */
+    private File directory;
+
+    /**
+     * Mapped view of all rows.
+     */
+    private RunHistoryView view;
+
+    /**
+     * Writes the history.
+     *
+     * @throws IOException if history can not be written
+     */
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("history").toFile();
+        RunHistory history = new RunHistory(directory);
+        final int flags = 1 << ParameterType.DISTANCE.ordinal() | 1 << ParameterType.DURATION.ordinal();
+        for (int i = 0; i < SIZE; i++) {
+            final float distance = 1 + (i % 420) / 10f;
+            history.append(17000 + i / 100, distance, (int) (distance * (240 + i % 180)),
+                    240 + i % 180, flags);
+        }
+        view = history.getView();
+    }
+
+    /**
+     * Deletes the column files.
+     */
+    @TearDown
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public long totalDistance() {
+        return view.totalDistanceInMeters(17000, 27000);
+    }
+
+    @Benchmark
+    public int fastestPace() {
+        return view.fastestPace(10000);
+    }
+
+    @Benchmark
+    public int count() {
+        return view.count(18000, 19000);
+    }
+}
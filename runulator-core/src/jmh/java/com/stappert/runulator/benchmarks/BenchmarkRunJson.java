@@ -0,0 +1,107 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunJsonCodec;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the run json codec against the previous conversion, which concatenated strings and
+ * parsed them with {@link JSONObject}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkRunJson {
+
+    // input values, not final to avoid constant folding
+    private float distance = 10.5f;
+    private int duration = 3125;
+    private int pace = 298;
+    private float speed = 12.1f;
+
+    /**
+     * Run as json string in the legacy single-quoted form.
+     */
+    private String legacyJson;
+
+    /**
+     * Reused builder of the codec.
+     */
+    private final StringBuilder builder = new StringBuilder(80);
+
+    /**
+     * Reused values of the codec.
+     */
+    private final float[] values = new float[RunJsonCodec.VALUE_COUNT];
+
+    /**
+     * Prepares the json string.
+     */
+    @Setup
+    public void setup() {
+        legacyJson = legacyWrite();
+    }
+
+    // =============================================================================================
+    // write
+    // =============================================================================================
+
+    @Benchmark
+    public String legacyWrite() {
+        return "{" + "\'" + ParameterType.DISTANCE.name() + "\':" + distance + ","
+                + "\'" + ParameterType.DURATION.name() + "\':" + duration + ","
+                + "\'" + ParameterType.PACE.name() + "\':" + pace + ","
+                + "\'" + ParameterType.SPEED.name() + "\':" + speed + "}";
+    }
+
+    @Benchmark
+    public int codecWrite() {
+        builder.setLength(0);
+        return RunJsonCodec.write(builder, distance, duration, pace, speed).length();
+    }
+
+    // =============================================================================================
+    // read
+    // =============================================================================================
+
+    @Benchmark
+    public Run legacyJsonToRun() throws JSONException, CustomException {
+        JSONObject runJson = new JSONObject(legacyJson);
+        if (runJson.has(ParameterType.DISTANCE.name())) {
+            final float distance = (float) runJson.getDouble(ParameterType.DISTANCE.name());
+            if (runJson.has(ParameterType.DURATION.name())) {
+                return Run.createWithDistanceAndDuration(distance, runJson.getInt(ParameterType.DURATION.name()));
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Run codecJsonToRun() throws CustomException {
+        return Run.jsonToRun(legacyJson);
+    }
+
+    @Benchmark
+    public int codecRead() throws CustomException {
+        return RunJsonCodec.read(legacyJson, values);
+    }
+}
@@ -0,0 +1,99 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.storage.RunEntry;
+import com.stappert.runulator.storage.RunLog;
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading 100,000 favorite runs from the binary run log against parsing them from json
+ * strings, as they were stored in the shared preferences before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkRunLog {
+
+    /**
+     * Number of runs.
+     */
+    private static final int SIZE = 100_000;
+
+    /**
+     * Runs as json strings.
+     */
+    private Set<String> runsJson;
+
+    /**
+     * Run log with all runs.
+     */
+    private RunLog runLog;
+
+    /**
+     * File of the run log.
+     */
+    private File file;
+
+    /**
+     * Writes the runs as json strings and into the run log.
+     *
+     * @throws CustomException if run can not be created
+     * @throws IOException     if run log can not be written
+     */
+    @Setup
+    public void setup() throws CustomException, IOException {
+        runsJson = new HashSet<>();
+        List<RunEntry> entries = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            float distance = 1 + i / 1000f;
+            int duration = 600 + i;
+            runsJson.add(Run.jsonWithDistanceAndDuration(distance, duration));
+            entries.add(RunEntry.create(ParameterType.DISTANCE, distance, ParameterType.DURATION, duration, i));
+        }
+        file = File.createTempFile("runs", ".bin");
+        runLog = new RunLog(file);
+        runLog.rewrite(entries);
+    }
+
+    /**
+     * Deletes the run log.
+     */
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public List<Run> parseJson() {
+        return Run.jsonToRuns(runsJson);
+    }
+
+    @Benchmark
+    public List<RunEntry> loadRunLog() throws IOException {
+        return runLog.load();
+    }
+}
@@ -0,0 +1,220 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.utils.ParameterType;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a commit of the shared preferences after a changed distance. The shared preferences
+ * rewrite their whole xml file with each commit, so the file is written like Android does it. With
+ * layout "shared" the favorite runs are stored as json strings in the same file, as before the run
+ * log, with layout "split" the file contains the scalar settings only. The counter bytesWritten
+ * reports the written bytes per second, divided by the score (commits per second) it gives the
+ * bytes per commit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkSettingsCommit {
+
+    /**
+     * Number of favorite runs.
+     */
+    @Param({"20", "200", "1000"})
+    public int favorites;
+
+    /**
+     * Storage layout of the favorite runs.
+     */
+    @Param({"shared", "split"})
+    public String layout;
+
+    /**
+     * Bytes, which are written by the commits.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Written {
+
+        /**
+         * Written bytes of all commits.
+         */
+        public long bytesWritten;
+
+        /**
+         * Resets the counter.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesWritten = 0;
+        }
+    }
+
+    /**
+     * Scalar settings.
+     */
+    private final Map<String, Object> settings = new LinkedHashMap<>();
+
+    /**
+     * Favorite runs as json strings.
+     */
+    private final Set<String> runs = new LinkedHashSet<>();
+
+    /**
+     * Reused buffer of the xml file.
+     */
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 16);
+
+    /**
+     * Reused builder of the xml content.
+     */
+    private final StringBuilder xml = new StringBuilder(1 << 16);
+
+    /**
+     * File of the shared preferences.
+     */
+    private File file;
+
+    /**
+     * Distance, which is changed with each commit.
+     */
+    private float distance = 10;
+
+    /**
+     * Creates the settings and the favorite runs.
+     *
+     * @throws IOException if file can not be created
+     */
+    @Setup
+    public void setup() throws IOException {
+        settings.put("distance", distance);
+        settings.put("distance_unit", "KM");
+        settings.put("duration", 3000);
+        settings.put("pace_unit", "MIN_KM");
+        settings.put("pace", 300);
+        settings.put("speed_unit", "KM_H");
+        settings.put("speed", 12f);
+        settings.put("run", "{\"DISTANCE\":10.0,\"DURATION\":3000}");
+        settings.put("weight", 75);
+        settings.put("weight_unit", "KG");
+        settings.put("height", 180);
+        settings.put("height_unit", "CM");
+        settings.put("birthday", 631152000000L);
+        settings.put("isDialogInput", true);
+        for (int i = 0; i < favorites; i++) {
+            // legacy json strings with single quotes, as they were stored in the preferences
+            runs.add("{'" + ParameterType.DISTANCE.name() + "':" + (1 + i * 0.01f) + ",'"
+                    + ParameterType.DURATION.name() + "':" + (300 + 3 * i) + "}");
+        }
+        file = File.createTempFile("runulator", ".xml");
+    }
+
+    /**
+     * Deletes the file.
+     */
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public int commitDistance(Written written) throws IOException {
+        distance += 0.1f;
+        settings.put("distance", distance);
+        xml.setLength(0);
+        xml.append("<?xml version='1.0' encoding='utf-8' standalone='yes' ?>\n<map>\n");
+        for (Map.Entry<String, Object> setting : settings.entrySet()) {
+            appendValue(setting.getKey(), setting.getValue());
+        }
+        if ("shared".equals(layout)) {
+            xml.append("    <set name=\"runs\">\n");
+            for (String run : runs) {
+                appendEscaped(xml.append("        <string>"), run).append("</string>\n");
+            }
+            xml.append("    </set>\n");
+        }
+        xml.append("</map>\n");
+        buffer.reset();
+        buffer.write(xml.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            buffer.writeTo(out);
+        }
+        written.bytesWritten += buffer.size();
+        return buffer.size();
+    }
+
+    /**
+     * Appends a value in the format of the shared preferences.
+     *
+     * @param name  key
+     * @param value value
+     */
+    private void appendValue(String name, Object value) {
+        if (value instanceof String) {
+            xml.append("    <string name=\"").append(name).append("\">");
+            appendEscaped(xml, (String) value).append("</string>\n");
+        } else {
+            final String type = value instanceof Float ? "float" : value instanceof Integer ? "int"
+                    : value instanceof Long ? "long" : "boolean";
+            xml.append("    <").append(type).append(" name=\"").append(name)
+                    .append("\" value=\"").append(value).append("\" />\n");
+        }
+    }
+
+    /**
+     * Appends a text with escaped xml characters.
+     *
+     * @param out  builder
+     * @param text text
+     * @return builder
+     */
+    private static StringBuilder appendEscaped(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("&quot;");
+                    break;
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,77 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.Unit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks unit conversions and formatting.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkUnit {
+
+    // input values, not final to avoid constant folding
+    private Unit distanceUnit = Unit.MILE;
+    private Unit paceUnit = Unit.MIN_MILE;
+    private Unit speedUnit = Unit.MPH;
+    private float distance = 6.2f;
+    private int pace = 298;
+    private float speed = 12.1f;
+    private int seconds = 3725;
+
+    @Benchmark
+    public float toKm() throws CustomException {
+        return distanceUnit.toKm(distance);
+    }
+
+    @Benchmark
+    public float kmTo() throws CustomException {
+        return distanceUnit.kmTo(distance);
+    }
+
+    @Benchmark
+    public int toMinPerKm() throws CustomException {
+        return paceUnit.toMinPerKm(pace);
+    }
+
+    @Benchmark
+    public float minPerKmTo() throws CustomException {
+        return paceUnit.minPerKmTo(pace);
+    }
+
+    @Benchmark
+    public float toKmPerHour() throws CustomException {
+        return speedUnit.toKmPerHour(speed);
+    }
+
+    @Benchmark
+    public float kmPerHourTo() throws CustomException {
+        return speedUnit.kmPerHourTo(speed);
+    }
+
+    @Benchmark
+    public double convert() {
+        return Unit.convert(pace, paceUnit, speedUnit);
+    }
+
+    @Benchmark
+    public String formatSeconds() {
+        return Unit.formatSeconds(seconds);
+    }
+}
@@ -0,0 +1,65 @@
+package com.stappert.runulator.benchmarks;
+
+import com.stappert.runulator.forecast.TrainingPace;
+import com.stappert.runulator.forecast.VdotTables;
+import com.stappert.runulator.utils.Run;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the VDOT lookups in the tables against the calculation with the formulas, which is
+ * used for distances without table.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BenchmarkVdot {
+
+    // input values, not final to avoid constant folding
+    private float marathon = Run.MARATHON;
+    private float otherDistance = 42.2f;
+    private int duration = 11449;
+    private double vdot = 50.3;
+
+    @Benchmark
+    public double vdotTable() {
+        return VdotTables.getVdot(marathon, duration);
+    }
+
+    @Benchmark
+    public double vdotFormula() {
+        return VdotTables.getVdot(otherDistance, duration);
+    }
+
+    @Benchmark
+    public double durationTable() {
+        return VdotTables.getDuration(vdot, marathon);
+    }
+
+    @Benchmark
+    public double durationFormula() {
+        return VdotTables.getDuration(vdot, otherDistance);
+    }
+
+    @Benchmark
+    public int trainingPaces() {
+        int sum = 0;
+        for (TrainingPace trainingPace : TrainingPace.values()) {
+            sum += trainingPace.getPace(vdot);
+        }
+        return sum;
+    }
+}
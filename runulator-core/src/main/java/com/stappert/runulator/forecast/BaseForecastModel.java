@@ -0,0 +1,50 @@
+package com.stappert.runulator.forecast;
+
+import com.stappert.runulator.utils.CustomException;
+
+/**
+ * Base of all forecast models, which checks the arguments before the forecast.
+ */
+abstract class BaseForecastModel implements ForecastModel {
+
+    @Override
+    public final void predict(float baseDistance, int baseDuration, float[] targets, int[] out)
+            throws CustomException {
+        if (baseDistance <= 0 || baseDuration <= 0) {
+            throw new CustomException("Error", "values must be greater than 0");
+        } else if (out.length < targets.length) {
+            throw new CustomException("Error", "durations must hold " + targets.length + " values");
+        }
+        predictValid(baseDistance, baseDuration, targets, out);
+    }
+
+    /**
+     * Returns the key of the model and its parameters, which identifies its forecasts in a
+     * {@link ForecastCache}: the id of the model in the upper 32 bits and the bits of its
+     * parameter in the lower 32 bits.
+     *
+     * @return cache key
+     */
+    abstract long getCacheKey();
+
+    /**
+     * Forecasts the durations for a valid base run.
+     *
+     * @param baseDistance distance of the base run in km, greater than 0
+     * @param baseDuration duration of the base run in seconds, greater than 0
+     * @param targets      target distances in km
+     * @param out          array to write the forecast durations into, at least as long as targets
+     */
+    abstract void predictValid(float baseDistance, int baseDuration, float[] targets, int[] out);
+
+    /**
+     * Converts a forecast duration into whole seconds. Durations, which are not finite or not
+     * greater than 0, can not be forecast and are returned as 0.
+     *
+     * @param duration duration in seconds
+     * @return whole seconds
+     */
+    static int toSeconds(double duration) {
+        return duration > 0 && duration < Integer.MAX_VALUE ? (int) duration : 0;
+    }
+}
@@ -0,0 +1,34 @@
+package com.stappert.runulator.forecast;
+
+/**
+ * Forecasts durations with the model of Dave Cameron (t2 = t1 * (d2 / d1) * (a(d1) / a(d2))), where
+ * a(d) = 13.49681 - 0.000030363 * d + 835.7114 / d^0.7905 with the distance d in m.
+ * https://www.laufhannes.de/wissenschaft/modelle-zur-wettkampfprognose/
+ */
+public final class CameronModel extends BaseForecastModel {
+
+    @Override
+    long getCacheKey() {
+        return 2L << 32;
+    }
+
+    @Override
+    void predictValid(float baseDistance, int baseDuration, float[] targets, int[] out) {
+        final double basePace = baseDuration / (double) baseDistance * factor(baseDistance);
+        for (int i = 0; i < targets.length; i++) {
+            final float distance = targets[i];
+            out[i] = distance > 0 ? toSeconds(basePace * distance / factor(distance)) : 0;
+        }
+    }
+
+    /**
+     * Calculates the factor a(d) of the distance.
+     *
+     * @param distance distance in km
+     * @return factor
+     */
+    private static double factor(float distance) {
+        final double meters = distance * 1000.0;
+        return 13.49681 - 0.000030363 * meters + 835.7114 / Math.pow(meters, 0.7905);
+    }
+}
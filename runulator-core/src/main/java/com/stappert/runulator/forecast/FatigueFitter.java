@@ -0,0 +1,136 @@
+package com.stappert.runulator.forecast;
+
+/**
+ * Fits a personal fatigue coefficient of Peter Riegel's formula by a least-squares regression of
+ * ln(duration) on ln(distance). Only running sums are stored, so that adding or removing a run
+ * updates the fit in constant time.
+ */
+public final class FatigueFitter {
+
+    /**
+     * Minimal number of runs for a fit.
+     */
+    public static final int MIN_RUNS = 2;
+
+    /**
+     * Smallest plausible fatigue coefficient.
+     */
+    public static final float MIN_FATIGUE_COEFFICIENT = 1.0f;
+
+    /**
+     * Largest plausible fatigue coefficient.
+     */
+    public static final float MAX_FATIGUE_COEFFICIENT = 1.2f;
+
+    /**
+     * Minimal variance of ln(distance), so that not only runs of the same distance are fitted. It
+     * is reached e.g. by two runs, whose distances differ by 20 %.
+     */
+    private static final double MIN_VARIANCE = 0.008;
+
+    // running sums of x = ln(distance) and y = ln(duration)
+    private int count;
+    private double sumX;
+    private double sumY;
+    private double sumXX;
+    private double sumXY;
+
+    /**
+     * Adds a run to the fit.
+     *
+     * @param distance distance in km
+     * @param duration duration in seconds
+     */
+    public void add(float distance, int duration) {
+        update(distance, duration, 1);
+    }
+
+    /**
+     * Removes a run, which was added before, from the fit.
+     *
+     * @param distance distance in km
+     * @param duration duration in seconds
+     */
+    public void remove(float distance, int duration) {
+        update(distance, duration, -1);
+    }
+
+    /**
+     * Removes all runs from the fit.
+     */
+    public void clear() {
+        count = 0;
+        sumX = 0;
+        sumY = 0;
+        sumXX = 0;
+        sumXY = 0;
+    }
+
+    /**
+     * Returns the number of runs of the fit.
+     *
+     * @return number of runs
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns true, if enough runs of different distances exist for a fit.
+     *
+     * @return true, if fit is possible
+     */
+    public boolean isFitted() {
+        return count >= MIN_RUNS && variance() >= MIN_VARIANCE;
+    }
+
+    /**
+     * Returns the fitted fatigue coefficient limited to plausible values or the default value, if
+     * no fit is possible.
+     *
+     * @param defaultCoefficient default fatigue coefficient
+     * @return fatigue coefficient
+     */
+    public float getFatigueCoefficient(float defaultCoefficient) {
+        if (!isFitted()) {
+            return defaultCoefficient;
+        }
+        final double slope = (count * sumXY - sumX * sumY) / (count * sumXX - sumX * sumX);
+        return (float) Math.max(MIN_FATIGUE_COEFFICIENT, Math.min(MAX_FATIGUE_COEFFICIENT, slope));
+    }
+
+    /**
+     * Adds or removes a run from the running sums. Runs, which are not greater than 0, are ignored.
+     *
+     * @param distance distance in km
+     * @param duration duration in seconds
+     * @param sign     1 to add or -1 to remove
+     */
+    private void update(float distance, int duration, int sign) {
+        if (distance <= 0 || duration <= 0) {
+            return;
+        }
+        final double x = Math.log(distance);
+        final double y = Math.log(duration);
+        count += sign;
+        if (count <= 0) {
+            // avoid rounding errors of the sums, if the last run was removed
+            clear();
+            return;
+        }
+        sumX += sign * x;
+        sumY += sign * y;
+        sumXX += sign * x * x;
+        sumXY += sign * x * y;
+    }
+
+    /**
+     * Returns the variance of ln(distance).
+     *
+     * @return variance
+     */
+    private double variance() {
+        final double mean = sumX / count;
+        return sumXX / count - mean * mean;
+    }
+}
@@ -0,0 +1,367 @@
+package com.stappert.runulator.forecast;
+
+import com.stappert.runulator.utils.CustomException;
+
+import java.util.Arrays;
+
+/**
+ * Bounded cache of forecast durations, so that the same forecasts are not calculated again. An
+ * entry is identified by the model with its parameter and the target distance, packed into
+ * primitives. All entries belong to one base run, they are dropped, if the base run changes.
+ * If the cache is full, the least recently used entry is evicted. The entries are stored in
+ * parallel arrays with a hash table of chains and a doubly linked list for the order of use, so
+ * that a lookup does not allocate any object.
+ */
+public final class ForecastCache {
+
+    /**
+     * Marks the end of a chain or list.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Maximum number of entries.
+     */
+    private final int capacity;
+
+    /**
+     * Keys of model and parameter of the entries, see {@link BaseForecastModel#getCacheKey()}.
+     */
+    private final long[] modelKeys;
+
+    /**
+     * Bits of the target distances of the entries.
+     */
+    private final int[] targets;
+
+    /**
+     * Forecast durations of the entries in seconds.
+     */
+    private final int[] durations;
+
+    /**
+     * Next entry in the chain of the same bucket.
+     */
+    private final int[] chain;
+
+    /**
+     * Previous (more recently used) entry in the order of use.
+     */
+    private final int[] previous;
+
+    /**
+     * Next (less recently used) entry in the order of use.
+     */
+    private final int[] next;
+
+    /**
+     * First entry of the chain of each bucket.
+     */
+    private final int[] buckets;
+
+    /**
+     * Most recently used entry.
+     */
+    private int head = NONE;
+
+    /**
+     * Least recently used entry.
+     */
+    private int tail = NONE;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Bits of the distance of the base run of all entries.
+     */
+    private int baseDistance;
+
+    /**
+     * Duration of the base run of all entries.
+     */
+    private int baseDuration;
+
+    /**
+     * Target distances, which are not contained, reused for each forecast.
+     */
+    private float[] missingTargets = new float[0];
+
+    /**
+     * Positions of the missing target distances.
+     */
+    private int[] missingPositions = new int[0];
+
+    /**
+     * Forecast durations of the missing target distances.
+     */
+    private int[] missingDurations = new int[0];
+
+    /**
+     * Number of forecasts, which were found in the cache.
+     */
+    private long hits;
+
+    /**
+     * Number of forecasts, which had to be calculated.
+     */
+    private long misses;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity maximum number of entries
+     */
+    public ForecastCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        this.capacity = capacity;
+        modelKeys = new long[capacity];
+        targets = new int[capacity];
+        durations = new int[capacity];
+        chain = new int[capacity];
+        previous = new int[capacity];
+        next = new int[capacity];
+        buckets = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        Arrays.fill(buckets, NONE);
+    }
+
+    /**
+     * Forecasts the durations for all target distances like
+     * {@link ForecastModel#predict(float, int, float[], int[])}. Only the target distances, which
+     * are not contained, are forecast by the model, all at once. Models, which are not part of
+     * this package, are not cached.
+     *
+     * @param model        forecast model
+     * @param baseDistance distance of the base run in km
+     * @param baseDuration duration of the base run in seconds
+     * @param targets      target distances in km
+     * @param out          array to write the forecast durations into, at least as long as targets
+     * @throws CustomException if base run is not valid
+     */
+    public synchronized void predict(ForecastModel model, float baseDistance, int baseDuration,
+                                     float[] targets, int[] out) throws CustomException {
+        if (!(model instanceof BaseForecastModel)) {
+            model.predict(baseDistance, baseDuration, targets, out);
+            misses += targets.length;
+            return;
+        }
+        if (Float.floatToIntBits(baseDistance) != this.baseDistance || baseDuration != this.baseDuration) {
+            clear();
+            this.baseDistance = Float.floatToIntBits(baseDistance);
+            this.baseDuration = baseDuration;
+        }
+        if (out.length < targets.length) {
+            throw new CustomException("Error", "durations must hold " + targets.length + " values");
+        }
+        final long modelKey = ((BaseForecastModel) model).getCacheKey();
+        ensureMissingCapacity(targets.length);
+        int missing = 0;
+        for (int i = 0; i < targets.length; i++) {
+            final int entry = find(modelKey, Float.floatToIntBits(targets[i]));
+            if (entry != NONE) {
+                moveToHead(entry);
+                out[i] = durations[entry];
+            } else {
+                missingTargets[missing] = targets[i];
+                missingPositions[missing] = i;
+                missing++;
+            }
+        }
+        hits += targets.length - missing;
+        if (missing == 0) {
+            return;
+        }
+        final float[] forecastTargets = missing == missingTargets.length
+                ? missingTargets : Arrays.copyOf(missingTargets, missing);
+        model.predict(baseDistance, baseDuration, forecastTargets, missingDurations);
+        misses += missing;
+        for (int i = 0; i < missing; i++) {
+            out[missingPositions[i]] = missingDurations[i];
+            put(modelKey, Float.floatToIntBits(forecastTargets[i]), missingDurations[i]);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return number of entries
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of forecasts, which were found in the cache.
+     *
+     * @return number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of forecasts, which had to be calculated.
+     *
+     * @return number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes all entries. The counters are kept.
+     */
+    public synchronized void clear() {
+        Arrays.fill(buckets, NONE);
+        head = NONE;
+        tail = NONE;
+        size = 0;
+    }
+
+    // =============================================================================================
+    // private utility functions
+    // =============================================================================================
+
+    /**
+     * Returns the bucket of a key.
+     *
+     * @param modelKey key of model and parameter
+     * @param target   bits of target distance
+     * @return bucket
+     */
+    private int bucketOf(long modelKey, int target) {
+        long hash = modelKey * 0x9E3779B97F4A7C15L + target;
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return (int) (hash ^ hash >>> 32) & (buckets.length - 1);
+    }
+
+    /**
+     * Returns the entry of a key.
+     *
+     * @param modelKey key of model and parameter
+     * @param target   bits of target distance
+     * @return entry or {@link #NONE}, if key is not contained
+     */
+    private int find(long modelKey, int target) {
+        for (int entry = buckets[bucketOf(modelKey, target)]; entry != NONE; entry = chain[entry]) {
+            if (modelKeys[entry] == modelKey && targets[entry] == target) {
+                return entry;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Adds an entry. If the cache is full, the least recently used entry is replaced.
+     *
+     * @param modelKey key of model and parameter
+     * @param target   bits of target distance
+     * @param duration forecast duration in seconds
+     */
+    private void put(long modelKey, int target, int duration) {
+        int entry = find(modelKey, target);
+        if (entry != NONE) {
+            // target distance was requested twice
+            durations[entry] = duration;
+            moveToHead(entry);
+            return;
+        }
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            entry = tail;
+            unlink(entry);
+            removeFromBucket(entry);
+        }
+        modelKeys[entry] = modelKey;
+        targets[entry] = target;
+        durations[entry] = duration;
+        final int bucket = bucketOf(modelKey, target);
+        chain[entry] = buckets[bucket];
+        buckets[bucket] = entry;
+        linkAtHead(entry);
+    }
+
+    /**
+     * Removes an entry from the chain of its bucket.
+     *
+     * @param entry entry
+     */
+    private void removeFromBucket(int entry) {
+        final int bucket = bucketOf(modelKeys[entry], targets[entry]);
+        if (buckets[bucket] == entry) {
+            buckets[bucket] = chain[entry];
+            return;
+        }
+        int current = buckets[bucket];
+        while (chain[current] != entry) {
+            current = chain[current];
+        }
+        chain[current] = chain[entry];
+    }
+
+    /**
+     * Marks an entry as most recently used.
+     *
+     * @param entry entry
+     */
+    private void moveToHead(int entry) {
+        if (entry != head) {
+            unlink(entry);
+            linkAtHead(entry);
+        }
+    }
+
+    /**
+     * Removes an entry from the order of use.
+     *
+     * @param entry entry
+     */
+    private void unlink(int entry) {
+        if (previous[entry] != NONE) {
+            next[previous[entry]] = next[entry];
+        } else {
+            head = next[entry];
+        }
+        if (next[entry] != NONE) {
+            previous[next[entry]] = previous[entry];
+        } else {
+            tail = previous[entry];
+        }
+    }
+
+    /**
+     * Adds an entry as most recently used.
+     *
+     * @param entry entry
+     */
+    private void linkAtHead(int entry) {
+        previous[entry] = NONE;
+        next[entry] = head;
+        if (head != NONE) {
+            previous[head] = entry;
+        }
+        head = entry;
+        if (tail == NONE) {
+            tail = entry;
+        }
+    }
+
+    /**
+     * Grows the arrays for the missing target distances.
+     *
+     * @param length number of target distances
+     */
+    private void ensureMissingCapacity(int length) {
+        if (missingTargets.length < length) {
+            missingTargets = new float[length];
+            missingPositions = new int[length];
+            missingDurations = new int[length];
+        }
+    }
+}
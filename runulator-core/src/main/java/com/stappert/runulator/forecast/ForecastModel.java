@@ -0,0 +1,23 @@
+package com.stappert.runulator.forecast;
+
+import com.stappert.runulator.utils.CustomException;
+
+/**
+ * Model, which forecasts the durations of several distances from one base run. Implementations
+ * are immutable and can be shared between threads.
+ */
+public interface ForecastModel {
+
+    /**
+     * Forecasts the durations in seconds for all target distances. Target distances, which can not
+     * be forecast (e.g. not greater than 0), get the duration 0.
+     *
+     * @param baseDistance distance of the base run in km
+     * @param baseDuration duration of the base run in seconds
+     * @param targets      target distances in km
+     * @param out          array to write the forecast durations into, at least as long as targets
+     * @throws CustomException if base run is not valid
+     */
+    void predict(float baseDistance, int baseDuration, float[] targets, int[] out)
+            throws CustomException;
+}
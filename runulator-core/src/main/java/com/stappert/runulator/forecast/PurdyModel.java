@@ -0,0 +1,50 @@
+package com.stappert.runulator.forecast;
+
+/**
+ * Forecasts durations with the Purdy points of J. Gerry Purdy. The base run is converted into
+ * points, which are converted back into a duration for each target distance. The points compare a
+ * duration with the world class standard speed of the distance (without track correction).
+ */
+public final class PurdyModel extends BaseForecastModel {
+
+    @Override
+    long getCacheKey() {
+        return 3L << 32;
+    }
+
+    @Override
+    void predictValid(float baseDistance, int baseDuration, float[] targets, int[] out) {
+        final double[] coefficients = new double[3];
+        coefficients(baseDistance, coefficients);
+        final double points = coefficients[1] * (coefficients[0] / baseDuration - coefficients[2]);
+        for (int i = 0; i < targets.length; i++) {
+            final float distance = targets[i];
+            if (distance > 0) {
+                coefficients(distance, coefficients);
+                out[i] = toSeconds(coefficients[0] / (points / coefficients[1] + coefficients[2]));
+            } else {
+                out[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Calculates the coefficients of the distance: the standard duration t950 of 950 points in
+     * seconds and the factors A and B, so that points = A * (t950 / t - B).
+     *
+     * @param distance     distance in km
+     * @param coefficients array to write t950, A and B into
+     */
+    private static void coefficients(float distance, double[] coefficients) {
+        final double meters = distance * 1000.0;
+        final double speed = -11.15895 * Math.exp(-0.03796158 * meters)
+                + 4.304605 * Math.exp(-0.001646772 * meters)
+                + 0.5234627 * Math.exp(-0.0004107670 * meters)
+                + 4.031560 * Math.exp(-0.000007068099 * meters)
+                + 2.316157 * Math.exp(-0.000000005220990 * meters);
+        final double a = 85 / (0.0654 - 0.00258 * speed);
+        coefficients[0] = meters / speed;
+        coefficients[1] = a;
+        coefficients[2] = 1 - 950 / a;
+    }
+}
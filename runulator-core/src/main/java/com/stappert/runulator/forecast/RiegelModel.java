@@ -0,0 +1,62 @@
+package com.stappert.runulator.forecast;
+
+/**
+ * Forecasts durations with the formula of Peter Riegel (t2 = t1 * (d2 / d1)^k). The logarithm of
+ * the base distance is calculated once, so that each target distance costs one logarithm and one
+ * exponential function and no allocation.
+ * https://www.laufhannes.de/wissenschaft/modelle-zur-wettkampfprognose/
+ */
+public final class RiegelModel extends BaseForecastModel {
+
+    /**
+     * Default fatigue coefficient of Runulator.
+     */
+    public static final float DEFAULT_FATIGUE_COEFFICIENT = 1.0759f;
+
+    /**
+     * Fatigue coefficient k.
+     */
+    private final double fatigueCoefficient;
+
+    /**
+     * Creates a forecast model with the default fatigue coefficient.
+     */
+    public RiegelModel() {
+        this(DEFAULT_FATIGUE_COEFFICIENT);
+    }
+
+    /**
+     * Creates a forecast model with the desired fatigue coefficient.
+     *
+     * @param fatigueCoefficient fatigue coefficient
+     */
+    public RiegelModel(float fatigueCoefficient) {
+        this.fatigueCoefficient = fatigueCoefficient;
+    }
+
+    /**
+     * Returns the fatigue coefficient.
+     *
+     * @return fatigue coefficient
+     */
+    public float getFatigueCoefficient() {
+        return (float) fatigueCoefficient;
+    }
+
+    @Override
+    long getCacheKey() {
+        return 1L << 32 | Float.floatToIntBits((float) fatigueCoefficient) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    void predictValid(float baseDistance, int baseDuration, float[] targets, int[] out) {
+        final double k = fatigueCoefficient;
+        final double lnBaseDistance = Math.log(baseDistance);
+        for (int i = 0; i < targets.length; i++) {
+            final float distance = targets[i];
+            out[i] = distance > 0
+                    ? toSeconds(baseDuration * Math.exp(k * (Math.log(distance) - lnBaseDistance)))
+                    : 0;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.stappert.runulator.forecast;
+
+import com.stappert.runulator.utils.Run;
+
+/**
+ * Training paces of Jack Daniels. Each pace is the speed, whose oxygen cost is a fraction of the
+ * VDOT. The marathon pace is the race pace of the marathon for the VDOT.
+ */
+public enum TrainingPace {
+    EASY(0.70), MARATHON(0), THRESHOLD(0.88), INTERVAL(0.975), REPETITION(1.05);
+
+    /**
+     * Fraction of the VDOT.
+     */
+    private final double fraction;
+
+    /**
+     * Creates a training pace.
+     *
+     * @param fraction fraction of the VDOT
+     */
+    TrainingPace(double fraction) {
+        this.fraction = fraction;
+    }
+
+    /**
+     * Returns the training pace for a VDOT.
+     *
+     * @param vdot VDOT, see {@link VdotTables#isInRange(double)}
+     * @return pace in seconds per km
+     * @throws IllegalArgumentException if VDOT is not in range
+     */
+    public int getPace(double vdot) {
+        if (!VdotTables.isInRange(vdot)) {
+            throw new IllegalArgumentException("no training paces for VDOT " + vdot);
+        }
+        if (this == MARATHON) {
+            return (int) Math.round(VdotTables.getDuration(vdot, Run.MARATHON) / Run.MARATHON);
+        }
+        // invert oxygen cost = -4.60 + 0.182258 * v + 0.000104 * v^2 with v in m/min
+        final double oxygenCost = fraction * vdot;
+        final double speed = (-0.182258 + Math.sqrt(0.182258 * 0.182258
+                + 4 * 0.000104 * (oxygenCost + 4.60))) / (2 * 0.000104);
+        return (int) Math.round(60 * 1000 / speed);
+    }
+}
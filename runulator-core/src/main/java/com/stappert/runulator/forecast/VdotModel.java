@@ -0,0 +1,100 @@
+package com.stappert.runulator.forecast;
+
+/**
+ * Forecasts durations with the VDOT of Jack Daniels. The VDOT of the base run is the oxygen cost
+ * of its speed divided by the fraction of the maximum oxygen uptake, which can be sustained for its
+ * duration. For each target distance the duration with the same VDOT is found by Newton's method.
+ * https://www.laufhannes.de/wissenschaft/modelle-zur-wettkampfprognose/
+ */
+public final class VdotModel extends BaseForecastModel {
+
+    /**
+     * Maximal number of Newton iterations per distance.
+     */
+    private static final int MAX_ITERATIONS = 20;
+
+    /**
+     * Precision of the duration in minutes to stop the iteration.
+     */
+    private static final double PRECISION = 1e-7;
+
+    @Override
+    long getCacheKey() {
+        return 4L << 32;
+    }
+
+    @Override
+    void predictValid(float baseDistance, int baseDuration, float[] targets, int[] out) {
+        final double vdot = vdot(baseDistance * 1000.0, baseDuration / 60.0);
+        final double baseMinutes = baseDuration / 60.0;
+        final double lnBaseDistance = Math.log(baseDistance);
+        for (int i = 0; i < targets.length; i++) {
+            final float distance = targets[i];
+            if (distance > 0) {
+                // Riegel with k = 1.06 is a good start value
+                double start = baseMinutes * Math.exp(1.06 * (Math.log(distance) - lnBaseDistance));
+                out[i] = toSeconds(60 * minutes(vdot, distance * 1000.0, start));
+            } else {
+                out[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Calculates the VDOT of a run.
+     *
+     * @param meters  distance in m
+     * @param minutes duration in minutes
+     * @return VDOT
+     */
+    static double vdot(double meters, double minutes) {
+        return oxygenCost(meters / minutes) / fractionOfMax(minutes);
+    }
+
+    /**
+     * Calculates the duration in minutes for the distance, which results in the VDOT.
+     *
+     * @param vdot   VDOT
+     * @param meters distance in m
+     * @param start  start value of the duration in minutes
+     * @return duration in minutes or NaN, if iteration does not converge
+     */
+    static double minutes(double vdot, double meters, double start) {
+        double minutes = start;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            final double speed = meters / minutes;
+            final double e1 = Math.exp(-0.012778 * minutes);
+            final double e2 = Math.exp(-0.1932605 * minutes);
+            final double f = oxygenCost(speed) - vdot * (0.8 + 0.1894393 * e1 + 0.2989558 * e2);
+            final double derivative = (0.182258 + 0.000208 * speed) * (-speed / minutes)
+                    + vdot * (0.012778 * 0.1894393 * e1 + 0.1932605 * 0.2989558 * e2);
+            final double step = f / derivative;
+            minutes = minutes - step > 0 ? minutes - step : minutes / 2;
+            if (Math.abs(step) < PRECISION) {
+                return minutes;
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Calculates the oxygen cost of a speed in ml/kg/min.
+     *
+     * @param speed speed in m/min
+     * @return oxygen cost
+     */
+    static double oxygenCost(double speed) {
+        return -4.60 + 0.182258 * speed + 0.000104 * speed * speed;
+    }
+
+    /**
+     * Calculates the fraction of the maximum oxygen uptake, which can be sustained for a duration.
+     *
+     * @param minutes duration in minutes
+     * @return fraction of maximum oxygen uptake
+     */
+    static double fractionOfMax(double minutes) {
+        return 0.8 + 0.1894393 * Math.exp(-0.012778 * minutes)
+                + 0.2989558 * Math.exp(-0.1932605 * minutes);
+    }
+}
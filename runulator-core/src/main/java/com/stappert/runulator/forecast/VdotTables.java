@@ -0,0 +1,153 @@
+package com.stappert.runulator.forecast;
+
+import com.stappert.runulator.utils.Run;
+
+/**
+ * Dense lookup tables between the VDOT of Jack Daniels and the race durations of the standard
+ * distances. The tables are calculated once with the formulas of the {@link VdotModel} on first
+ * use and are immutable afterwards, so that lookups are a binary search (duration to VDOT) or an
+ * index calculation (VDOT to duration) plus a linear interpolation. Values outside of the tables or
+ * for other distances are calculated with the formulas.
+ */
+public final class VdotTables {
+
+    /**
+     * Standard distances in km, for which tables are calculated.
+     */
+    private static final float[] DISTANCES = {
+            1.5f, 3f, 5f, 10f, 15f, Run.HALF_MARATHON, Run.MARATHON};
+
+    /**
+     * Smallest VDOT of the tables.
+     */
+    public static final float MIN_VDOT = 30;
+
+    /**
+     * Largest VDOT of the tables.
+     */
+    public static final float MAX_VDOT = 85;
+
+    /**
+     * Step between two VDOT values of the tables.
+     */
+    private static final double STEP = 0.1;
+
+    /**
+     * Number of VDOT values of the tables.
+     */
+    private static final int SIZE = (int) Math.round((MAX_VDOT - MIN_VDOT) / STEP) + 1;
+
+    /**
+     * Only static functions.
+     */
+    private VdotTables() {
+    }
+
+    /**
+     * Returns true, if the VDOT is between {@link #MIN_VDOT} and {@link #MAX_VDOT}. Outside of the
+     * range the formulas do not give realistic paces, e.g. a negative VDOT for very slow runs.
+     *
+     * @param vdot VDOT
+     * @return true, if VDOT is in range of the tables
+     */
+    public static boolean isInRange(double vdot) {
+        return vdot >= MIN_VDOT && vdot <= MAX_VDOT;
+    }
+
+    /**
+     * Returns the VDOT of a run.
+     *
+     * @param distance distance in km, greater than 0
+     * @param duration duration in seconds, greater than 0
+     * @return VDOT
+     */
+    public static double getVdot(float distance, int duration) {
+        final int index = indexOf(distance);
+        if (index >= 0) {
+            final double[] durations = Tables.DURATIONS[index];
+            // durations decrease with increasing VDOT
+            if (duration <= durations[0] && duration >= durations[SIZE - 1]) {
+                int low = 0;
+                int high = SIZE - 1;
+                while (high - low > 1) {
+                    final int middle = (low + high) >>> 1;
+                    if (durations[middle] >= duration) {
+                        low = middle;
+                    } else {
+                        high = middle;
+                    }
+                }
+                final double fraction = durations[low] == durations[high] ? 0
+                        : (durations[low] - duration) / (durations[low] - durations[high]);
+                return MIN_VDOT + (low + fraction) * STEP;
+            }
+        }
+        return VdotModel.vdot(distance * 1000.0, duration / 60.0);
+    }
+
+    /**
+     * Returns the race duration of a distance for a VDOT.
+     *
+     * @param vdot     VDOT
+     * @param distance distance in km, greater than 0
+     * @return duration in seconds
+     */
+    public static double getDuration(double vdot, float distance) {
+        final int index = indexOf(distance);
+        final double position = (vdot - MIN_VDOT) / STEP;
+        if (index >= 0 && position >= 0 && position <= SIZE - 1) {
+            final double[] durations = Tables.DURATIONS[index];
+            final int low = Math.min((int) position, SIZE - 2);
+            final double fraction = position - low;
+            return durations[low] + fraction * (durations[low + 1] - durations[low]);
+        }
+        return calculateDuration(vdot, distance);
+    }
+
+    /**
+     * Calculates the race duration of a distance for a VDOT with the formulas.
+     *
+     * @param vdot     VDOT
+     * @param distance distance in km, greater than 0
+     * @return duration in seconds or NaN, if it can not be calculated
+     */
+    static double calculateDuration(double vdot, float distance) {
+        // start with a pace of 5 min/km, which is scaled with the VDOT
+        final double start = distance * 5 * 50 / vdot;
+        return 60 * VdotModel.minutes(vdot, distance * 1000.0, start);
+    }
+
+    /**
+     * Returns the index of a standard distance or -1, if the distance has no table.
+     *
+     * @param distance distance in km
+     * @return index of the distance
+     */
+    private static int indexOf(float distance) {
+        for (int i = 0; i < DISTANCES.length; i++) {
+            if (DISTANCES[i] == distance) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Holds the tables, which are calculated on first access.
+     */
+    private static final class Tables {
+
+        /**
+         * Durations in seconds per standard distance and VDOT.
+         */
+        static final double[][] DURATIONS = new double[DISTANCES.length][SIZE];
+
+        static {
+            for (int i = 0; i < DISTANCES.length; i++) {
+                for (int j = 0; j < SIZE; j++) {
+                    DURATIONS[i][j] = calculateDuration(MIN_VDOT + j * STEP, DISTANCES[i]);
+                }
+            }
+        }
+    }
+}
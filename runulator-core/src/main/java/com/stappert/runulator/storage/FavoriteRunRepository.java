@@ -0,0 +1,173 @@
+package com.stappert.runulator.storage;
+
+import com.stappert.runulator.utils.Run;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Repository of the favorite runs, which are stored in a {@link RunLog}. The log is read only once,
+ * afterwards the repository keeps immutable lists of the entries and runs. Each change increases
+ * the version, so that consumers can skip recalculations, while the version is unchanged.
+ */
+public final class FavoriteRunRepository {
+
+    /**
+     * Log of the favorite runs.
+     */
+    private final RunLog runLog;
+
+    /**
+     * Immutable list of the entries or null, if log is not loaded yet.
+     */
+    private List<RunEntry> entries;
+
+    /**
+     * Immutable list of the runs of the entries or null, if not created yet.
+     */
+    private List<Run> runs;
+
+    /**
+     * Version of the favorite runs, which is increased with each change.
+     */
+    private int version;
+
+    /**
+     * Creates a repository for the run log.
+     *
+     * @param runLog log of the favorite runs
+     */
+    public FavoriteRunRepository(RunLog runLog) {
+        this.runLog = runLog;
+    }
+
+    /**
+     * Returns the version of the favorite runs, which is increased with each change.
+     *
+     * @return version
+     */
+    public synchronized int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the favorite runs as entries. The list is immutable and is the same object, while
+     * the version does not change.
+     *
+     * @return entries
+     * @throws IOException if log can not be loaded
+     */
+    public synchronized List<RunEntry> getEntries() throws IOException {
+        if (entries == null) {
+            entries = Collections.unmodifiableList(runLog.load());
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the favorite runs. The list is immutable and is the same object, while the version
+     * does not change.
+     *
+     * @return runs
+     * @throws IOException if log can not be loaded
+     */
+    public synchronized List<Run> getRuns() throws IOException {
+        if (runs == null) {
+            List<Run> newRuns = new ArrayList<>(getEntries().size());
+            for (RunEntry entry : getEntries()) {
+                newRuns.add(entry.toRun());
+            }
+            runs = Collections.unmodifiableList(newRuns);
+        }
+        return runs;
+    }
+
+    /**
+     * Returns true, if the run is a favorite run.
+     *
+     * @param entry run
+     * @return true, if run is a favorite run
+     * @throws IOException if log can not be loaded
+     */
+    public synchronized boolean contains(RunEntry entry) throws IOException {
+        return getEntries().contains(entry);
+    }
+
+    /**
+     * Adds a run to the favorite runs, if it is not a favorite run yet.
+     *
+     * @param entry run
+     * @return true, if run was added
+     * @throws IOException if log can not be written
+     */
+    public synchronized boolean add(RunEntry entry) throws IOException {
+        if (contains(entry)) {
+            return false;
+        }
+        runLog.append(entry);
+        List<RunEntry> newEntries = new ArrayList<>(entries);
+        newEntries.add(entry);
+        update(newEntries);
+        return true;
+    }
+
+    /**
+     * Adds several runs to the favorite runs, which are not favorite runs yet, and rewrites the log.
+     *
+     * @param newEntries runs
+     * @return number of added runs
+     * @throws IOException if log can not be written
+     */
+    public synchronized int addAll(List<RunEntry> newEntries) throws IOException {
+        List<RunEntry> allEntries = new ArrayList<>(getEntries());
+        for (RunEntry entry : newEntries) {
+            if (!allEntries.contains(entry)) {
+                allEntries.add(entry);
+            }
+        }
+        final int added = allEntries.size() - entries.size();
+        runLog.rewrite(allEntries);
+        if (added > 0) {
+            update(allEntries);
+        }
+        return added;
+    }
+
+    /**
+     * Removes a run from the favorite runs.
+     *
+     * @param entry run
+     * @return true, if run was removed
+     * @throws IOException if log can not be written
+     */
+    public synchronized boolean remove(RunEntry entry) throws IOException {
+        List<RunEntry> newEntries = new ArrayList<>(getEntries());
+        if (!newEntries.remove(entry)) {
+            return false;
+        }
+        runLog.rewrite(newEntries);
+        update(newEntries);
+        return true;
+    }
+
+    /**
+     * Removes all favorite runs and deletes the log.
+     */
+    public synchronized void clear() {
+        runLog.delete();
+        update(new ArrayList<RunEntry>());
+    }
+
+    /**
+     * Replaces the entries and increases the version.
+     *
+     * @param newEntries new entries
+     */
+    private void update(List<RunEntry> newEntries) {
+        entries = Collections.unmodifiableList(newEntries);
+        runs = null;
+        version++;
+    }
+}
@@ -0,0 +1,110 @@
+package com.stappert.runulator.storage;
+
+/**
+ * Fenwick tree (binary indexed tree) of counts over the values 0 to size - 1. Adding, removing
+ * and selecting the k-th smallest value take O(log n).
+ */
+final class FenwickTree {
+
+    /**
+     * Tree of partial sums, index 0 is unused.
+     */
+    private final int[] tree;
+
+    /**
+     * Highest power of two, which is not greater than the size.
+     */
+    private final int highestBit;
+
+    /**
+     * Number of values in the tree.
+     */
+    private int count;
+
+    /**
+     * Creates an empty tree.
+     *
+     * @param size number of distinct values
+     */
+    FenwickTree(int size) {
+        tree = new int[size + 1];
+        highestBit = Integer.highestOneBit(size);
+    }
+
+    /**
+     * Returns the number of distinct values.
+     *
+     * @return size
+     */
+    int size() {
+        return tree.length - 1;
+    }
+
+    /**
+     * Returns the number of values in the tree.
+     *
+     * @return number of values
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Adds a value once or several times.
+     *
+     * @param value value from 0 to size - 1
+     * @param times number of times, negative to remove
+     */
+    void add(int value, int times) {
+        for (int i = value + 1; i < tree.length; i += i & -i) {
+            tree[i] += times;
+        }
+        count += times;
+    }
+
+    /**
+     * Returns the number of values, which are not greater than the value.
+     *
+     * @param value value from 0 to size - 1
+     * @return number of values
+     */
+    int countUpTo(int value) {
+        int sum = 0;
+        for (int i = value + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns how often the value is contained.
+     *
+     * @param value value from 0 to size - 1
+     * @return number of times
+     */
+    int countOf(int value) {
+        return countUpTo(value) - (value > 0 ? countUpTo(value - 1) : 0);
+    }
+
+    /**
+     * Returns the k-th smallest value.
+     *
+     * @param k rank, starting with 1
+     * @return value or -1, if the tree contains less than k values
+     */
+    int select(int k) {
+        if (k < 1 || k > count) {
+            return -1;
+        }
+        int position = 0;
+        int remaining = k;
+        for (int bit = highestBit; bit > 0; bit >>= 1) {
+            final int next = position + bit;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+}
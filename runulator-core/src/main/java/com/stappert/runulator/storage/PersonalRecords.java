@@ -0,0 +1,310 @@
+package com.stappert.runulator.storage;
+
+import com.stappert.runulator.utils.Run;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Index of the best times at the standard distances (1 km, 5 km, 10 km, half marathon and
+ * marathon). Only completed runs of the {@link RunHistory} are indexed, calculated runs are
+ * ignored and removed runs are revoked. A run counts for a distance, if it deviates at most 1 %
+ * from it, its duration is scaled to the exact distance. The times of each distance are counted
+ * in a {@link FenwickTree} over the seconds, so that adding and removing a run and selecting the
+ * k-th best time take O(log n). The index remembers, how many rows of the {@link RunHistory} it contains, and is
+ * stored with a CRC32 checksum, so that it is loaded without a scan of the history.
+ */
+public final class PersonalRecords {
+
+    /**
+     * Standard distances in km.
+     */
+    public static final float[] DISTANCES = {1, 5, 10, Run.HALF_MARATHON, Run.MARATHON};
+
+    /**
+     * Maximum deviation of a run from a standard distance.
+     */
+    public static final float TOLERANCE = 0.01f;
+
+    /**
+     * Slowest pace in seconds per km, which is indexed.
+     */
+    private static final int MAX_PACE = 1200;
+
+    /**
+     * Magic number of the file ("RUPR").
+     */
+    static final int MAGIC = 0x52555052;
+
+    /**
+     * Version of the file format. Indexes of version 1 also contain calculated runs and are
+     * rebuilt.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * Times in seconds per standard distance.
+     */
+    private final FenwickTree[] times = new FenwickTree[DISTANCES.length];
+
+    /**
+     * Number of rows of the run history, which are contained.
+     */
+    private int historyRows;
+
+    /**
+     * Creates an empty index.
+     */
+    public PersonalRecords() {
+        for (int i = 0; i < DISTANCES.length; i++) {
+            times[i] = new FenwickTree((int) Math.ceil(DISTANCES[i] * MAX_PACE) + 1);
+        }
+    }
+
+    /**
+     * Returns the index of the standard distance of a run.
+     *
+     * @param distance distance in km
+     * @return index of standard distance or -1, if run has no standard distance
+     */
+    public static int indexOf(float distance) {
+        for (int i = 0; i < DISTANCES.length; i++) {
+            if (Math.abs(distance - DISTANCES[i]) <= DISTANCES[i] * TOLERANCE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a run.
+     *
+     * @param distance distance in km
+     * @param duration duration in seconds
+     * @return true, if run has a standard distance and was added
+     */
+    public boolean add(float distance, int duration) {
+        final int index = indexOf(distance);
+        final int time = index < 0 ? -1 : scaledTime(index, distance, duration);
+        if (time < 0) {
+            return false;
+        }
+        times[index].add(time, 1);
+        return true;
+    }
+
+    /**
+     * Removes a run, which was added before.
+     *
+     * @param distance distance in km
+     * @param duration duration in seconds
+     * @return true, if run was contained and was removed
+     */
+    public boolean remove(float distance, int duration) {
+        final int index = indexOf(distance);
+        final int time = index < 0 ? -1 : scaledTime(index, distance, duration);
+        if (time < 0 || times[index].countOf(time) == 0) {
+            return false;
+        }
+        times[index].add(time, -1);
+        return true;
+    }
+
+    /**
+     * Adds the completed runs of the history, which are not contained yet, and removes the runs,
+     * which were revoked by a later row. If the history was cleared, the index is rebuilt.
+     *
+     * @param history view of the run history
+     */
+    public void update(RunHistoryView history) {
+        if (history.size() < historyRows) {
+            clear();
+        }
+        for (int row = historyRows; row < history.size(); row++) {
+            if (history.isCompleted(row)) {
+                add(history.getDistance(row), history.getDuration(row));
+            } else if (history.isRemoved(row)) {
+                remove(history.getDistance(row), history.getDuration(row));
+            }
+        }
+        historyRows = history.size();
+    }
+
+    /**
+     * Returns the number of rows of the run history, which are contained.
+     *
+     * @return number of history rows
+     */
+    public int getHistoryRows() {
+        return historyRows;
+    }
+
+    /**
+     * Returns the number of runs at a standard distance.
+     *
+     * @param index index of standard distance
+     * @return number of runs
+     */
+    public int getCount(int index) {
+        return times[index].count();
+    }
+
+    /**
+     * Returns the best time at a standard distance.
+     *
+     * @param index index of standard distance
+     * @return best time in seconds or 0, if no run exists
+     */
+    public int getBest(int index) {
+        return Math.max(times[index].select(1), 0);
+    }
+
+    /**
+     * Writes the best times at a standard distance in ascending order.
+     *
+     * @param index index of standard distance
+     * @param out   array for the times in seconds, its length is the number of requested times
+     * @return number of written times
+     */
+    public int getTop(int index, int[] out) {
+        final int count = Math.min(out.length, times[index].count());
+        int rank = 1;
+        int written = 0;
+        while (written < count) {
+            final int time = times[index].select(rank);
+            // equal times are counted once per run
+            final int equal = Math.min(times[index].countUpTo(time) - rank + 1, count - written);
+            for (int i = 0; i < equal; i++) {
+                out[written++] = time;
+            }
+            rank += equal;
+        }
+        return written;
+    }
+
+    /**
+     * Removes all runs.
+     */
+    public void clear() {
+        for (int i = 0; i < DISTANCES.length; i++) {
+            times[i] = new FenwickTree(times[i].size());
+        }
+        historyRows = 0;
+    }
+
+    /**
+     * Scales the duration of a run to the exact standard distance.
+     *
+     * @param index    index of standard distance
+     * @param distance distance in km
+     * @param duration duration in seconds
+     * @return scaled time in seconds or -1, if time is out of range
+     */
+    private int scaledTime(int index, float distance, int duration) {
+        final int time = Math.round(duration * DISTANCES[index] / distance);
+        return time > 0 && time < times[index].size() ? time : -1;
+    }
+
+    // =============================================================================================
+    // persistence
+    // =============================================================================================
+
+    /**
+     * Stores the index. Only the distinct times with their counts are written, followed by a CRC32
+     * checksum. The file is written to a temporary file first, which replaces the file afterwards.
+     *
+     * @param file file
+     * @throws IOException if file can not be written
+     */
+    public void save(File file) throws IOException {
+        int distinct = 0;
+        for (FenwickTree tree : times) {
+            distinct += distinctTimes(tree);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(12 + 4 * DISTANCES.length + 8 * distinct + 8);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(historyRows);
+        for (FenwickTree tree : times) {
+            buffer.putInt(distinctTimes(tree));
+            for (int rank = 1; rank <= tree.count(); ) {
+                final int time = tree.select(rank);
+                final int count = tree.countOf(time);
+                buffer.putInt(time).putInt(count);
+                rank += count;
+            }
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(checksum.getValue());
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(temporaryFile)) {
+            output.write(buffer.array(), 0, buffer.position());
+            output.getFD().sync();
+        }
+        if (!temporaryFile.renameTo(file)) {
+            throw new IOException("can not replace " + file);
+        }
+    }
+
+    /**
+     * Loads an index, which was stored before.
+     *
+     * @param file file
+     * @return index
+     * @throws IOException if file can not be read, is no index or the checksum does not match
+     */
+    public static PersonalRecords load(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+            input.readFully(bytes);
+        }
+        if (bytes.length < 8) {
+            throw new IOException("no personal records: " + file);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, bytes.length - 8);
+        if (checksum.getValue() != buffer.getLong(bytes.length - 8)) {
+            throw new IOException("checksum of personal records does not match: " + file);
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("no personal records: " + file);
+            }
+            PersonalRecords records = new PersonalRecords();
+            records.historyRows = buffer.getInt();
+            for (FenwickTree tree : records.times) {
+                final int distinct = buffer.getInt();
+                for (int i = 0; i < distinct; i++) {
+                    final int time = buffer.getInt();
+                    final int count = buffer.getInt();
+                    if (time < 0 || time >= tree.size() || count < 0) {
+                        throw new IOException("invalid personal records: " + file);
+                    }
+                    tree.add(time, count);
+                }
+            }
+            return records;
+        } catch (RuntimeException ex) {
+            throw new IOException("invalid personal records: " + file, ex);
+        }
+    }
+
+    /**
+     * Returns the number of distinct times in a tree.
+     *
+     * @param tree tree
+     * @return number of distinct times
+     */
+    private static int distinctTimes(FenwickTree tree) {
+        int distinct = 0;
+        for (int rank = 1; rank <= tree.count(); distinct++) {
+            rank += tree.countOf(tree.select(rank));
+        }
+        return distinct;
+    }
+}
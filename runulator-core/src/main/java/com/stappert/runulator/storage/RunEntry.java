@@ -0,0 +1,285 @@
+package com.stappert.runulator.storage;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunJsonCodec;
+import com.stappert.runulator.utils.RunResult;
+import com.stappert.runulator.utils.RunSolver;
+
+/**
+ * Immutable entry of the run log. Contains all parameters of the run, the two parameters, which
+ * were entered by the user, as bit mask of their ordinals and the time, when the run was stored.
+ */
+public final class RunEntry {
+
+    /**
+     * Distance of run in km.
+     */
+    private final float distance;
+    /**
+     * Duration of run in seconds.
+     */
+    private final int duration;
+    /**
+     * Pace of run in seconds.
+     */
+    private final int pace;
+    /**
+     * Speed of run in km/h.
+     */
+    private final float speed;
+    /**
+     * Bit mask of the input parameters (1 << ordinal).
+     */
+    private final int inputMask;
+    /**
+     * Time in milliseconds since epoch, when the run was stored.
+     */
+    private final long timestamp;
+
+    /**
+     * Creates an entry.
+     *
+     * @param distance  in km
+     * @param duration  in seconds
+     * @param pace      in seconds
+     * @param speed     in km/h
+     * @param inputMask bit mask of the input parameters
+     * @param timestamp time in milliseconds since epoch
+     */
+    RunEntry(float distance, int duration, int pace, float speed, int inputMask, long timestamp) {
+        this.distance = distance;
+        this.duration = duration;
+        this.pace = pace;
+        this.speed = speed;
+        this.inputMask = inputMask;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Creates an entry from the two input parameters of a run.
+     *
+     * @param parameter1 type of first value
+     * @param value1     first value (distance in km, duration or pace in seconds, speed in km/h)
+     * @param parameter2 type of second value
+     * @param value2     second value (distance in km, duration or pace in seconds, speed in km/h)
+     * @param timestamp  time in milliseconds since epoch
+     * @return entry
+     * @throws CustomException if run can not be calculated
+     */
+    public static RunEntry create(ParameterType parameter1, float value1,
+                                  ParameterType parameter2, float value2, long timestamp)
+            throws CustomException {
+        RunResult result = new RunResult();
+        if (RunSolver.solve(parameter1, value1, parameter2, value2, result) != RunSolver.OK) {
+            throw new CustomException("Error", "run can not be calculated");
+        }
+        return new RunEntry(result.getDistance(), result.getDuration(), result.getPace(),
+                result.getSpeed(), (1 << parameter1.ordinal()) | (1 << parameter2.ordinal()),
+                timestamp);
+    }
+
+    /**
+     * Creates an entry from a run as json string, which contains the two input parameters.
+     *
+     * @param runJson   run as json string with single or double quotes
+     * @param timestamp time in milliseconds since epoch
+     * @return entry
+     * @throws CustomException if json string can not be parsed or does not contain a valid run
+     */
+    public static RunEntry fromJson(String runJson, long timestamp) throws CustomException {
+        final float[] values = new float[RunJsonCodec.VALUE_COUNT];
+        final int mask = RunJsonCodec.read(runJson, values);
+        ParameterType[] inputs = new ParameterType[2];
+        int count = 0;
+        for (ParameterType parameter : new ParameterType[]{ParameterType.DISTANCE,
+                ParameterType.DURATION, ParameterType.PACE, ParameterType.SPEED}) {
+            if (count < 2 && (mask & 1 << parameter.ordinal()) != 0) {
+                inputs[count++] = parameter;
+            }
+        }
+        if (count < 2) {
+            throw new CustomException("Error", "run parameters are not supported");
+        }
+        return create(inputs[0], value(inputs[0], values), inputs[1], value(inputs[1], values),
+                timestamp);
+    }
+
+    /**
+     * Returns the read value of the parameter, duration and pace as whole seconds.
+     *
+     * @param parameter parameter
+     * @param values    read values, indexed by ordinal
+     * @return value
+     */
+    private static float value(ParameterType parameter, float[] values) {
+        final float value = values[parameter.ordinal()];
+        return ParameterType.DURATION.equals(parameter) || ParameterType.PACE.equals(parameter)
+                ? (int) value : value;
+    }
+
+    /**
+     * Converts the entry to a run.
+     *
+     * @return run
+     */
+    public Run toRun() {
+        RunResult result = new RunResult();
+        RunSolver.solve(getInput(0), getValue(getInput(0)), getInput(1), getValue(getInput(1)), result);
+        return Run.createWithResult(result);
+    }
+
+    /**
+     * Converts the entry to a json string, which contains the two input parameters.
+     *
+     * @return run as json string
+     * @throws CustomException if input parameters are not supported
+     */
+    public String toJson() throws CustomException {
+        final ParameterType input1 = getInput(0);
+        final ParameterType input2 = getInput(1);
+        if (ParameterType.DISTANCE.equals(input1)) {
+            if (ParameterType.DURATION.equals(input2)) {
+                return Run.jsonWithDistanceAndDuration(distance, duration);
+            } else if (ParameterType.PACE.equals(input2)) {
+                return Run.jsonWithDistanceAndPace(distance, pace);
+            } else if (ParameterType.SPEED.equals(input2)) {
+                return Run.jsonWithDistanceAndSpeed(distance, speed);
+            }
+        } else if (ParameterType.DURATION.equals(input1)) {
+            if (ParameterType.PACE.equals(input2)) {
+                return Run.jsonWithDurationAndPace(duration, pace);
+            } else if (ParameterType.SPEED.equals(input2)) {
+                return Run.jsonWithDurationAndSpeed(duration, speed);
+            }
+        }
+        throw new CustomException("Error", "run parameters are not supported");
+    }
+
+    /**
+     * Returns the first (index 0) or second (index 1) input parameter in order of the ordinals.
+     *
+     * @param index index of input parameter
+     * @return input parameter or null, if mask does not contain it
+     */
+    public ParameterType getInput(int index) {
+        int found = 0;
+        for (ParameterType parameter : ParameterType.values()) {
+            if ((inputMask & (1 << parameter.ordinal())) != 0 && found++ == index) {
+                return parameter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of a run parameter.
+     *
+     * @param parameter run parameter
+     * @return value (distance in km, duration or pace in seconds, speed in km/h)
+     */
+    private float getValue(ParameterType parameter) {
+        if (parameter == null) {
+            return 0;
+        }
+        switch (parameter) {
+            case DISTANCE:
+                return distance;
+            case DURATION:
+                return duration;
+            case PACE:
+                return pace;
+            case SPEED:
+                return speed;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns the distance in km.
+     *
+     * @return distance
+     */
+    public float getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the duration in seconds.
+     *
+     * @return duration
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the pace in seconds per km.
+     *
+     * @return pace
+     */
+    public int getPace() {
+        return pace;
+    }
+
+    /**
+     * Returns the speed in km/h.
+     *
+     * @return speed
+     */
+    public float getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Returns the bit mask of the input parameters.
+     *
+     * @return input mask
+     */
+    public int getInputMask() {
+        return inputMask;
+    }
+
+    /**
+     * Returns the time in milliseconds since epoch, when the run was stored.
+     *
+     * @return timestamp
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Compares this entry with an object. Entries are equal, if they describe the same run with the
+     * same input parameters, regardless of the time they were stored.
+     *
+     * @param object object to compare
+     * @return true if run and input parameters are equal
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        RunEntry entry = (RunEntry) object;
+        return Float.floatToIntBits(distance) == Float.floatToIntBits(entry.distance)
+                && duration == entry.duration && pace == entry.pace
+                && Float.floatToIntBits(speed) == Float.floatToIntBits(entry.speed)
+                && inputMask == entry.inputMask;
+    }
+
+    /**
+     * Generates hashcode depending on run and input parameters.
+     *
+     * @return hashcode
+     */
+    @Override
+    public int hashCode() {
+        int hash = Float.floatToIntBits(distance);
+        hash = 31 * hash + duration;
+        hash = 31 * hash + pace;
+        hash = 31 * hash + Float.floatToIntBits(speed);
+        return 31 * hash + inputMask;
+    }
+}
@@ -0,0 +1,307 @@
+package com.stappert.runulator.storage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Columnar history of all calculated or completed runs. Each field is stored in its own column
+ * file in little endian: epoch day (int), distance in meters (int), duration in milliseconds
+ * (int), pace in seconds per km (int) and flags (byte). Rows are collected in memory and appended
+ * through a {@link FileChannel} on {@link #flush()}. They are read through memory mapped column
+ * files by a {@link RunHistoryView}, without creating objects per row.
+ */
+public final class RunHistory {
+
+    /**
+     * Flag of a run, which was completed and not only calculated. The lower bits of the flags
+     * contain the input parameters as bit mask of their ordinals.
+     */
+    public static final int FLAG_COMPLETED = 1 << 7;
+
+    /**
+     * Flag of a run, which revokes a completed run with the same distance and duration, e.g. if a
+     * favorite run was removed. The history is only appended, so a removal is stored as a row.
+     */
+    public static final int FLAG_REMOVED = 1 << 6;
+
+    /**
+     * Mask of the input parameters in the flags.
+     */
+    public static final int INPUT_MASK = 0x0F;
+
+    /**
+     * Longest duration in seconds, which can be stored in milliseconds.
+     */
+    public static final int MAX_DURATION = Integer.MAX_VALUE / 1000;
+
+    /**
+     * Column files of the int columns.
+     */
+    static final String[] INT_COLUMNS = {"day.col", "distance.col", "duration.col", "pace.col"};
+
+    /**
+     * Column file of the flags.
+     */
+    static final String FLAGS_COLUMN = "flags.col";
+
+    /**
+     * Index of the column epoch day.
+     */
+    static final int DAY = 0;
+
+    /**
+     * Index of the column distance.
+     */
+    static final int DISTANCE = 1;
+
+    /**
+     * Index of the column duration.
+     */
+    static final int DURATION = 2;
+
+    /**
+     * Index of the column pace.
+     */
+    static final int PACE = 3;
+
+    /**
+     * Number of rows, which are collected in memory, before they are appended automatically.
+     */
+    private static final int PENDING_CAPACITY = 256;
+
+    /**
+     * Directory of the column files.
+     */
+    private final File directory;
+
+    /**
+     * Pending values of the int columns.
+     */
+    private final ByteBuffer[] pendingInts = new ByteBuffer[INT_COLUMNS.length];
+
+    /**
+     * Pending values of the flags.
+     */
+    private final ByteBuffer pendingFlags = ByteBuffer.allocate(PENDING_CAPACITY);
+
+    /**
+     * Number of pending rows.
+     */
+    private int pendingCount;
+
+    /**
+     * True, if the column files were checked for a torn append.
+     */
+    private boolean repaired;
+
+    /**
+     * View of the stored rows or null, if rows were appended since the view was created.
+     */
+    private RunHistoryView view;
+
+    /**
+     * Creates a history, which stores its column files in the directory.
+     *
+     * @param directory directory of the column files
+     */
+    public RunHistory(File directory) {
+        this.directory = directory;
+        for (int i = 0; i < pendingInts.length; i++) {
+            pendingInts[i] = ByteBuffer.allocate(PENDING_CAPACITY * 4).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Returns true, if a run can be stored, i.e. its distance in meters and its duration in
+     * milliseconds fit into an int.
+     *
+     * @param distance in km
+     * @param duration in seconds
+     * @return true, if run can be appended
+     */
+    public static boolean canAppend(float distance, int duration) {
+        return distance >= 0 && distance * 1000.0 <= Integer.MAX_VALUE
+                && duration >= 0 && duration <= MAX_DURATION;
+    }
+
+    /**
+     * Appends a run. The row is written with the next flush, at the latest after
+     * {@value #PENDING_CAPACITY} rows.
+     *
+     * @param epochDay days since 1970-01-01
+     * @param distance in km
+     * @param duration in seconds, at most {@link #MAX_DURATION}
+     * @param pace     in seconds per km
+     * @param flags    input parameters as bit mask of their ordinals, {@link #FLAG_COMPLETED}
+     *                 and {@link #FLAG_REMOVED}
+     * @throws IOException              if rows can not be appended
+     * @throws IllegalArgumentException if run can not be stored, see {@link #canAppend(float, int)}
+     */
+    public synchronized void append(int epochDay, float distance, int duration, int pace, int flags)
+            throws IOException {
+        if (!canAppend(distance, duration)) {
+            throw new IllegalArgumentException("run of " + distance + " km in " + duration
+                    + " s can not be stored");
+        } else if (pendingCount == PENDING_CAPACITY) {
+            // a previous flush failed
+            flush();
+        }
+        pendingInts[DAY].putInt(epochDay);
+        pendingInts[DISTANCE].putInt(Math.round(distance * 1000));
+        pendingInts[DURATION].putInt(duration * 1000);
+        pendingInts[PACE].putInt(pace);
+        pendingFlags.put((byte) flags);
+        pendingCount++;
+        if (pendingCount == PENDING_CAPACITY) {
+            flush();
+        }
+    }
+
+    /**
+     * Returns the number of rows including the pending rows.
+     *
+     * @return number of rows
+     */
+    public synchronized int size() {
+        return storedRows() + pendingCount;
+    }
+
+    /**
+     * Appends the pending rows to the column files. If a column can not be written, the rows,
+     * which were already appended to other columns, are truncated again and the pending rows are
+     * kept for the next flush.
+     *
+     * @throws IOException if rows can not be appended
+     */
+    public synchronized void flush() throws IOException {
+        if (pendingCount == 0) {
+            return;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("can not create " + directory);
+        }
+        final int rows = storedRows();
+        if (!repaired) {
+            truncateColumns(rows);
+            repaired = true;
+        }
+        try {
+            for (int i = 0; i < INT_COLUMNS.length; i++) {
+                appendColumn(INT_COLUMNS[i], pendingInts[i]);
+            }
+            appendColumn(FLAGS_COLUMN, pendingFlags);
+        } catch (IOException ex) {
+            repaired = false;
+            try {
+                truncateColumns(rows);
+                repaired = true;
+            } catch (IOException truncateException) {
+                // truncated with the next flush
+            }
+            throw ex;
+        }
+        for (ByteBuffer pending : pendingInts) {
+            pending.clear();
+        }
+        pendingFlags.clear();
+        pendingCount = 0;
+        view = null;
+    }
+
+    /**
+     * Returns a view of all rows. Pending rows are appended before. The view is reused, while no
+     * rows are appended.
+     *
+     * @return view of all rows
+     * @throws IOException if column files can not be mapped
+     */
+    public synchronized RunHistoryView getView() throws IOException {
+        flush();
+        if (view == null) {
+            view = RunHistoryView.map(directory, storedRows());
+        }
+        return view;
+    }
+
+    /**
+     * Removes all rows and deletes the column files. Views, which were created before, stay
+     * valid.
+     */
+    public synchronized void clear() {
+        for (ByteBuffer pending : pendingInts) {
+            pending.clear();
+        }
+        pendingFlags.clear();
+        pendingCount = 0;
+        for (String column : INT_COLUMNS) {
+            new File(directory, column).delete();
+        }
+        new File(directory, FLAGS_COLUMN).delete();
+        view = null;
+    }
+
+    /**
+     * Returns the number of complete rows in the column files. A row, which was only appended to
+     * some columns, is ignored.
+     *
+     * @return number of stored rows
+     */
+    private int storedRows() {
+        long rows = new File(directory, FLAGS_COLUMN).length();
+        for (String column : INT_COLUMNS) {
+            rows = Math.min(rows, new File(directory, column).length() / 4);
+        }
+        return (int) rows;
+    }
+
+    /**
+     * Truncates all column files to the number of rows, e.g. after an append was torn.
+     *
+     * @param rows number of rows
+     * @throws IOException if column files can not be truncated
+     */
+    private void truncateColumns(int rows) throws IOException {
+        for (String column : INT_COLUMNS) {
+            truncateColumn(new File(directory, column), rows * 4L);
+        }
+        truncateColumn(new File(directory, FLAGS_COLUMN), rows);
+    }
+
+    /**
+     * Truncates a column file, if it is longer than the size.
+     *
+     * @param file column file
+     * @param size size in bytes
+     * @throws IOException if column file can not be truncated
+     */
+    private static void truncateColumn(File file, long size) throws IOException {
+        if (file.length() > size) {
+            try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+                output.setLength(size);
+            }
+        }
+    }
+
+    /**
+     * Appends the pending values to a column file. The pending values are not changed, so that
+     * they can be written again after a failure.
+     *
+     * @param column  name of column file
+     * @param pending pending values
+     * @throws IOException if column file can not be written
+     */
+    private void appendColumn(String column, ByteBuffer pending) throws IOException {
+        ByteBuffer values = pending.duplicate();
+        values.flip();
+        try (FileChannel channel = new FileOutputStream(new File(directory, column), true).getChannel()) {
+            while (values.hasRemaining()) {
+                channel.write(values);
+            }
+        }
+    }
+}
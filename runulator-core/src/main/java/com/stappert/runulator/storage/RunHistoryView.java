@@ -0,0 +1,270 @@
+package com.stappert.runulator.storage;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.Run;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only view of the rows of a {@link RunHistory}, which are memory mapped from the column
+ * files. The getters return the values of a row in the units of {@link Run}, so that rows can be
+ * used like runs without creating objects. Scans over a column only touch the mapped memory.
+ */
+public final class RunHistoryView {
+
+    /**
+     * Mapped int columns.
+     */
+    private final IntBuffer[] columns;
+
+    /**
+     * Mapped flags.
+     */
+    private final ByteBuffer flags;
+
+    /**
+     * Number of rows.
+     */
+    private final int size;
+
+    /**
+     * Creates a view of mapped columns.
+     *
+     * @param columns mapped int columns
+     * @param flags   mapped flags
+     * @param size    number of rows
+     */
+    private RunHistoryView(IntBuffer[] columns, ByteBuffer flags, int size) {
+        this.columns = columns;
+        this.flags = flags;
+        this.size = size;
+    }
+
+    /**
+     * Maps the first rows of the column files in the directory.
+     *
+     * @param directory directory of the column files
+     * @param rows      number of rows
+     * @return view
+     * @throws IOException if column files can not be mapped
+     */
+    static RunHistoryView map(File directory, int rows) throws IOException {
+        IntBuffer[] columns = new IntBuffer[RunHistory.INT_COLUMNS.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = mapColumn(new File(directory, RunHistory.INT_COLUMNS[i]), rows * 4L)
+                    .asIntBuffer();
+        }
+        return new RunHistoryView(columns,
+                mapColumn(new File(directory, RunHistory.FLAGS_COLUMN), rows), rows);
+    }
+
+    /**
+     * Maps a column file read-only.
+     *
+     * @param file column file
+     * @param size size in bytes
+     * @return mapped column
+     * @throws IOException if column file can not be mapped
+     */
+    private static ByteBuffer mapColumn(File file, long size) throws IOException {
+        if (size == 0) {
+            return ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            // the mapping stays valid after the channel is closed
+            return input.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the day of the run.
+     *
+     * @param row row
+     * @return days since 1970-01-01
+     */
+    public int getEpochDay(int row) {
+        return columns[RunHistory.DAY].get(row);
+    }
+
+    /**
+     * Returns the distance of the run in meters.
+     *
+     * @param row row
+     * @return distance in meters
+     */
+    public int getDistanceInMeters(int row) {
+        return columns[RunHistory.DISTANCE].get(row);
+    }
+
+    /**
+     * Returns the distance of the run in km.
+     *
+     * @param row row
+     * @return distance in km
+     */
+    public float getDistance(int row) {
+        return getDistanceInMeters(row) / 1000f;
+    }
+
+    /**
+     * Returns the duration of the run in milliseconds.
+     *
+     * @param row row
+     * @return duration in milliseconds
+     */
+    public int getDurationInMillis(int row) {
+        return columns[RunHistory.DURATION].get(row);
+    }
+
+    /**
+     * Returns the duration of the run in seconds.
+     *
+     * @param row row
+     * @return duration in seconds
+     */
+    public int getDuration(int row) {
+        return getDurationInMillis(row) / 1000;
+    }
+
+    /**
+     * Returns the pace of the run in seconds per km.
+     *
+     * @param row row
+     * @return pace in seconds
+     */
+    public int getPace(int row) {
+        return columns[RunHistory.PACE].get(row);
+    }
+
+    /**
+     * Returns the speed of the run in km/h.
+     *
+     * @param row row
+     * @return speed in km/h
+     */
+    public float getSpeed(int row) {
+        return getDistanceInMeters(row) * 3600f / getDurationInMillis(row);
+    }
+
+    /**
+     * Returns the flags of the run: the input parameters as bit mask of their ordinals and
+     * {@link RunHistory#FLAG_COMPLETED} or {@link RunHistory#FLAG_REMOVED}.
+     *
+     * @param row row
+     * @return flags
+     */
+    public int getFlags(int row) {
+        return flags.get(row) & 0xFF;
+    }
+
+    /**
+     * Returns true, if the run was completed and not only calculated.
+     *
+     * @param row row
+     * @return true, if run was completed
+     */
+    public boolean isCompleted(int row) {
+        return (getFlags(row) & RunHistory.FLAG_COMPLETED) != 0;
+    }
+
+    /**
+     * Returns true, if the row revokes a completed run with the same distance and duration.
+     *
+     * @param row row
+     * @return true, if run was removed
+     */
+    public boolean isRemoved(int row) {
+        return (getFlags(row) & RunHistory.FLAG_REMOVED) != 0;
+    }
+
+    /**
+     * Creates a run of a row, if an object is needed.
+     *
+     * @param row row
+     * @return run
+     * @throws CustomException if values of row are not greater than 0
+     */
+    public Run toRun(int row) throws CustomException {
+        return Run.createWithDistanceAndDuration(getDistance(row), getDuration(row));
+    }
+
+    // =============================================================================================
+    // scans
+    // =============================================================================================
+
+    /**
+     * Returns the number of runs between two days.
+     *
+     * @param fromDay first day (inclusive)
+     * @param toDay   last day (inclusive)
+     * @return number of runs
+     */
+    public int count(int fromDay, int toDay) {
+        final IntBuffer days = columns[RunHistory.DAY];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            final int day = days.get(row);
+            if (day >= fromDay && day <= toDay) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the total distance of the runs between two days.
+     *
+     * @param fromDay first day (inclusive)
+     * @param toDay   last day (inclusive)
+     * @return total distance in meters
+     */
+    public long totalDistanceInMeters(int fromDay, int toDay) {
+        final IntBuffer days = columns[RunHistory.DAY];
+        final IntBuffer distances = columns[RunHistory.DISTANCE];
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            final int day = days.get(row);
+            if (day >= fromDay && day <= toDay) {
+                total += distances.get(row);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the row with the fastest pace of the runs with at least the distance.
+     *
+     * @param minDistanceInMeters minimum distance in meters
+     * @return row or -1, if no run has the distance
+     */
+    public int fastestPace(int minDistanceInMeters) {
+        final IntBuffer distances = columns[RunHistory.DISTANCE];
+        final IntBuffer paces = columns[RunHistory.PACE];
+        int fastest = -1;
+        int fastestPace = Integer.MAX_VALUE;
+        for (int row = 0; row < size; row++) {
+            final int pace = paces.get(row);
+            if (pace < fastestPace && distances.get(row) >= minDistanceInMeters) {
+                fastest = row;
+                fastestPace = pace;
+            }
+        }
+        return fastest;
+    }
+}
@@ -0,0 +1,200 @@
+package com.stappert.runulator.storage;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only binary log of runs with fixed-width records. The file starts with a header (magic
+ * number, version and number of records) followed by one record per run: distance (float),
+ * duration (int), pace (int), speed (float), input mask (int) and timestamp (long), all in big
+ * endian. The whole log is loaded with one sequential read.
+ */
+public final class RunLog {
+
+    /**
+     * Magic number of the file ("RUNL").
+     */
+    static final int MAGIC = 0x52554E4C;
+
+    /**
+     * Version of the file format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 12;
+
+    /**
+     * Size of a record in bytes.
+     */
+    static final int RECORD_SIZE = 28;
+
+    /**
+     * Position of the number of records in the header.
+     */
+    private static final int COUNT_POSITION = 8;
+
+    /**
+     * File of the log.
+     */
+    private final File file;
+
+    /**
+     * Creates a log, which is stored in the file.
+     *
+     * @param file file of the log
+     */
+    public RunLog(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns true, if the log file exists.
+     *
+     * @return true, if log exists
+     */
+    public boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Loads all entries of the log. A missing log is empty, as well as a log with an incomplete
+     * header, e.g. if the app was stopped while writing the first entry. The header of such a log
+     * is written again by the next {@link #append(RunEntry)}.
+     *
+     * @return entries in order of appending
+     * @throws IOException if log can not be read or is no run log
+     */
+    public synchronized List<RunEntry> load() throws IOException {
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+        byte[] bytes = new byte[(int) file.length()];
+        try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+            input.readFully(bytes);
+        }
+        if (bytes.length < HEADER_SIZE) {
+            return new ArrayList<>();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final int count = readHeader(buffer);
+        // a record, which was written without updating the count, is ignored
+        final int records = Math.min(count, (bytes.length - HEADER_SIZE) / RECORD_SIZE);
+        List<RunEntry> entries = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            entries.add(new RunEntry(buffer.getFloat(), buffer.getInt(), buffer.getInt(),
+                    buffer.getFloat(), buffer.getInt(), buffer.getLong()));
+        }
+        return entries;
+    }
+
+    /**
+     * Appends an entry to the log.
+     *
+     * @param entry entry
+     * @throws IOException if log can not be written or is no run log
+     */
+    public synchronized void append(RunEntry entry) throws IOException {
+        try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+            int count = 0;
+            if (output.length() < HEADER_SIZE) {
+                output.write(header(0).array());
+            } else {
+                byte[] header = new byte[HEADER_SIZE];
+                output.readFully(header);
+                count = readHeader(ByteBuffer.wrap(header));
+            }
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            writeRecord(record, entry);
+            output.seek(HEADER_SIZE + (long) count * RECORD_SIZE);
+            output.write(record.array());
+            output.seek(COUNT_POSITION);
+            output.writeInt(count + 1);
+        }
+    }
+
+    /**
+     * Replaces all entries of the log, e.g. after an entry was removed. The log is written to a
+     * temporary file first, which replaces the log afterwards.
+     *
+     * @param entries entries
+     * @throws IOException if log can not be written
+     */
+    public synchronized void rewrite(Collection<RunEntry> entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + entries.size() * RECORD_SIZE);
+        buffer.put(header(entries.size()).array());
+        for (RunEntry entry : entries) {
+            writeRecord(buffer, entry);
+        }
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(temporaryFile)) {
+            output.write(buffer.array());
+            output.getFD().sync();
+        }
+        if (!temporaryFile.renameTo(file)) {
+            throw new IOException("can not replace " + file);
+        }
+    }
+
+    /**
+     * Deletes the log.
+     */
+    public synchronized void delete() {
+        file.delete();
+    }
+
+    /**
+     * Creates the header for the number of records.
+     *
+     * @param count number of records
+     * @return header
+     */
+    private static ByteBuffer header(int count) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(count);
+        return header;
+    }
+
+    /**
+     * Reads and checks the header.
+     *
+     * @param buffer buffer positioned at the header
+     * @return number of records
+     * @throws IOException if header is no header of a run log
+     */
+    private static int readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("file is no run log");
+        }
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("version " + version + " of run log is not supported");
+        }
+        return buffer.getInt();
+    }
+
+    /**
+     * Writes the record of an entry.
+     *
+     * @param buffer buffer to write into
+     * @param entry  entry
+     */
+    private static void writeRecord(ByteBuffer buffer, RunEntry entry) {
+        buffer.putFloat(entry.getDistance())
+                .putInt(entry.getDuration())
+                .putInt(entry.getPace())
+                .putFloat(entry.getSpeed())
+                .putInt(entry.getInputMask())
+                .putLong(entry.getTimestamp());
+    }
+}
@@ -0,0 +1,220 @@
+package com.stappert.runulator.storage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Buffers key-value updates and writes them in batches to a sink on a background thread. Updates
+ * of the same key are merged, so that only the last value is written. A batch is written after a
+ * short delay after the first pending update or on an explicit flush.
+ */
+public final class WriteBehindBuffer {
+
+    /**
+     * Value of a key, which has to be removed from the sink.
+     */
+    public static final Object REMOVED = new Object();
+
+    /**
+     * Returned by {@link #get(String)}, if the key has no pending value.
+     */
+    public static final Object NOT_PENDING = new Object();
+
+    /**
+     * Destination of the batches.
+     */
+    public interface Sink {
+
+        /**
+         * Writes a batch of values. A value {@link #REMOVED} removes the key.
+         *
+         * @param values values by key
+         */
+        void write(Map<String, Object> values);
+    }
+
+    /**
+     * Destination of the batches.
+     */
+    private final Sink sink;
+
+    /**
+     * Delay between the first pending update and writing the batch in milliseconds.
+     */
+    private final long delayMillis;
+
+    /**
+     * Single background thread, which writes the batches in order.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Updates, which are not written yet.
+     */
+    private Map<String, Object> pending = new LinkedHashMap<>();
+
+    /**
+     * Updates of the batch, which is written at the moment.
+     */
+    private Map<String, Object> writing = new LinkedHashMap<>();
+
+    /**
+     * True, if a delayed write is scheduled.
+     */
+    private boolean scheduled;
+
+    /**
+     * Number of pending updates including merged ones.
+     */
+    private long pendingUpdates;
+
+    /**
+     * Number of updates, which were written to the sink including merged ones.
+     */
+    private long writtenUpdates;
+
+    /**
+     * Number of batches written to the sink.
+     */
+    private long writes;
+
+    /**
+     * Writes the pending updates.
+     */
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            writePending();
+        }
+    };
+
+    /**
+     * Creates a buffer.
+     *
+     * @param sink        destination of the batches
+     * @param delayMillis delay between the first pending update and writing the batch
+     */
+    public WriteBehindBuffer(Sink sink, long delayMillis) {
+        this.sink = sink;
+        this.delayMillis = delayMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "write-behind");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Adds an update. A previous pending update of the key is replaced.
+     *
+     * @param key   key
+     * @param value value or {@link #REMOVED}
+     */
+    public synchronized void put(String key, Object value) {
+        pending.put(key, value);
+        pendingUpdates++;
+        if (!scheduled) {
+            scheduled = true;
+            executor.schedule(flushTask, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the value of the key, which is not written to the sink yet.
+     *
+     * @param key key
+     * @return pending value, {@link #REMOVED} or {@link #NOT_PENDING}
+     */
+    public synchronized Object get(String key) {
+        if (pending.containsKey(key)) {
+            return pending.get(key);
+        } else if (writing.containsKey(key)) {
+            return writing.get(key);
+        }
+        return NOT_PENDING;
+    }
+
+    /**
+     * Discards all updates, which are not written yet.
+     */
+    public synchronized void clear() {
+        pending.clear();
+        pendingUpdates = 0;
+    }
+
+    /**
+     * Writes the pending updates on the background thread without waiting.
+     */
+    public void flush() {
+        executor.execute(flushTask);
+    }
+
+    /**
+     * Writes the pending updates and waits, until they are written.
+     *
+     * @throws InterruptedException if thread is interrupted while waiting
+     */
+    public void flushAndWait() throws InterruptedException {
+        try {
+            executor.submit(flushTask).get();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Returns the number of batches written to the sink.
+     *
+     * @return number of writes
+     */
+    public synchronized long getWrites() {
+        return writes;
+    }
+
+    /**
+     * Returns the number of writes, which were saved by merging updates into batches.
+     *
+     * @return number of saved writes
+     */
+    public synchronized long getSavedWrites() {
+        return writtenUpdates - writes;
+    }
+
+    /**
+     * Writes the pending updates as one batch. Called on the background thread only.
+     */
+    private void writePending() {
+        Map<String, Object> batch;
+        synchronized (this) {
+            scheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            writing = batch;
+            pending = new LinkedHashMap<>();
+            writtenUpdates += pendingUpdates;
+            pendingUpdates = 0;
+        }
+        try {
+            sink.write(batch);
+        } catch (RuntimeException ex) {
+            Logger.getLogger(WriteBehindBuffer.class.getName()).log(Level.WARNING, "write failed", ex);
+        } finally {
+            synchronized (this) {
+                writes++;
+                writing = new LinkedHashMap<>();
+            }
+        }
+    }
+}
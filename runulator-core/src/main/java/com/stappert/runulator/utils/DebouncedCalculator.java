@@ -0,0 +1,216 @@
+package com.stappert.runulator.utils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calculates results of inputs on a background thread. An input is calculated only, if no newer
+ * input was submitted within a short delay, so that fast typing leads to one calculation. Each
+ * input gets a sequence number, a result is discarded, if a newer input was submitted or the
+ * calculation was cancelled meanwhile. Results are delivered through an executor, e.g. the main
+ * thread of the gui, which checks the sequence number once more before the result is applied.
+ *
+ * @param <I> type of input
+ * @param <R> type of result
+ */
+public final class DebouncedCalculator<I, R> {
+
+    /**
+     * Calculation of a result, called on the background thread.
+     *
+     * @param <I> type of input
+     * @param <R> type of result
+     */
+    public interface Calculation<I, R> {
+
+        /**
+         * Calculates the result of an input.
+         *
+         * @param input input
+         * @return result
+         * @throws CustomException if input is invalid
+         */
+        R calculate(I input) throws CustomException;
+    }
+
+    /**
+     * Receiver of the results, called by the result executor.
+     *
+     * @param <R> type of result
+     */
+    public interface Listener<R> {
+
+        /**
+         * Applies the result of the latest input.
+         *
+         * @param result result
+         */
+        void onResult(R result);
+
+        /**
+         * Handles the error of the latest input. An unexpected runtime exception of the
+         * calculation is delivered as cause of a custom exception.
+         *
+         * @param ex error
+         */
+        void onError(CustomException ex);
+    }
+
+    /**
+     * Calculation of the results.
+     */
+    private final Calculation<I, R> calculation;
+
+    /**
+     * Receiver of the results.
+     */
+    private final Listener<R> listener;
+
+    /**
+     * Executor, which delivers the results to the listener.
+     */
+    private final Executor resultExecutor;
+
+    /**
+     * Delay between the last input and its calculation in milliseconds.
+     */
+    private final long delayMillis;
+
+    /**
+     * Single background thread, which calculates the results in order.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Sequence number of the latest input or cancellation.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Scheduled calculation, which has not started yet.
+     */
+    private ScheduledFuture<?> scheduled;
+
+    /**
+     * Creates a calculator.
+     *
+     * @param calculation    calculation of the results
+     * @param listener       receiver of the results
+     * @param resultExecutor executor, which delivers the results to the listener
+     * @param delayMillis    delay between the last input and its calculation
+     */
+    public DebouncedCalculator(Calculation<I, R> calculation, Listener<R> listener,
+                               Executor resultExecutor, long delayMillis) {
+        this.calculation = calculation;
+        this.listener = listener;
+        this.resultExecutor = resultExecutor;
+        this.delayMillis = delayMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "run-calculation");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Submits an input. A pending input, which was not calculated yet, is replaced and results of
+     * previous inputs are discarded.
+     *
+     * @param input input
+     * @return sequence number of the input
+     */
+    public synchronized long submit(final I input) {
+        final long number = sequence.incrementAndGet();
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                calculate(number, input);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        return number;
+    }
+
+    /**
+     * Discards the pending input and the results of all submitted inputs.
+     */
+    public synchronized void cancel() {
+        sequence.incrementAndGet();
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+    }
+
+    /**
+     * Returns true, if the sequence number belongs to the latest input.
+     *
+     * @param number sequence number
+     * @return true, if no newer input was submitted and calculation was not cancelled
+     */
+    public boolean isLatest(long number) {
+        return sequence.get() == number;
+    }
+
+    /**
+     * Cancels all inputs and stops the background thread.
+     */
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Calculates an input and delivers its result, if it is still the latest input. Called on the
+     * background thread only.
+     *
+     * @param number sequence number of input
+     * @param input  input
+     */
+    private void calculate(final long number, I input) {
+        if (!isLatest(number)) {
+            return;
+        }
+        R result = null;
+        CustomException error = null;
+        try {
+            result = calculation.calculate(input);
+        } catch (CustomException ex) {
+            error = ex;
+        } catch (RuntimeException ex) {
+            // otherwise swallowed by the scheduled future, the gui would keep the stale result
+            error = new CustomException("error",
+                    ex.getMessage() != null ? ex.getMessage() : ex.toString());
+            error.initCause(ex);
+        }
+        if (!isLatest(number)) {
+            return;
+        }
+        final R finalResult = result;
+        final CustomException finalError = error;
+        resultExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                // a newer input may have been submitted, while the result was posted
+                if (!isLatest(number)) {
+                    return;
+                }
+                if (finalError != null) {
+                    listener.onError(finalError);
+                } else {
+                    listener.onResult(finalResult);
+                }
+            }
+        });
+    }
+}
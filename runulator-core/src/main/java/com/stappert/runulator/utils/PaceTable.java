@@ -0,0 +1,161 @@
+package com.stappert.runulator.utils;
+
+/**
+ * Precomputed paces and speeds for every whole pace second of realistic runs, from 2:00 to 20:00
+ * per km. The texts are the same as of {@link Run#getPace(Unit)} and {@link Run#getSpeed(Unit)},
+ * so that showing a pace or the speed of a pace is an array lookup instead of a conversion and
+ * formatting. Paces outside of the range are converted and formatted as before. A table is
+ * immutable and belongs to one pace and one speed unit, it has to be created again, if a unit
+ * changes. The formatting does not depend on the locale.
+ */
+public final class PaceTable {
+
+    /**
+     * Smallest pace in the table in seconds per km.
+     */
+    public static final int MIN_PACE = 2 * Unit.MINUTE_IN_SECONDS;
+
+    /**
+     * Largest pace in the table in seconds per km.
+     */
+    public static final int MAX_PACE = 20 * Unit.MINUTE_IN_SECONDS;
+
+    /**
+     * Unit of the pace texts.
+     */
+    private final Unit paceUnit;
+
+    /**
+     * Unit of the speeds and speed texts.
+     */
+    private final Unit speedUnit;
+
+    /**
+     * Speeds of the paces in km/h, as calculated by {@link RunSolver}.
+     */
+    private final float[] speedsInKmPerHour = new float[MAX_PACE - MIN_PACE + 1];
+
+    /**
+     * Speeds of the paces in the speed unit.
+     */
+    private final float[] speeds = new float[MAX_PACE - MIN_PACE + 1];
+
+    /**
+     * Formatted paces in the pace unit.
+     */
+    private final String[] paceTexts = new String[MAX_PACE - MIN_PACE + 1];
+
+    /**
+     * Formatted speeds of the paces in the speed unit.
+     */
+    private final String[] speedTexts = new String[MAX_PACE - MIN_PACE + 1];
+
+    /**
+     * Creates the table for the given units.
+     *
+     * @param paceUnit  unit of paces, min/km or min/mi
+     * @param speedUnit unit of speeds, km/h or mph
+     * @throws CustomException if units are not a pace and a speed unit
+     */
+    public PaceTable(Unit paceUnit, Unit speedUnit) throws CustomException {
+        if (!Unit.isConvertible(Unit.MIN_KM, paceUnit) || !Unit.isConvertible(Unit.KM_H, speedUnit)) {
+            throw new CustomException("error", "no pace table for " + paceUnit + " and " + speedUnit);
+        }
+        this.paceUnit = paceUnit;
+        this.speedUnit = speedUnit;
+        final StringBuilder sink = new StringBuilder();
+        for (int pace = MIN_PACE; pace <= MAX_PACE; pace++) {
+            final int index = pace - MIN_PACE;
+            speedsInKmPerHour[index] = RunSolver.speedOfPace(pace);
+            speeds[index] = speedUnit.kmPerHourTo(speedsInKmPerHour[index]);
+            sink.setLength(0);
+            paceTexts[index] = RunFormatter.appendPace(sink, Math.round(paceUnit.minPerKmTo(pace))).toString();
+            sink.setLength(0);
+            speedTexts[index] = RunFormatter.appendSpeed(sink, speeds[index]).toString();
+        }
+    }
+
+    /**
+     * Returns the unit of the pace texts.
+     *
+     * @return pace unit
+     */
+    public Unit getPaceUnit() {
+        return paceUnit;
+    }
+
+    /**
+     * Returns the unit of the speeds.
+     *
+     * @return speed unit
+     */
+    public Unit getSpeedUnit() {
+        return speedUnit;
+    }
+
+    /**
+     * Returns true, if the units of the table are the given ones.
+     *
+     * @param paceUnit  pace unit
+     * @param speedUnit speed unit
+     * @return true, if table can be used for the units
+     */
+    public boolean hasUnits(Unit paceUnit, Unit speedUnit) {
+        return this.paceUnit == paceUnit && this.speedUnit == speedUnit;
+    }
+
+    /**
+     * Returns true, if the pace is in the table.
+     *
+     * @param pace pace in seconds per km
+     * @return true, if between {@link #MIN_PACE} and {@link #MAX_PACE}
+     */
+    public static boolean contains(int pace) {
+        return pace >= MIN_PACE && pace <= MAX_PACE;
+    }
+
+    /**
+     * Returns the speed of a pace in the speed unit.
+     *
+     * @param pace pace in seconds per km, greater than 0
+     * @return speed
+     * @throws CustomException if pace is not greater than 0
+     */
+    public float getSpeed(int pace) throws CustomException {
+        if (contains(pace)) {
+            return speeds[pace - MIN_PACE];
+        } else if (pace <= 0) {
+            throw new CustomException("error", "pace " + pace + " must be greater than 0");
+        }
+        return speedUnit.kmPerHourTo(RunSolver.speedOfPace(pace));
+    }
+
+    /**
+     * Returns the pace of the run in the pace unit, see {@link Run#getPace(Unit)}.
+     *
+     * @param run run
+     * @return formatted pace
+     * @throws CustomException if pace can not be converted
+     */
+    public String formatPace(Run run) throws CustomException {
+        final int pace = run.getPaceAsNumber(Unit.MIN_KM);
+        return contains(pace) ? paceTexts[pace - MIN_PACE] : run.getPace(paceUnit);
+    }
+
+    /**
+     * Returns the speed of the run in the speed unit, see {@link Run#getSpeed(Unit)}. The table is
+     * used only, if the speed is the one of the pace, e.g. if the run was created with a pace.
+     *
+     * @param run run
+     * @return formatted speed
+     * @throws CustomException if speed can not be converted
+     */
+    public String formatSpeed(Run run) throws CustomException {
+        final int pace = run.getPaceAsNumber(Unit.MIN_KM);
+        if (contains(pace) && Float.floatToIntBits(run.getSpeedAsNumber(Unit.KM_H))
+                == Float.floatToIntBits(speedsInKmPerHour[pace - MIN_PACE])) {
+            return speedTexts[pace - MIN_PACE];
+        }
+        return run.getSpeed(speedUnit);
+    }
+}
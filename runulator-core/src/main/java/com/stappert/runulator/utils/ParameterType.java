@@ -0,0 +1,8 @@
+package com.stappert.runulator.utils;
+
+/**
+ * Defines all parameters of a run and of the runner.
+ */
+public enum ParameterType {
+    DISTANCE, DURATION, PACE, SPEED, WEIGHT, HEIGHT
+}
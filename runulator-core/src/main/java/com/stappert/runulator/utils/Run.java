@@ -1,17 +1,12 @@
 package com.stappert.runulator.utils;
 
-import android.util.Log;
-
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
+import java.util.logging.Logger;
 
 /**
  * Defines a run. Contains static functions, to create and manage runs. (Companion object)
@@ -31,6 +26,11 @@ public class Run {
      */
     public final static float MARATHON = 42.195f;
 
+    /**
+     * Initial capacity of the builder for a run as json string, which fits all four parameters.
+     */
+    private final static int JSON_CAPACITY = 80;
+
     // =============================================================================================
     // class variables
     // =============================================================================================
@@ -70,6 +70,15 @@ public class Run {
         this.speed = speed;
     }
 
+    /**
+     * Creates a run from a calculated result.
+     *
+     * @param result calculated result
+     */
+    private Run(RunResult result) {
+        this(result.getDistance(), result.getDuration(), result.getPace(), result.getSpeed());
+    }
+
     // =============================================================================================
     // getter
     // =============================================================================================
@@ -82,9 +91,7 @@ public class Run {
      * @throws CustomException if conversion to desired unit is not possible
      */
     public String getDistance(Unit unit) throws CustomException {
-        float parsedDistance = getDistanceAsNumber(unit);
-        int noOfDecimalPlaces = Float.toString(parsedDistance).split("\\.")[1].length();
-        return String.format(Locale.ENGLISH, "%." + (noOfDecimalPlaces < 4 ? noOfDecimalPlaces : 4) + "f", parsedDistance);
+        return RunFormatter.appendDistance(new StringBuilder(12), getDistanceAsNumber(unit)).toString();
     }
 
     /**
@@ -125,9 +132,7 @@ public class Run {
      * @throws CustomException if conversion to desired unit is not possible
      */
     public String getPace(Unit unit) throws CustomException {
-        String paceString = Unit.formatSeconds(getPaceAsNumber(unit));
-        return paceString.length() == 1 ? "00:0" + paceString
-                : paceString.length() == 2 ? "00:" + paceString : paceString;
+        return RunFormatter.appendPace(new StringBuilder(8), getPaceAsNumber(unit)).toString();
     }
 
     /**
@@ -138,7 +143,7 @@ public class Run {
      * @throws CustomException if conversion to desired unit is not possible
      */
     public int getPaceAsNumber(Unit unit) throws CustomException {
-        return (int) Math.round(unit.minPerKmTo(pace));
+        return Math.round(unit.minPerKmTo(pace));
     }
 
     /**
@@ -149,9 +154,7 @@ public class Run {
      * @throws CustomException if conversion to desired unit is not possible
      */
     public String getSpeed(Unit unit) throws CustomException {
-        float parsedSpeed = getSpeedAsNumber(unit);
-        int noOfDecimalPlaces = Float.toString(parsedSpeed).split("\\.")[1].length();
-        return String.format(Locale.ENGLISH, "%." + (noOfDecimalPlaces <= 1 ? 1 : 2) + "f", parsedSpeed);
+        return RunFormatter.appendSpeed(new StringBuilder(8), getSpeedAsNumber(unit)).toString();
     }
 
 
@@ -256,10 +259,8 @@ public class Run {
      * @return run as json string
      */
     public String toJson() {
-        return "{" + "\'" + ParameterType.DISTANCE.name() + "\':" + distance + ","
-                + "\'" + ParameterType.DURATION.name() + "\':" + duration + ","
-                + "\'" + ParameterType.PACE.name() + "\':" + pace + ","
-                + "\'" + ParameterType.SPEED.name() + "\':" + speed + "}";
+        return RunJsonCodec.write(new StringBuilder(JSON_CAPACITY), distance, duration, pace, speed)
+                .toString();
     }
     // =============================================================================================
     // create runs depending on parameters
@@ -275,12 +276,9 @@ public class Run {
      */
     public static Run createWithDistanceAndDuration(float distance, int duration)
             throws CustomException {
-        if (distance <= 0 || duration <= 0) {
-            throw new CustomException("Error", "values must be greater than 0");
-        }
-        int pace = Math.round(duration / distance);
-        float speed = distance * Unit.HOUR_IN_SECONDS / duration;
-        return new Run(distance, duration, pace, speed);
+        RunResult result = new RunResult();
+        checkStatus(RunSolver.solveWithDistanceAndDuration(distance, duration, result));
+        return new Run(result);
     }
 
     /**
@@ -296,8 +294,8 @@ public class Run {
         if (distance <= 0 || duration <= 0) {
             throw new CustomException("Error", "values must be greater than 0");
         }
-        return "{" + "\'" + ParameterType.DISTANCE.name() + "\':" + distance + ","
-                + "\'" + ParameterType.DURATION.name() + "\':" + duration + "}";
+        return RunJsonCodec.write(new StringBuilder(JSON_CAPACITY),
+                ParameterType.DISTANCE, distance, ParameterType.DURATION, duration).toString();
     }
 
     /**
@@ -310,12 +308,9 @@ public class Run {
      */
     public static Run createWithDistanceAndPace(float distance, int pace)
             throws CustomException {
-        if (distance <= 0 || pace <= 0) {
-            throw new CustomException("Error", "values must be greater than 0");
-        }
-        int duration = Math.round(distance * pace);
-        float speed = (float) Unit.HOUR_IN_SECONDS / pace;
-        return new Run(distance, duration, pace, speed);
+        RunResult result = new RunResult();
+        checkStatus(RunSolver.solveWithDistanceAndPace(distance, pace, result));
+        return new Run(result);
     }
 
     /**
@@ -331,8 +326,8 @@ public class Run {
         if (distance <= 0 || pace <= 0) {
             throw new CustomException("Error", "values must be greater than 0");
         }
-        return "{" + "\'" + ParameterType.DISTANCE.name() + "\':" + distance + ","
-                + "\'" + ParameterType.PACE.name() + "\':" + pace + "}";
+        return RunJsonCodec.write(new StringBuilder(JSON_CAPACITY),
+                ParameterType.DISTANCE, distance, ParameterType.PACE, pace).toString();
     }
 
     /**
@@ -345,12 +340,9 @@ public class Run {
      */
     public static Run createWithDistanceAndSpeed(float distance, float speed)
             throws CustomException {
-        if (distance <= 0 || speed <= 0) {
-            throw new CustomException("Error", "values must be greater than 0");
-        }
-        int duration = Math.round(distance / speed * Unit.HOUR_IN_SECONDS);
-        int pace = Math.round(Unit.HOUR_IN_SECONDS / speed);
-        return new Run(distance, duration, pace, speed);
+        RunResult result = new RunResult();
+        checkStatus(RunSolver.solveWithDistanceAndSpeed(distance, speed, result));
+        return new Run(result);
     }
 
     /**
@@ -366,8 +358,8 @@ public class Run {
         if (distance <= 0 || speed <= 0) {
             throw new CustomException("Error", "values must be greater than 0");
         }
-        return "{" + "\'" + ParameterType.DISTANCE.name() + "\':" + distance + ","
-                + "\'" + ParameterType.SPEED.name() + "\':" + speed + "}";
+        return RunJsonCodec.write(new StringBuilder(JSON_CAPACITY),
+                ParameterType.DISTANCE, distance, ParameterType.SPEED, speed).toString();
     }
 
     /**
@@ -380,12 +372,9 @@ public class Run {
      */
     public static Run createWithDurationAndPace(int duration, int pace)
             throws CustomException {
-        if (duration <= 0 || pace <= 0) {
-            throw new CustomException("Error", "values must be greater than 0");
-        }
-        float distance = 1.0f * duration / pace;
-        float speed = (float) Unit.HOUR_IN_SECONDS / pace;
-        return new Run(distance, duration, pace, speed);
+        RunResult result = new RunResult();
+        checkStatus(RunSolver.solveWithDurationAndPace(duration, pace, result));
+        return new Run(result);
     }
 
     /**
@@ -401,8 +390,8 @@ public class Run {
         if (duration <= 0 || pace <= 0) {
             throw new CustomException("Error", "values must be greater than 0");
         }
-        return "{" + "\'" + ParameterType.DURATION.name() + "\':" + duration + ","
-                + "\'" + ParameterType.PACE.name() + "\':" + pace + "}";
+        return RunJsonCodec.write(new StringBuilder(JSON_CAPACITY),
+                ParameterType.DURATION, duration, ParameterType.PACE, pace).toString();
     }
 
     /**
@@ -415,12 +404,9 @@ public class Run {
      */
     public static Run createWithDurationAndSpeed(int duration, float speed)
             throws CustomException {
-        if (duration <= 0 || speed <= 0) {
-            throw new CustomException("Error", "values must be greater than 0");
-        }
-        float distance = duration * speed / Unit.HOUR_IN_SECONDS;
-        int pace = Math.round(Unit.HOUR_IN_SECONDS / speed);
-        return new Run(distance, duration, pace, speed);
+        RunResult result = new RunResult();
+        checkStatus(RunSolver.solveWithDurationAndSpeed(duration, speed, result));
+        return new Run(result);
     }
 
     /**
@@ -436,8 +422,18 @@ public class Run {
         if (duration <= 0 || speed <= 0) {
             throw new CustomException("Error", "values must be greater than 0");
         }
-        return "{" + "\'" + ParameterType.DURATION.name() + "\':" + duration + ","
-                + "\'" + ParameterType.SPEED.name() + "\':" + speed + "}";
+        return RunJsonCodec.write(new StringBuilder(JSON_CAPACITY),
+                ParameterType.DURATION, duration, ParameterType.SPEED, speed).toString();
+    }
+
+    /**
+     * Creates a run from a result, which was calculated successfully by the {@link RunSolver}.
+     *
+     * @param result calculated result
+     * @return run
+     */
+    public static Run createWithResult(RunResult result) {
+        return new Run(result);
     }
 
     /**
@@ -452,35 +448,39 @@ public class Run {
             for (String runJsonString : runsJson) {
                 runs.add(jsonToRun(runJsonString));
             }
-        } catch (JSONException | CustomException ex) {
-            Log.e("Error", ex.getMessage());
+        } catch (CustomException ex) {
+            Logger.getLogger(Run.class.getName()).warning(ex.getMessage());
         }
         return runs;
     }
 
     /**
-     * Converts a list of run as json strings to run objects.
+     * Converts a run as json string with single or double quotes to a run object.
      *
      * @param runJsonString run as json string
-     * @return list of run objects
-     */
-    public static Run jsonToRun(String runJsonString) throws JSONException, CustomException {
-        JSONObject runJson = new JSONObject(runJsonString);
-        if (runJson.has(ParameterType.DISTANCE.name())) {
-            final float distance = (float) runJson.getDouble(ParameterType.DISTANCE.name());
-            if (runJson.has(ParameterType.DURATION.name())) {
-                return Run.createWithDistanceAndDuration(distance, runJson.getInt(ParameterType.DURATION.name()));
-            } else if (runJson.has(ParameterType.PACE.name())) {
-                return Run.createWithDistanceAndPace(distance, runJson.getInt(ParameterType.PACE.name()));
-            } else if (runJson.has(ParameterType.SPEED.name())) {
-                return Run.createWithDistanceAndSpeed(distance, (float) runJson.getDouble(ParameterType.SPEED.name()));
+     * @return run object or null, if json string does not contain two supported parameters
+     * @throws CustomException if json string can not be parsed or parameters are not greater than 0
+     */
+    public static Run jsonToRun(String runJsonString) throws CustomException {
+        final float[] values = new float[RunJsonCodec.VALUE_COUNT];
+        final int mask = RunJsonCodec.read(runJsonString, values);
+        final int distance = ParameterType.DISTANCE.ordinal();
+        final int duration = ParameterType.DURATION.ordinal();
+        final int pace = ParameterType.PACE.ordinal();
+        final int speed = ParameterType.SPEED.ordinal();
+        if ((mask & 1 << distance) != 0) {
+            if ((mask & 1 << duration) != 0) {
+                return Run.createWithDistanceAndDuration(values[distance], (int) values[duration]);
+            } else if ((mask & 1 << pace) != 0) {
+                return Run.createWithDistanceAndPace(values[distance], (int) values[pace]);
+            } else if ((mask & 1 << speed) != 0) {
+                return Run.createWithDistanceAndSpeed(values[distance], values[speed]);
             }
-        } else if (runJson.has(ParameterType.DURATION.name())) {
-            final int duration = runJson.getInt(ParameterType.DURATION.name());
-            if (runJson.has(ParameterType.PACE.name())) {
-                return Run.createWithDurationAndPace(duration, runJson.getInt(ParameterType.PACE.name()));
-            } else if (runJson.has(ParameterType.SPEED.name())) {
-                return Run.createWithDurationAndSpeed(duration, (float) runJson.getDouble(ParameterType.SPEED.name()));
+        } else if ((mask & 1 << duration) != 0) {
+            if ((mask & 1 << pace) != 0) {
+                return Run.createWithDurationAndPace((int) values[duration], (int) values[pace]);
+            } else if ((mask & 1 << speed) != 0) {
+                return Run.createWithDurationAndSpeed((int) values[duration], values[speed]);
             }
         }
         return null;
@@ -514,6 +514,20 @@ public class Run {
     // utility functions
     // =============================================================================================
 
+    /**
+     * Checks the status of a run calculation.
+     *
+     * @param status status code of the run solver
+     * @throws CustomException if run could not be calculated
+     */
+    private static void checkStatus(int status) throws CustomException {
+        if (status == RunSolver.INVALID_VALUE) {
+            throw new CustomException("Error", "values must be greater than 0");
+        } else if (status != RunSolver.OK) {
+            throw new CustomException("Error", "run parameters are not supported");
+        }
+    }
+
     /**
      * Parses string value (input) to float (distance or speed).
      *
@@ -530,27 +544,19 @@ public class Run {
     }
 
     /**
-     * Parses string value (input) to float. Minimal format is ss, middle format is mm:ss,
-     * full format is hh:mm:ss (h = hour, m = minute, s = second).
+     * Parses string value (input) to seconds. Minimal format is ss, middle format is mm:ss,
+     * full format is hh:mm:ss (h = hour, m = minute, s = second), see {@link TimeParser}.
      *
      * @param time user input
-     * @return distance or speed
-     * @throws Exception if input cannot convert to number
+     * @return duration or pace in seconds
+     * @throws CustomException if input cannot convert to time
      */
-    public static int parseTimeInSeconds(String time) throws CustomException {
-        time = time == null || time.isEmpty() ? "0" : time;
-        try {
-            int duration = 0;
-            String[] timeSegments = time.split(":");
-            int maxTimeSegments = timeSegments.length >= 3 ? 2 : timeSegments.length - 1; // max until hours
-            for (int i = maxTimeSegments; i >= 0; i--) {
-                // seconds timeSegments[0] * 60^0 + minutes + timeSegments[1] * 60^1 + ...
-                duration += Integer.parseInt(timeSegments[i]) * Math.pow(60, maxTimeSegments - i);
-            }
-            return duration;
-        } catch (NumberFormatException ex) {
+    public static int parseTimeInSeconds(CharSequence time) throws CustomException {
+        final int seconds = TimeParser.parseSeconds(time);
+        if (TimeParser.isError(seconds)) {
             throw new CustomException("Error", "Can not parse time.");
         }
+        return seconds;
     }
 
     /**
@@ -0,0 +1,125 @@
+package com.stappert.runulator.utils;
+
+import java.util.BitSet;
+
+/**
+ * Batch of runs stored as parallel primitive arrays (one array per run parameter). The two input
+ * parameters are filled by the caller, the remaining two are calculated by the
+ * {@link RunBatchSolver}. Whether a row could be calculated is tracked in a bitset of 64 rows per
+ * word.
+ */
+public final class RunBatch {
+
+    /**
+     * Distances in km.
+     */
+    final float[] distance;
+
+    /**
+     * Durations in seconds.
+     */
+    final int[] duration;
+
+    /**
+     * Paces in seconds per km.
+     */
+    final int[] pace;
+
+    /**
+     * Speeds in km/h.
+     */
+    final float[] speed;
+
+    /**
+     * Valid rows, bit i of word i / 64 is set, if row i was calculated.
+     */
+    final long[] valid;
+
+    /**
+     * Number of rows.
+     */
+    private final int size;
+
+    /**
+     * Creates a batch with the given number of rows.
+     *
+     * @param size number of rows
+     */
+    public RunBatch(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + size);
+        }
+        this.size = size;
+        this.distance = new float[size];
+        this.duration = new int[size];
+        this.pace = new int[size];
+        this.speed = new float[size];
+        this.valid = new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the distances in km. The array is not copied, so it can be used to fill the batch.
+     *
+     * @return distances
+     */
+    public float[] getDistances() {
+        return distance;
+    }
+
+    /**
+     * Returns the durations in seconds. The array is not copied, so it can be used to fill the
+     * batch.
+     *
+     * @return durations
+     */
+    public int[] getDurations() {
+        return duration;
+    }
+
+    /**
+     * Returns the paces in seconds per km. The array is not copied, so it can be used to fill the
+     * batch.
+     *
+     * @return paces
+     */
+    public int[] getPaces() {
+        return pace;
+    }
+
+    /**
+     * Returns the speeds in km/h. The array is not copied, so it can be used to fill the batch.
+     *
+     * @return speeds
+     */
+    public float[] getSpeeds() {
+        return speed;
+    }
+
+    /**
+     * Returns true, if the row was calculated by the last solve.
+     *
+     * @param row row
+     * @return true, if row is valid
+     */
+    public boolean isValid(int row) {
+        return (valid[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Returns the valid rows of the last solve as copy.
+     *
+     * @return valid rows
+     */
+    public BitSet getValidRows() {
+        return BitSet.valueOf(valid);
+    }
+}
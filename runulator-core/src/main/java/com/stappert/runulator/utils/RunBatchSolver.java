@@ -0,0 +1,196 @@
+package com.stappert.runulator.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calculates a whole {@link RunBatch} with the formulas of the {@link RunSolver}, so that each row
+ * is bit-identical to the corresponding {@link Run} factory. Large batches are split on 64 row
+ * boundaries and calculated in parallel, so that no two tasks write the same validity word.
+ */
+public final class RunBatchSolver {
+
+    /**
+     * Minimum number of rows of a task before it is split. Must be a multiple of 64.
+     */
+    static final int SPLIT_THRESHOLD = 8192;
+
+    // input modes
+    private static final int DISTANCE_AND_DURATION = 0;
+    private static final int DISTANCE_AND_PACE = 1;
+    private static final int DISTANCE_AND_SPEED = 2;
+    private static final int DURATION_AND_PACE = 3;
+    private static final int DURATION_AND_SPEED = 4;
+
+    /**
+     * Only static functions.
+     */
+    private RunBatchSolver() {
+    }
+
+    /**
+     * Calculates all rows of the batch from the two given input parameters in the common pool.
+     *
+     * @param parameter1 first input parameter
+     * @param parameter2 second input parameter
+     * @param batch      batch filled with the input values
+     * @return number of valid rows
+     * @throws CustomException if combination of parameters is not supported
+     */
+    public static int solve(ParameterType parameter1, ParameterType parameter2, RunBatch batch)
+            throws CustomException {
+        return solve(parameter1, parameter2, batch, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calculates all rows of the batch from the two given input parameters.
+     *
+     * @param parameter1 first input parameter
+     * @param parameter2 second input parameter
+     * @param batch      batch filled with the input values
+     * @param pool       pool to calculate large batches in
+     * @return number of valid rows
+     * @throws CustomException if combination of parameters is not supported
+     */
+    public static int solve(ParameterType parameter1, ParameterType parameter2, RunBatch batch,
+                            ForkJoinPool pool) throws CustomException {
+        int mode = modeOf(parameter1, parameter2);
+        if (batch.size() <= SPLIT_THRESHOLD) {
+            return solveRange(mode, batch, 0, batch.size());
+        }
+        return pool.invoke(new SolveTask(mode, batch, 0, batch.size()));
+    }
+
+    /**
+     * Returns the input mode for the combination of parameters.
+     *
+     * @param parameter1 first input parameter
+     * @param parameter2 second input parameter
+     * @return input mode
+     * @throws CustomException if combination of parameters is not supported
+     */
+    private static int modeOf(ParameterType parameter1, ParameterType parameter2)
+            throws CustomException {
+        if (parameter1 != null && parameter2 != null
+                && parameter1.ordinal() > parameter2.ordinal()) {
+            return modeOf(parameter2, parameter1);
+        }
+        if (ParameterType.DISTANCE.equals(parameter1)) {
+            if (ParameterType.DURATION.equals(parameter2)) {
+                return DISTANCE_AND_DURATION;
+            } else if (ParameterType.PACE.equals(parameter2)) {
+                return DISTANCE_AND_PACE;
+            } else if (ParameterType.SPEED.equals(parameter2)) {
+                return DISTANCE_AND_SPEED;
+            }
+        } else if (ParameterType.DURATION.equals(parameter1)) {
+            if (ParameterType.PACE.equals(parameter2)) {
+                return DURATION_AND_PACE;
+            } else if (ParameterType.SPEED.equals(parameter2)) {
+                return DURATION_AND_SPEED;
+            }
+        }
+        throw new CustomException("Error", "run parameters are not supported");
+    }
+
+    /**
+     * Calculates the rows from (inclusive) to (exclusive). From must be a multiple of 64.
+     *
+     * @param mode  input mode
+     * @param batch batch
+     * @param from  first row
+     * @param to    last row (exclusive)
+     * @return number of valid rows
+     */
+    private static int solveRange(int mode, RunBatch batch, int from, int to) {
+        final float[] distance = batch.distance;
+        final int[] duration = batch.duration;
+        final int[] pace = batch.pace;
+        final float[] speed = batch.speed;
+        final long[] valid = batch.valid;
+        int count = 0;
+        for (int word = from >>> 6; word << 6 < to; word++) {
+            int start = word << 6;
+            int end = Math.min(start + 64, to);
+            long bits = 0;
+            for (int i = start; i < end; i++) {
+                boolean ok;
+                switch (mode) {
+                    case DISTANCE_AND_DURATION:
+                        ok = distance[i] > 0 && duration[i] > 0;
+                        if (ok) {
+                            pace[i] = RunSolver.paceOf(distance[i], duration[i]);
+                            speed[i] = RunSolver.speedOf(distance[i], duration[i]);
+                        }
+                        break;
+                    case DISTANCE_AND_PACE:
+                        ok = distance[i] > 0 && pace[i] > 0;
+                        if (ok) {
+                            duration[i] = RunSolver.durationOfPace(distance[i], pace[i]);
+                            speed[i] = RunSolver.speedOfPace(pace[i]);
+                        }
+                        break;
+                    case DISTANCE_AND_SPEED:
+                        ok = distance[i] > 0 && speed[i] > 0;
+                        if (ok) {
+                            duration[i] = RunSolver.durationOfSpeed(distance[i], speed[i]);
+                            pace[i] = RunSolver.paceOfSpeed(speed[i]);
+                        }
+                        break;
+                    case DURATION_AND_PACE:
+                        ok = duration[i] > 0 && pace[i] > 0;
+                        if (ok) {
+                            distance[i] = RunSolver.distanceOfPace(duration[i], pace[i]);
+                            speed[i] = RunSolver.speedOfPace(pace[i]);
+                        }
+                        break;
+                    default:
+                        ok = duration[i] > 0 && speed[i] > 0;
+                        if (ok) {
+                            distance[i] = RunSolver.distanceOfSpeed(duration[i], speed[i]);
+                            pace[i] = RunSolver.paceOfSpeed(speed[i]);
+                        }
+                        break;
+                }
+                if (ok) {
+                    bits |= 1L << i;
+                }
+            }
+            valid[word] = bits;
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    /**
+     * Task, which calculates a range of rows and splits it on a 64 row boundary, if it is too big.
+     */
+    private static final class SolveTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int mode;
+        private final RunBatch batch;
+        private final int from;
+        private final int to;
+
+        SolveTask(int mode, RunBatch batch, int from, int to) {
+            this.mode = mode;
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return solveRange(mode, batch, from, to);
+            }
+            int middle = (from + (to - from) / 2) & ~63;
+            SolveTask left = new SolveTask(mode, batch, from, middle);
+            left.fork();
+            int right = new SolveTask(mode, batch, middle, to).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package com.stappert.runulator.utils;
+
+/**
+ * State of the run calculator: the selected input parameters, the entered values and the
+ * calculated results. Each event updates the outputs, which are shown in the gui, and remembers
+ * which of them have changed, so that the gui only has to update the views of changed outputs.
+ */
+public final class RunCalculatorState {
+
+    /**
+     * Outputs of the state, which are shown in the gui.
+     */
+    public enum Output {
+        DISTANCE_SELECTED, DURATION_SELECTED, PACE_SELECTED, SPEED_SELECTED,
+        DISTANCE_ENABLED, DURATION_ENABLED, PACE_ENABLED, SPEED_ENABLED,
+        INFO, INPUT_PARAMETER_1, INPUT_TEXT_1, INPUT_PARAMETER_2, INPUT_TEXT_2,
+        RESULT_ENABLED, RESULT_PARAMETER_1, RESULT_PARAMETER_2, RESULT_VALUE_1, RESULT_VALUE_2,
+        CALORIES, CADENCE_COUNT, RUN
+    }
+
+    /**
+     * Information for the user about the input.
+     */
+    public enum Info {
+        NONE, SELECT_TWO, SELECT_ONE, ENTER_VALUES, VALUES_GREATER_ZERO
+    }
+
+    /**
+     * Text of a result, which is not calculated.
+     */
+    public static final String NO_VALUE = "-";
+
+    /**
+     * All outputs.
+     */
+    private static final Output[] OUTPUTS = Output.values();
+
+    /**
+     * Changes, if all outputs have changed.
+     */
+    private static final long ALL_CHANGED = (1L << OUTPUTS.length) - 1;
+
+    /**
+     * Values of the outputs, indexed by ordinal.
+     */
+    private final Object[] values = new Object[OUTPUTS.length];
+
+    /**
+     * Outputs, which have changed since the last call of {@link #takeChanges()}, as bit mask of
+     * their ordinals.
+     */
+    private long changes;
+
+    /**
+     * Type for run parameter 1, which can be distance or duration.
+     */
+    private ParameterType inputParameter1;
+
+    /**
+     * Type for run parameter 2, which can be duration, pace or speed.
+     */
+    private ParameterType inputParameter2;
+
+    /**
+     * Creates a state without selected input parameters. All outputs are changed.
+     */
+    public RunCalculatorState() {
+        setValue(Output.INPUT_TEXT_1, "");
+        setValue(Output.INPUT_TEXT_2, "");
+        updateSelection();
+        changes = ALL_CHANGED;
+    }
+
+    // =============================================================================================
+    // events
+    // =============================================================================================
+
+    /**
+     * Selects or deselects a run parameter, e.g. if its pill button was clicked.
+     *
+     * @param parameterType parameter type
+     */
+    public void select(ParameterType parameterType) {
+        if (ParameterType.DISTANCE.equals(parameterType)) {
+            applyRunParameter1(ParameterType.DISTANCE);
+        } else if (ParameterType.DURATION.equals(parameterType)) {
+            if (ParameterType.DISTANCE.equals(inputParameter1)) {
+                applyRunParameter2(ParameterType.DURATION);
+            } else {
+                applyRunParameter1(ParameterType.DURATION);
+            }
+        } else if (ParameterType.PACE.equals(parameterType) || ParameterType.SPEED.equals(parameterType)) {
+            applyRunParameter2(parameterType);
+        }
+        updateSelection();
+    }
+
+    /**
+     * Sets both input parameters and their texts, e.g. if a run was loaded.
+     *
+     * @param parameter1 type for run parameter 1 or null
+     * @param text1      text of run parameter 1
+     * @param parameter2 type for run parameter 2 or null
+     * @param text2      text of run parameter 2
+     */
+    public void setInput(ParameterType parameter1, String text1, ParameterType parameter2, String text2) {
+        inputParameter1 = parameter1;
+        inputParameter2 = parameter2;
+        setValue(Output.INPUT_TEXT_1, text1);
+        setValue(Output.INPUT_TEXT_2, text2);
+        updateSelection();
+    }
+
+    /**
+     * Sets the text of run parameter 1, which was entered by the user. The text itself is not
+     * marked as changed, because the view shows it already.
+     *
+     * @param text entered text
+     */
+    public void setInputText1(String text) {
+        values[Output.INPUT_TEXT_1.ordinal()] = text;
+        updateIncompleteInput();
+    }
+
+    /**
+     * Sets the text of run parameter 2, which was entered by the user. The text itself is not
+     * marked as changed, because the view shows it already.
+     *
+     * @param text entered text
+     */
+    public void setInputText2(String text) {
+        values[Output.INPUT_TEXT_2.ordinal()] = text;
+        updateIncompleteInput();
+    }
+
+    /**
+     * Sets the formatted result of a calculated run.
+     *
+     * @param value1       value of result parameter 1
+     * @param value2       value of result parameter 2
+     * @param calories     calories
+     * @param cadenceCount cadence count
+     * @param runJson      run as json string
+     */
+    public void setResult(String value1, String value2, String calories, String cadenceCount,
+                          String runJson) {
+        setValue(Output.INFO, Info.NONE);
+        setValue(Output.RESULT_VALUE_1, value1);
+        setValue(Output.RESULT_VALUE_2, value2);
+        setValue(Output.CALORIES, calories);
+        setValue(Output.CADENCE_COUNT, cadenceCount);
+        setValue(Output.RUN, runJson);
+    }
+
+    /**
+     * Sets, that the run could not be calculated, because not all values are greater than 0.
+     */
+    public void setNotSolvable() {
+        setValue(Output.INFO, Info.VALUES_GREATER_ZERO);
+        setValue(Output.RESULT_VALUE_1, NO_VALUE);
+        setValue(Output.RESULT_VALUE_2, NO_VALUE);
+        setValue(Output.RUN, null);
+    }
+
+    /**
+     * Marks all outputs as changed, e.g. if the units of the settings have changed.
+     */
+    public void invalidate() {
+        changes = ALL_CHANGED;
+    }
+
+    // =============================================================================================
+    // outputs
+    // =============================================================================================
+
+    /**
+     * Returns the outputs, which have changed since the last call, and resets them.
+     *
+     * @return changed outputs as bit mask of their ordinals
+     */
+    public long takeChanges() {
+        final long taken = changes;
+        changes = 0;
+        return taken;
+    }
+
+    /**
+     * Returns true, if the output is contained in the changes.
+     *
+     * @param changes changes returned by {@link #takeChanges()}
+     * @param output  output
+     * @return true, if output has changed
+     */
+    public static boolean isChanged(long changes, Output output) {
+        return (changes & 1L << output.ordinal()) != 0;
+    }
+
+    /**
+     * Returns true, if both input parameters are selected and their texts are entered, so that
+     * the run can be calculated.
+     *
+     * @return true, if input is complete
+     */
+    public boolean isComplete() {
+        return inputParameter1 != null && inputParameter2 != null
+                && !getInputText1().isEmpty() && !getInputText2().isEmpty();
+    }
+
+    /**
+     * Returns true, if the pill button of the run parameter is selected.
+     *
+     * @param parameterType distance, duration, pace or speed
+     * @return true, if selected
+     */
+    public boolean isSelected(ParameterType parameterType) {
+        return (Boolean) values[Output.DISTANCE_SELECTED.ordinal() + parameterType.ordinal()];
+    }
+
+    /**
+     * Returns true, if the pill button of the run parameter is enabled.
+     *
+     * @param parameterType distance, duration, pace or speed
+     * @return true, if enabled
+     */
+    public boolean isEnabled(ParameterType parameterType) {
+        return (Boolean) values[Output.DISTANCE_ENABLED.ordinal() + parameterType.ordinal()];
+    }
+
+    /**
+     * Returns the information for the user.
+     *
+     * @return information
+     */
+    public Info getInfo() {
+        return (Info) values[Output.INFO.ordinal()];
+    }
+
+    /**
+     * Returns the type for run parameter 1.
+     *
+     * @return distance, duration or null
+     */
+    public ParameterType getInputParameter1() {
+        return inputParameter1;
+    }
+
+    /**
+     * Returns the text of run parameter 1.
+     *
+     * @return text
+     */
+    public String getInputText1() {
+        return (String) values[Output.INPUT_TEXT_1.ordinal()];
+    }
+
+    /**
+     * Returns the type for run parameter 2.
+     *
+     * @return duration, pace, speed or null
+     */
+    public ParameterType getInputParameter2() {
+        return inputParameter2;
+    }
+
+    /**
+     * Returns the text of run parameter 2.
+     *
+     * @return text
+     */
+    public String getInputText2() {
+        return (String) values[Output.INPUT_TEXT_2.ordinal()];
+    }
+
+    /**
+     * Returns true, if the results are enabled, which is the case if both input parameters are
+     * selected.
+     *
+     * @return true, if enabled
+     */
+    public boolean isResultEnabled() {
+        return (Boolean) values[Output.RESULT_ENABLED.ordinal()];
+    }
+
+    /**
+     * Returns the type of result parameter 1.
+     *
+     * @return type or null
+     */
+    public ParameterType getResultParameter1() {
+        return (ParameterType) values[Output.RESULT_PARAMETER_1.ordinal()];
+    }
+
+    /**
+     * Returns the type of result parameter 2.
+     *
+     * @return type or null
+     */
+    public ParameterType getResultParameter2() {
+        return (ParameterType) values[Output.RESULT_PARAMETER_2.ordinal()];
+    }
+
+    /**
+     * Returns the value of result parameter 1.
+     *
+     * @return value or {@link #NO_VALUE}
+     */
+    public String getResultValue1() {
+        return (String) values[Output.RESULT_VALUE_1.ordinal()];
+    }
+
+    /**
+     * Returns the value of result parameter 2.
+     *
+     * @return value or {@link #NO_VALUE}
+     */
+    public String getResultValue2() {
+        return (String) values[Output.RESULT_VALUE_2.ordinal()];
+    }
+
+    /**
+     * Returns the calories.
+     *
+     * @return calories or {@link #NO_VALUE}
+     */
+    public String getCalories() {
+        return (String) values[Output.CALORIES.ordinal()];
+    }
+
+    /**
+     * Returns the cadence count.
+     *
+     * @return cadence count or {@link #NO_VALUE}
+     */
+    public String getCadenceCount() {
+        return (String) values[Output.CADENCE_COUNT.ordinal()];
+    }
+
+    /**
+     * Returns the calculated run.
+     *
+     * @return run as json string or null, if no run is calculated
+     */
+    public String getRunJson() {
+        return (String) values[Output.RUN.ordinal()];
+    }
+
+    // =============================================================================================
+    // private utility functions
+    // =============================================================================================
+
+    /**
+     * Applies run parameter 1. Run parameter 1 can be distance or duration.
+     *
+     * @param parameterType parameter type
+     */
+    private void applyRunParameter1(ParameterType parameterType) {
+        if (!parameterType.equals(inputParameter1)) {
+            // switch value for duration to parameter 2 if set
+            if (inputParameter1 != null) {
+                inputParameter2 = inputParameter1;
+                setValue(Output.INPUT_TEXT_2, getInputText1());
+                setValue(Output.INPUT_TEXT_1, "");
+            }
+            inputParameter1 = parameterType;
+        } else {
+            inputParameter1 = ParameterType.DURATION.equals(inputParameter2) ? ParameterType.DURATION : null;
+            inputParameter2 = ParameterType.DURATION.equals(inputParameter2) ? null : inputParameter2;
+            // switch value for duration to parameter 1 if set
+            if (ParameterType.DURATION.equals(inputParameter1)) {
+                setValue(Output.INPUT_TEXT_1, getInputText2());
+                setValue(Output.INPUT_TEXT_2, "");
+            }
+        }
+    }
+
+    /**
+     * Applies run parameter 2. Run parameter 2 can be duration, speed or pace.
+     *
+     * @param parameterType parameter type
+     */
+    private void applyRunParameter2(ParameterType parameterType) {
+        inputParameter2 = parameterType.equals(inputParameter2) ? null : parameterType;
+    }
+
+    /**
+     * Updates all outputs, which depend on the selected input parameters, and resets the results.
+     */
+    private void updateSelection() {
+        final int numberOfSetInputParameters = (inputParameter1 != null ? 1 : 0) + (inputParameter2 != null ? 1 : 0);
+        final boolean notAllParamSet = numberOfSetInputParameters < 2;
+        // pill buttons
+        setValue(Output.DISTANCE_SELECTED, ParameterType.DISTANCE.equals(inputParameter1));
+        setValue(Output.DURATION_SELECTED,
+                ParameterType.DURATION.equals(inputParameter1) || ParameterType.DURATION.equals(inputParameter2));
+        setValue(Output.PACE_SELECTED, ParameterType.PACE.equals(inputParameter2));
+        setValue(Output.SPEED_SELECTED, ParameterType.SPEED.equals(inputParameter2));
+        setValue(Output.DISTANCE_ENABLED, ParameterType.DISTANCE.equals(inputParameter1) || notAllParamSet);
+        setValue(Output.DURATION_ENABLED, ParameterType.DURATION.equals(inputParameter1)
+                || ParameterType.DURATION.equals(inputParameter2) || notAllParamSet);
+        setValue(Output.PACE_ENABLED, (notAllParamSet || ParameterType.PACE.equals(inputParameter2))
+                && !ParameterType.SPEED.equals(inputParameter2));
+        setValue(Output.SPEED_ENABLED, (notAllParamSet || ParameterType.SPEED.equals(inputParameter2))
+                && !ParameterType.PACE.equals(inputParameter2));
+        // input area
+        setValue(Output.INFO, numberOfSetInputParameters == 0 ? Info.SELECT_TWO
+                : numberOfSetInputParameters == 1 ? Info.SELECT_ONE : Info.ENTER_VALUES);
+        setValue(Output.INPUT_PARAMETER_1, inputParameter1);
+        setValue(Output.INPUT_PARAMETER_2, inputParameter2);
+        if (inputParameter1 == null) {
+            setValue(Output.INPUT_TEXT_1, "");
+        }
+        if (inputParameter2 == null) {
+            setValue(Output.INPUT_TEXT_2, "");
+        }
+        // result area
+        setValue(Output.RESULT_ENABLED, numberOfSetInputParameters == 2);
+        if (numberOfSetInputParameters == 2) {
+            final ParameterType outputParameter1 = defineOutputRunParameter1();
+            setValue(Output.RESULT_PARAMETER_1, outputParameter1);
+            setValue(Output.RESULT_PARAMETER_2, defineOutputRunParameter2(outputParameter1));
+        } else if (numberOfSetInputParameters == 1 && ParameterType.PACE.equals(inputParameter2)) {
+            setValue(Output.RESULT_PARAMETER_1, ParameterType.SPEED);
+            setValue(Output.RESULT_PARAMETER_2, null);
+        } else if (numberOfSetInputParameters == 1 && ParameterType.SPEED.equals(inputParameter2)) {
+            setValue(Output.RESULT_PARAMETER_1, ParameterType.PACE);
+            setValue(Output.RESULT_PARAMETER_2, null);
+        } else {
+            setValue(Output.RESULT_PARAMETER_1, null);
+            setValue(Output.RESULT_PARAMETER_2, null);
+        }
+        setValue(Output.RESULT_VALUE_1, NO_VALUE);
+        setValue(Output.RESULT_VALUE_2, NO_VALUE);
+        setValue(Output.CALORIES, NO_VALUE);
+        setValue(Output.CADENCE_COUNT, NO_VALUE);
+        setValue(Output.RUN, null);
+    }
+
+    /**
+     * Resets the result, if a text was removed, so that the run can not be calculated.
+     */
+    private void updateIncompleteInput() {
+        if (isComplete()) {
+            return;
+        }
+        if (inputParameter1 != null && inputParameter2 != null) {
+            setValue(Output.INFO, Info.ENTER_VALUES);
+            setValue(Output.RESULT_VALUE_1, NO_VALUE);
+            setValue(Output.RESULT_VALUE_2, NO_VALUE);
+        }
+        setValue(Output.RUN, null);
+    }
+
+    /**
+     * Defines the output run parameter 1, which can be distance, duration or pace.
+     *
+     * @return run parameter 1 for output
+     */
+    private ParameterType defineOutputRunParameter1() {
+        return !ParameterType.DISTANCE.equals(inputParameter1)
+                ? ParameterType.DISTANCE
+                : !ParameterType.DURATION.equals(inputParameter1) && !ParameterType.DURATION.equals(inputParameter2)
+                ? ParameterType.DURATION
+                : !ParameterType.PACE.equals(inputParameter2)
+                ? ParameterType.PACE : null;
+    }
+
+    /**
+     * Defines the output run parameter 2 depending on run parameter 1. Parameter can be duration,
+     * pace or speed.
+     *
+     * @param outputParameterType1 run parameter 1 for output
+     * @return run parameter 2 for output
+     */
+    private ParameterType defineOutputRunParameter2(ParameterType outputParameterType1) {
+        return !ParameterType.DURATION.equals(outputParameterType1)
+                && !ParameterType.DURATION.equals(inputParameter1) && !ParameterType.DURATION.equals(inputParameter2)
+                ? ParameterType.DURATION
+                : !ParameterType.PACE.equals(outputParameterType1) && !ParameterType.PACE.equals(inputParameter2)
+                ? ParameterType.PACE : ParameterType.SPEED;
+    }
+
+    /**
+     * Sets the value of an output and marks it as changed, if it differs from the current value.
+     *
+     * @param output output
+     * @param value  value
+     */
+    private void setValue(Output output, Object value) {
+        final Object current = values[output.ordinal()];
+        if (current == null ? value != null : !current.equals(value)) {
+            values[output.ordinal()] = value;
+            changes |= 1L << output.ordinal();
+        }
+    }
+}
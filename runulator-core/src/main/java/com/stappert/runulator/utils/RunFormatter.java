@@ -0,0 +1,239 @@
+package com.stappert.runulator.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+/**
+ * Formats durations, paces, distances and speeds into a reusable {@link StringBuilder}, so that
+ * formatting does not build temporary strings. Two digit segments of a time are taken from
+ * precomputed tables and numbers with fixed decimal places are rendered from a scaled long
+ * instead of using {@link java.util.Formatter}. The output is the same as of
+ * {@code String.format(Locale.ENGLISH, "%.nf", value)}.
+ */
+public final class RunFormatter {
+
+    /**
+     * Maximum number of decimal places of {@link #appendFixed(StringBuilder, float, int)}.
+     */
+    public static final int MAX_DECIMAL_PLACES = 4;
+
+    /**
+     * Maximum number of decimal places of a distance.
+     */
+    private static final int DISTANCE_DECIMAL_PLACES = 4;
+
+    /**
+     * Powers of ten up to {@link #MAX_DECIMAL_PLACES}.
+     */
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000};
+
+    /**
+     * Tens digit of the numbers 0 to 99.
+     */
+    private static final char[] TENS = new char[100];
+
+    /**
+     * Ones digit of the numbers 0 to 99.
+     */
+    private static final char[] ONES = new char[100];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            TENS[i] = (char) ('0' + i / 10);
+            ONES[i] = (char) ('0' + i % 10);
+        }
+    }
+
+    /**
+     * Smallest absolute value, which {@link Float#toString(float)} does not write in scientific
+     * notation.
+     */
+    private static final float MIN_DECIMAL_NOTATION = 1e-3f;
+
+    /**
+     * Smallest absolute value, which {@link Float#toString(float)} writes in scientific notation.
+     */
+    private static final float MAX_DECIMAL_NOTATION = 1e7f;
+
+    /**
+     * Distance of a scaled value to a tie, below which it is rounded like the formatter. Larger
+     * than the rounding error of scaling any value in decimal notation.
+     */
+    private static final double TIE_TOLERANCE = 1e-3;
+
+    /**
+     * Only static functions.
+     */
+    private RunFormatter() {
+    }
+
+    /**
+     * Appends seconds as time hh:mm:ss, mm:ss or ss (h = hour, m = minute, s = second), see
+     * {@link Unit#formatSeconds(int)}.
+     *
+     * @param sink         builder to append to
+     * @param totalSeconds seconds
+     * @return sink
+     */
+    public static StringBuilder appendSeconds(StringBuilder sink, int totalSeconds) {
+        if (totalSeconds <= 0) {
+            return sink.append('0');
+        }
+        final int hours = totalSeconds / Unit.HOUR_IN_SECONDS;
+        final int minutes = totalSeconds / Unit.MINUTE_IN_SECONDS % Unit.MINUTE_IN_SECONDS;
+        final int seconds = totalSeconds % Unit.MINUTE_IN_SECONDS;
+        if (hours > 0) {
+            sink.append(hours).append(':');
+            appendTwoDigits(sink, minutes).append(':');
+            return appendTwoDigits(sink, seconds);
+        } else if (minutes > 0) {
+            sink.append(minutes).append(':');
+            return appendTwoDigits(sink, seconds);
+        }
+        return sink.append(seconds);
+    }
+
+    /**
+     * Appends a pace as time with at least minutes and seconds, see {@link Run#getPace(Unit)}.
+     *
+     * @param sink builder to append to
+     * @param pace pace in seconds
+     * @return sink
+     */
+    public static StringBuilder appendPace(StringBuilder sink, int pace) {
+        if (pace < Unit.MINUTE_IN_SECONDS) {
+            sink.append("00:");
+            return appendTwoDigits(sink, pace > 0 ? pace : 0);
+        }
+        return appendSeconds(sink, pace);
+    }
+
+    /**
+     * Appends a distance with the decimal places it needs, but at most 4, see
+     * {@link Run#getDistance(Unit)}.
+     *
+     * @param sink     builder to append to
+     * @param distance distance
+     * @return sink
+     */
+    public static StringBuilder appendDistance(StringBuilder sink, float distance) {
+        if (!isDecimalNotation(distance)) {
+            return sink.append(String.format(Locale.ENGLISH, "%." + Math.min(
+                    countDecimalPlaces(distance), DISTANCE_DECIMAL_PLACES) + "f", distance));
+        }
+        return appendFixed(sink, distance, Math.min(findDecimalPlaces(distance), DISTANCE_DECIMAL_PLACES));
+    }
+
+    /**
+     * Appends a speed with 1 decimal place or with 2, if it needs more, see
+     * {@link Run#getSpeed(Unit)}.
+     *
+     * @param sink  builder to append to
+     * @param speed speed
+     * @return sink
+     */
+    public static StringBuilder appendSpeed(StringBuilder sink, float speed) {
+        if (!isDecimalNotation(speed)) {
+            return sink.append(String.format(Locale.ENGLISH, "%."
+                    + (countDecimalPlaces(speed) <= 1 ? 1 : 2) + "f", speed));
+        }
+        return appendFixed(sink, speed, findDecimalPlaces(speed) <= 1 ? 1 : 2);
+    }
+
+    /**
+     * Appends a number with a fixed number of decimal places, rounded half up like
+     * {@code String.format(Locale.ENGLISH, "%.nf", value)}.
+     *
+     * @param sink          builder to append to
+     * @param value         number
+     * @param decimalPlaces number of decimal places, 0 to {@link #MAX_DECIMAL_PLACES}
+     * @return sink
+     */
+    public static StringBuilder appendFixed(StringBuilder sink, float value, int decimalPlaces) {
+        if (decimalPlaces < 0 || decimalPlaces > MAX_DECIMAL_PLACES) {
+            throw new IllegalArgumentException("decimal places must be between 0 and " + MAX_DECIMAL_PLACES);
+        } else if (Float.isNaN(value) || Float.isInfinite(value) || Math.abs(value) >= MAX_DECIMAL_NOTATION) {
+            return sink.append(String.format(Locale.ENGLISH, "%." + decimalPlaces + "f", value));
+        }
+        double absolute = value;
+        if (Float.floatToRawIntBits(value) < 0) {
+            sink.append('-');
+            absolute = -absolute;
+        }
+        final long scale = POWERS_OF_TEN[decimalPlaces];
+        final double scaled = absolute * scale;
+        long units = (long) Math.floor(scaled + 0.5);
+        if (Math.abs(scaled - Math.floor(scaled) - 0.5) < TIE_TOLERANCE) {
+            // the formatter rounds the shortest decimal digits, not the scaled double
+            units = new BigDecimal(Double.toString(absolute)).movePointRight(decimalPlaces)
+                    .setScale(0, RoundingMode.HALF_UP).longValue();
+        }
+        sink.append(units / scale);
+        if (decimalPlaces > 0) {
+            sink.append('.');
+            final long fraction = units % scale;
+            for (long digit = scale / 10; digit > 0; digit /= 10) {
+                sink.append((char) ('0' + fraction / digit % 10));
+            }
+        }
+        return sink;
+    }
+
+    // =============================================================================================
+    // private utility functions
+    // =============================================================================================
+
+    /**
+     * Appends a number from 0 to 99 with two digits.
+     *
+     * @param sink   builder to append to
+     * @param number number from 0 to 99
+     * @return sink
+     */
+    private static StringBuilder appendTwoDigits(StringBuilder sink, int number) {
+        return sink.append(TENS[number]).append(ONES[number]);
+    }
+
+    /**
+     * Returns true, if {@link Float#toString(float)} writes the value in decimal notation.
+     *
+     * @param value value
+     * @return true, if zero or absolute value between 10^-3 and 10^7
+     */
+    private static boolean isDecimalNotation(float value) {
+        final float absolute = Math.abs(value);
+        return Float.floatToRawIntBits(value) == 0
+                || absolute >= MIN_DECIMAL_NOTATION && absolute < MAX_DECIMAL_NOTATION;
+    }
+
+    /**
+     * Returns the number of decimal places of {@link Float#toString(float)} without building the
+     * string. These are the fewest decimal places, which still identify the value, but at
+     * least 1. The value has to be in decimal notation.
+     *
+     * @param value value
+     * @return decimal places, {@link #MAX_DECIMAL_PLACES} + 1 for more than the maximum
+     */
+    private static int findDecimalPlaces(float value) {
+        final double absolute = Math.abs((double) value);
+        for (int decimalPlaces = 1; decimalPlaces <= MAX_DECIMAL_PLACES; decimalPlaces++) {
+            final double scale = POWERS_OF_TEN[decimalPlaces];
+            if ((float) (Math.round(absolute * scale) / scale) == (float) absolute) {
+                return decimalPlaces;
+            }
+        }
+        return MAX_DECIMAL_PLACES + 1;
+    }
+
+    /**
+     * Returns the number of decimal places of {@link Float#toString(float)} from the string, for
+     * values in scientific notation.
+     *
+     * @param value value
+     * @return decimal places
+     */
+    private static int countDecimalPlaces(float value) {
+        return Float.toString(value).split("\\.")[1].length();
+    }
+}
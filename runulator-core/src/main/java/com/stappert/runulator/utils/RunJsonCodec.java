@@ -0,0 +1,383 @@
+package com.stappert.runulator.utils;
+
+/**
+ * Reads and writes runs as json strings without building a json object. The writer appends
+ * standard json (double quotes) into a caller-supplied {@link StringBuilder}, the reader scans the
+ * known keys of a run in one pass into primitives. The reader accepts the single-quoted form,
+ * which was written by previous versions, as well.
+ */
+public final class RunJsonCodec {
+
+    /**
+     * Number of values, which can be read, one for each run parameter (distance, duration, pace
+     * and speed), indexed by the ordinal of the {@link ParameterType}.
+     */
+    public static final int VALUE_COUNT = 4;
+
+    /**
+     * Names of the run parameters, indexed by ordinal.
+     */
+    private static final String[] NAMES = {ParameterType.DISTANCE.name(),
+            ParameterType.DURATION.name(), ParameterType.PACE.name(), ParameterType.SPEED.name()};
+
+    /**
+     * Powers of ten, which can be represented exactly as float.
+     */
+    private static final float[] POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f,
+            1e8f, 1e9f, 1e10f};
+
+    /**
+     * Largest mantissa, which can be represented exactly as float.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 24;
+
+    /**
+     * Only static functions.
+     */
+    private RunJsonCodec() {
+    }
+
+    // =============================================================================================
+    // write
+    // =============================================================================================
+
+    /**
+     * Appends a run with all four parameters.
+     *
+     * @param out      builder to append to
+     * @param distance in km
+     * @param duration in seconds
+     * @param pace     in seconds
+     * @param speed    in km/h
+     * @return builder
+     */
+    public static StringBuilder write(StringBuilder out, float distance, int duration, int pace,
+                                      float speed) {
+        out.append('{');
+        appendKey(out, ParameterType.DISTANCE).append(distance).append(',');
+        appendKey(out, ParameterType.DURATION).append(duration).append(',');
+        appendKey(out, ParameterType.PACE).append(pace).append(',');
+        appendKey(out, ParameterType.SPEED).append(speed);
+        return out.append('}');
+    }
+
+    /**
+     * Appends a run with two input parameters. Duration and pace are written as whole seconds.
+     *
+     * @param out        builder to append to
+     * @param parameter1 type of first value
+     * @param value1     first value
+     * @param parameter2 type of second value
+     * @param value2     second value
+     * @return builder
+     */
+    public static StringBuilder write(StringBuilder out, ParameterType parameter1, float value1,
+                                      ParameterType parameter2, float value2) {
+        out.append('{');
+        appendValue(appendKey(out, parameter1), parameter1, value1).append(',');
+        appendValue(appendKey(out, parameter2), parameter2, value2);
+        return out.append('}');
+    }
+
+    /**
+     * Appends the quoted name of the parameter and the colon.
+     *
+     * @param out       builder to append to
+     * @param parameter parameter
+     * @return builder
+     */
+    private static StringBuilder appendKey(StringBuilder out, ParameterType parameter) {
+        return out.append('"').append(parameter.name()).append('"').append(':');
+    }
+
+    /**
+     * Appends a value, duration and pace as whole seconds.
+     *
+     * @param out       builder to append to
+     * @param parameter parameter of value
+     * @param value     value
+     * @return builder
+     */
+    private static StringBuilder appendValue(StringBuilder out, ParameterType parameter, float value) {
+        return isSeconds(parameter) ? out.append((int) value) : out.append(value);
+    }
+
+    // =============================================================================================
+    // read
+    // =============================================================================================
+
+    /**
+     * Reads the run parameters of a json string into the values, indexed by the ordinal of the
+     * {@link ParameterType}. Unknown keys with simple values are skipped.
+     *
+     * @param json   run as json string with single or double quotes
+     * @param values array of at least {@link #VALUE_COUNT} values to write into
+     * @return mask of the read parameters (bit 1 &lt;&lt; ordinal)
+     * @throws CustomException if json string can not be parsed
+     */
+    public static int read(CharSequence json, float[] values) throws CustomException {
+        final int length = json.length();
+        int mask = 0;
+        int i = skipWhitespace(json, 0);
+        if (i >= length || json.charAt(i) != '{') {
+            throw error(i);
+        }
+        i = skipWhitespace(json, i + 1);
+        if (i < length && json.charAt(i) == '}') {
+            return mask;
+        }
+        while (true) {
+            // key
+            if (i >= length || !isQuote(json.charAt(i))) {
+                throw error(i);
+            }
+            final char quote = json.charAt(i);
+            final int keyStart = i + 1;
+            int keyEnd = keyStart;
+            while (keyEnd < length && json.charAt(keyEnd) != quote) {
+                keyEnd++;
+            }
+            if (keyEnd >= length) {
+                throw error(keyEnd);
+            }
+            final int index = indexOfKey(json, keyStart, keyEnd);
+            i = skipWhitespace(json, keyEnd + 1);
+            if (i >= length || json.charAt(i) != ':') {
+                throw error(i);
+            }
+            i = skipWhitespace(json, i + 1);
+            // value
+            if (index >= 0) {
+                final int valueEnd = endOfNumber(json, i);
+                if (valueEnd == i) {
+                    throw error(i);
+                }
+                values[index] = parseFloat(json, i, valueEnd);
+                mask |= 1 << index;
+                i = valueEnd;
+            } else {
+                i = skipValue(json, i);
+            }
+            // separator
+            i = skipWhitespace(json, i);
+            if (i >= length) {
+                throw error(i);
+            } else if (json.charAt(i) == '}') {
+                return mask;
+            } else if (json.charAt(i) != ',') {
+                throw error(i);
+            }
+            i = skipWhitespace(json, i + 1);
+        }
+    }
+
+    /**
+     * Returns the index of the run parameter for the key.
+     *
+     * @param json  json string
+     * @param start first character of key
+     * @param end   position after last character of key
+     * @return ordinal of parameter or -1, if key is unknown
+     */
+    private static int indexOfKey(CharSequence json, int start, int end) {
+        for (int index = 0; index < NAMES.length; index++) {
+            final String name = NAMES[index];
+            if (name.length() == end - start) {
+                int k = 0;
+                while (k < name.length() && name.charAt(k) == json.charAt(start + k)) {
+                    k++;
+                }
+                if (k == name.length()) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a decimal number. Numbers with up to seven significant digits and a small exponent
+     * are calculated exactly as float, others are parsed by {@link Float#parseFloat(String)}.
+     *
+     * @param json  json string
+     * @param start first character of number
+     * @param end   position after last character of number
+     * @return number
+     * @throws CustomException if number can not be parsed
+     */
+    private static float parseFloat(CharSequence json, int start, int end) throws CustomException {
+        int i = start;
+        final boolean negative = json.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean exact = true;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            final char c = json.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (mantissa < MAX_EXACT_MANTISSA) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (fraction) {
+                        exponent--;
+                    }
+                } else {
+                    exact = false;
+                }
+                digits++;
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c == 'e' || c == 'E') {
+                exponent += parseExponent(json, i + 1, end);
+                break;
+            } else {
+                throw error(i);
+            }
+        }
+        if (digits == 0) {
+            throw error(start);
+        }
+        if (!exact || mantissa > MAX_EXACT_MANTISSA || exponent < -10 || exponent > 10) {
+            try {
+                return Float.parseFloat(json.subSequence(start, end).toString());
+            } catch (NumberFormatException ex) {
+                throw error(start);
+            }
+        }
+        final float value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+                : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the exponent of a number.
+     *
+     * @param json  json string
+     * @param start first character after 'e'
+     * @param end   position after last character of number
+     * @return exponent
+     * @throws CustomException if exponent can not be parsed
+     */
+    private static int parseExponent(CharSequence json, int start, int end) throws CustomException {
+        int i = start;
+        final boolean negative = i < end && json.charAt(i) == '-';
+        if (i < end && (json.charAt(i) == '-' || json.charAt(i) == '+')) {
+            i++;
+        }
+        if (i >= end) {
+            throw error(i);
+        }
+        int exponent = 0;
+        for (; i < end; i++) {
+            final char c = json.charAt(i);
+            if (c < '0' || c > '9') {
+                throw error(i);
+            }
+            // larger exponents are out of range of float anyway
+            exponent = Math.min(exponent * 10 + (c - '0'), 1000);
+        }
+        return negative ? -exponent : exponent;
+    }
+
+    /**
+     * Returns the position after a number.
+     *
+     * @param json  json string
+     * @param start first character of number
+     * @return position after number
+     */
+    private static int endOfNumber(CharSequence json, int start) {
+        int i = start;
+        while (i < json.length()) {
+            final char c = json.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Skips a simple value (string, number, true, false or null) of an unknown key.
+     *
+     * @param json  json string
+     * @param start first character of value
+     * @return position after value
+     * @throws CustomException if value is not a simple value
+     */
+    private static int skipValue(CharSequence json, int start) throws CustomException {
+        if (start >= json.length()) {
+            throw error(start);
+        }
+        final char first = json.charAt(start);
+        if (isQuote(first)) {
+            int i = start + 1;
+            while (i < json.length() && json.charAt(i) != first) {
+                i += json.charAt(i) == '\\' ? 2 : 1;
+            }
+            if (i >= json.length()) {
+                throw error(i);
+            }
+            return i + 1;
+        }
+        int i = start;
+        while (i < json.length() && (Character.isLetterOrDigit(json.charAt(i))
+                || json.charAt(i) == '-' || json.charAt(i) == '+' || json.charAt(i) == '.')) {
+            i++;
+        }
+        if (i == start) {
+            throw error(start);
+        }
+        return i;
+    }
+
+    /**
+     * Returns the position of the first character, which is not a whitespace.
+     *
+     * @param json  json string
+     * @param start position to start
+     * @return position of first non whitespace
+     */
+    private static int skipWhitespace(CharSequence json, int start) {
+        int i = start;
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns true, if the character is a single or double quote.
+     *
+     * @param c character
+     * @return true, if character is a quote
+     */
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'';
+    }
+
+    /**
+     * Returns true, if values of the parameter are whole seconds.
+     *
+     * @param parameter parameter
+     * @return true for duration and pace
+     */
+    static boolean isSeconds(ParameterType parameter) {
+        return ParameterType.DURATION.equals(parameter) || ParameterType.PACE.equals(parameter);
+    }
+
+    /**
+     * Creates the exception for a json string, which can not be parsed.
+     *
+     * @param position position of error
+     * @return exception
+     */
+    private static CustomException error(int position) {
+        return new CustomException("Error", "invalid run json at position " + position);
+    }
+}
@@ -0,0 +1,76 @@
+package com.stappert.runulator.utils;
+
+/**
+ * Mutable result of a run calculation. The same result can be reused for several calculations,
+ * so that calculating a run does not allocate any object.
+ */
+public class RunResult {
+
+    /**
+     * Distance of run in km.
+     */
+    private float distance;
+    /**
+     * Duration of run in seconds.
+     */
+    private int duration;
+    /**
+     * Pace of run in seconds.
+     */
+    private int pace;
+    /**
+     * Speed of run in km/h.
+     */
+    private float speed;
+
+    /**
+     * Sets all parameters of the run.
+     *
+     * @param distance in km
+     * @param duration in seconds
+     * @param pace     in seconds
+     * @param speed    in km/h
+     */
+    void set(float distance, int duration, int pace, float speed) {
+        this.distance = distance;
+        this.duration = duration;
+        this.pace = pace;
+        this.speed = speed;
+    }
+
+    /**
+     * Returns the distance in km.
+     *
+     * @return distance
+     */
+    public float getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the duration in seconds.
+     *
+     * @return duration
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the pace in seconds per km.
+     *
+     * @return pace
+     */
+    public int getPace() {
+        return pace;
+    }
+
+    /**
+     * Returns the speed in km/h.
+     *
+     * @return speed
+     */
+    public float getSpeed() {
+        return speed;
+    }
+}
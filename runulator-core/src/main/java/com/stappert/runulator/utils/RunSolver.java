@@ -0,0 +1,245 @@
+package com.stappert.runulator.utils;
+
+/**
+ * Calculates all parameters of a run (distance, duration, pace and speed) from two of them. The
+ * solver works on primitives only and writes into a reusable {@link RunResult}. Invalid input is
+ * reported by a status code instead of an exception, so that a calculation never allocates.
+ */
+public final class RunSolver {
+
+    /**
+     * Run was calculated successfully.
+     */
+    public static final int OK = 0;
+
+    /**
+     * At least one value is not greater than 0 or not a number, like in the checks of
+     * {@link RunBatchSolver}.
+     */
+    public static final int INVALID_VALUE = 1;
+
+    /**
+     * The combination of parameters is not supported.
+     */
+    public static final int UNSUPPORTED_PARAMETERS = 2;
+
+    /**
+     * Only static functions.
+     */
+    private RunSolver() {
+    }
+
+    /**
+     * Calculates a run from any two of distance, duration, pace and speed. The order of the
+     * parameters does not matter. Duration and pace are expected as whole seconds.
+     *
+     * @param parameter1 type of first value
+     * @param value1     first value (distance in km, duration or pace in seconds, speed in km/h)
+     * @param parameter2 type of second value
+     * @param value2     second value (distance in km, duration or pace in seconds, speed in km/h)
+     * @param result     result to write the run into
+     * @return status code
+     */
+    public static int solve(ParameterType parameter1, float value1,
+                            ParameterType parameter2, float value2, RunResult result) {
+        if (parameter1 == null || parameter2 == null) {
+            return UNSUPPORTED_PARAMETERS;
+        } else if (parameter1.ordinal() > parameter2.ordinal()) {
+            return solve(parameter2, value2, parameter1, value1, result);
+        }
+        switch (parameter1) {
+            case DISTANCE:
+                switch (parameter2) {
+                    case DURATION:
+                        return solveWithDistanceAndDuration(value1, (int) value2, result);
+                    case PACE:
+                        return solveWithDistanceAndPace(value1, (int) value2, result);
+                    case SPEED:
+                        return solveWithDistanceAndSpeed(value1, value2, result);
+                    default:
+                        return UNSUPPORTED_PARAMETERS;
+                }
+            case DURATION:
+                switch (parameter2) {
+                    case PACE:
+                        return solveWithDurationAndPace((int) value1, (int) value2, result);
+                    case SPEED:
+                        return solveWithDurationAndSpeed((int) value1, value2, result);
+                    default:
+                        return UNSUPPORTED_PARAMETERS;
+                }
+            default:
+                return UNSUPPORTED_PARAMETERS;
+        }
+    }
+
+    /**
+     * Calculates a run depending on distance in km and duration in seconds.
+     *
+     * @param distance in km
+     * @param duration in seconds
+     * @param result   result to write the run into
+     * @return status code
+     */
+    public static int solveWithDistanceAndDuration(float distance, int duration, RunResult result) {
+        if (!(distance > 0) || duration <= 0) {
+            return INVALID_VALUE;
+        }
+        result.set(distance, duration, paceOf(distance, duration), speedOf(distance, duration));
+        return OK;
+    }
+
+    /**
+     * Calculates a run depending on distance in km and pace in seconds.
+     *
+     * @param distance in km
+     * @param pace     in seconds
+     * @param result   result to write the run into
+     * @return status code
+     */
+    public static int solveWithDistanceAndPace(float distance, int pace, RunResult result) {
+        if (!(distance > 0) || pace <= 0) {
+            return INVALID_VALUE;
+        }
+        result.set(distance, durationOfPace(distance, pace), pace, speedOfPace(pace));
+        return OK;
+    }
+
+    /**
+     * Calculates a run depending on distance in km and speed in km/h.
+     *
+     * @param distance in km
+     * @param speed    in km/h
+     * @param result   result to write the run into
+     * @return status code
+     */
+    public static int solveWithDistanceAndSpeed(float distance, float speed, RunResult result) {
+        if (!(distance > 0) || !(speed > 0)) {
+            return INVALID_VALUE;
+        }
+        result.set(distance, durationOfSpeed(distance, speed), paceOfSpeed(speed), speed);
+        return OK;
+    }
+
+    /**
+     * Calculates a run depending on duration in seconds and pace in seconds.
+     *
+     * @param duration in seconds
+     * @param pace     in seconds
+     * @param result   result to write the run into
+     * @return status code
+     */
+    public static int solveWithDurationAndPace(int duration, int pace, RunResult result) {
+        if (duration <= 0 || pace <= 0) {
+            return INVALID_VALUE;
+        }
+        result.set(distanceOfPace(duration, pace), duration, pace, speedOfPace(pace));
+        return OK;
+    }
+
+    /**
+     * Calculates a run depending on duration in seconds and speed in km/h.
+     *
+     * @param duration in seconds
+     * @param speed    in km/h
+     * @param result   result to write the run into
+     * @return status code
+     */
+    public static int solveWithDurationAndSpeed(int duration, float speed, RunResult result) {
+        if (duration <= 0 || !(speed > 0)) {
+            return INVALID_VALUE;
+        }
+        result.set(distanceOfSpeed(duration, speed), duration, paceOfSpeed(speed), speed);
+        return OK;
+    }
+
+    // =============================================================================================
+    // primitive formulas
+    // =============================================================================================
+
+    /**
+     * Calculates the pace in seconds per km from distance and duration.
+     *
+     * @param distance in km, greater than 0
+     * @param duration in seconds, greater than 0
+     * @return pace in seconds
+     */
+    static int paceOf(float distance, int duration) {
+        return Math.round(duration / distance);
+    }
+
+    /**
+     * Calculates the speed in km/h from distance and duration.
+     *
+     * @param distance in km, greater than 0
+     * @param duration in seconds, greater than 0
+     * @return speed in km/h
+     */
+    static float speedOf(float distance, int duration) {
+        return distance * Unit.HOUR_IN_SECONDS / duration;
+    }
+
+    /**
+     * Calculates the duration in seconds from distance and pace.
+     *
+     * @param distance in km, greater than 0
+     * @param pace     in seconds, greater than 0
+     * @return duration in seconds
+     */
+    static int durationOfPace(float distance, int pace) {
+        return Math.round(distance * pace);
+    }
+
+    /**
+     * Calculates the duration in seconds from distance and speed.
+     *
+     * @param distance in km, greater than 0
+     * @param speed    in km/h, greater than 0
+     * @return duration in seconds
+     */
+    static int durationOfSpeed(float distance, float speed) {
+        return Math.round(distance / speed * Unit.HOUR_IN_SECONDS);
+    }
+
+    /**
+     * Calculates the distance in km from duration and pace.
+     *
+     * @param duration in seconds, greater than 0
+     * @param pace     in seconds, greater than 0
+     * @return distance in km
+     */
+    static float distanceOfPace(int duration, int pace) {
+        return 1.0f * duration / pace;
+    }
+
+    /**
+     * Calculates the distance in km from duration and speed.
+     *
+     * @param duration in seconds, greater than 0
+     * @param speed    in km/h, greater than 0
+     * @return distance in km
+     */
+    static float distanceOfSpeed(int duration, float speed) {
+        return duration * speed / Unit.HOUR_IN_SECONDS;
+    }
+
+    /**
+     * Calculates the speed in km/h from pace.
+     *
+     * @param pace in seconds, greater than 0
+     * @return speed in km/h
+     */
+    static float speedOfPace(int pace) {
+        return (float) Unit.HOUR_IN_SECONDS / pace;
+    }
+
+    /**
+     * Calculates the pace in seconds per km from speed.
+     *
+     * @param speed in km/h, greater than 0
+     * @return pace in seconds
+     */
+    static int paceOfSpeed(float speed) {
+        return Math.round(Unit.HOUR_IN_SECONDS / speed);
+    }
+}
@@ -0,0 +1,139 @@
+package com.stappert.runulator.utils;
+
+/**
+ * Parses user input of a time (duration or pace) to seconds. Accepted formats are ss, mm:ss and
+ * hh:mm:ss (h = hour, m = minute, s = second), each segment may have any number of digits and the
+ * last segment may have a fraction of seconds, which is rounded. The input is scanned once,
+ * char by char, and can be any char sequence, e.g. the text of an input field. Invalid input is
+ * reported by a negative status code instead of an exception, so that parsing never allocates.
+ */
+public final class TimeParser {
+
+    /**
+     * Input contains a char, which is neither a digit, a colon nor a decimal separator.
+     */
+    public static final int INVALID_CHARACTER = -1;
+
+    /**
+     * Input contains a segment without digits, e.g. "::00".
+     */
+    public static final int EMPTY_SEGMENT = -2;
+
+    /**
+     * Input has more segments than hours, minutes and seconds.
+     */
+    public static final int TOO_MANY_SEGMENTS = -3;
+
+    /**
+     * Input has a decimal separator, which is not part of the seconds.
+     */
+    public static final int MISPLACED_FRACTION = -4;
+
+    /**
+     * Time does not fit into an int.
+     */
+    public static final int TOO_LONG = -5;
+
+    /**
+     * Maximum number of segments (hours, minutes and seconds).
+     */
+    private static final int MAX_SEGMENTS = 3;
+
+    /**
+     * Only static functions.
+     */
+    private TimeParser() {
+    }
+
+    /**
+     * Parses a time to seconds. An empty input is 0 seconds. Trailing colons are ignored, so that
+     * a time can be parsed while it is typed. A fraction of seconds is rounded half up, both '.'
+     * and ',' are accepted as decimal separator.
+     *
+     * @param time user input, may be null
+     * @return seconds, or a negative status code, if input cannot be parsed
+     */
+    public static int parseSeconds(CharSequence time) {
+        if (time == null) {
+            return 0;
+        }
+        int end = time.length();
+        while (end > 0 && time.charAt(end - 1) == ':') {
+            end--;
+        }
+        long seconds = 0;
+        long segment = 0;
+        int segments = 1;
+        boolean digits = false;
+        boolean fraction = false;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        for (int i = 0; i < end; i++) {
+            final char c = time.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (fraction) {
+                    // only the first digit of the fraction decides the rounding
+                    roundUp |= fractionDigits++ == 0 && c >= '5';
+                } else {
+                    segment = segment * 10 + (c - '0');
+                    if (segment > Integer.MAX_VALUE) {
+                        return TOO_LONG;
+                    }
+                    digits = true;
+                }
+            } else if (c == ':') {
+                if (fraction) {
+                    return MISPLACED_FRACTION;
+                } else if (!digits) {
+                    return EMPTY_SEGMENT;
+                } else if (++segments > MAX_SEGMENTS) {
+                    return TOO_MANY_SEGMENTS;
+                }
+                seconds = seconds * 60 + segment;
+                if (seconds > Integer.MAX_VALUE) {
+                    return TOO_LONG;
+                }
+                segment = 0;
+                digits = false;
+            } else if (isDecimalSeparator(c)) {
+                if (fraction || !digits) {
+                    return MISPLACED_FRACTION;
+                }
+                fraction = true;
+            } else {
+                return INVALID_CHARACTER;
+            }
+        }
+        if (end == 0) {
+            return 0;
+        } else if (!digits) {
+            return EMPTY_SEGMENT;
+        }
+        seconds = seconds * 60 + segment + (roundUp ? 1 : 0);
+        return seconds > Integer.MAX_VALUE ? TOO_LONG : (int) seconds;
+    }
+
+    /**
+     * Returns true, if the result of {@link #parseSeconds(CharSequence)} is a status code.
+     *
+     * @param result result of parsing
+     * @return true, if input could not be parsed
+     */
+    public static boolean isError(int result) {
+        return result < 0;
+    }
+
+    // =============================================================================================
+    // private utility functions
+    // =============================================================================================
+
+    /**
+     * Returns true, if the char separates the fraction of seconds.
+     *
+     * @param c char
+     * @return true, if '.' or ','
+     */
+    private static boolean isDecimalSeparator(char c) {
+        return c == '.' || c == ',';
+    }
+}
@@ -0,0 +1,425 @@
+package com.stappert.runulator.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Denifes all available weight unit in the application.
+ */
+public enum Unit {
+
+    // ============ weight =========================================================================
+    /**
+     * Kilogram.
+     */
+    KG("kg", "kilogram", Quantity.WEIGHT, 1),
+    /**
+     * Pound.
+     */
+    LB("lb", "pound", Quantity.WEIGHT, 1 / 2.20462),
+
+    // ============ length =========================================================================
+    /**
+     * Centimeter for human height.
+     */
+    CM("cm", "centimeter", Quantity.LENGTH, 1e-5),
+    /**
+     * Feet for human height.
+     */
+    FEET("ft", "feet", Quantity.LENGTH, 3.048e-4),
+    /**
+     * Inch for human height.
+     */
+    INCH("in", "inch", Quantity.LENGTH, 2.54e-5),
+    /**
+     * Kilometer for run distances.
+     */
+    KM("km", "kilometer", Quantity.LENGTH, 1),
+    /**
+     * Mile for run distances.
+     */
+    MILE("mi", "mile", Quantity.LENGTH, 1.60934),
+    // ============ pace ===========================================================================
+    /**
+     * Kilometer for run distances. Note, that values are on seconds level.
+     */
+    MIN_KM("min:sec/km", "minutes_per_km", Quantity.PACE, 1),
+    /**
+     * Mile for run distances. Note, that values are on seconds level.
+     */
+    MIN_MILE("min:sec/mi", "minutes_per_mile", Quantity.PACE, 1 / 1.60934),
+    // ============ speed ==========================================================================
+    /**
+     * Speed in km per hour.
+     */
+    KM_H("km/h", "kilometer_per_hour", Quantity.SPEED, 1),
+    /**
+     * Speed in miles per hour.
+     */
+    MPH("mph", "miles_per_hour", Quantity.SPEED, 1.60934),
+    // ============ time ===========================================================================
+    /**
+     * Hour in form hh:mm:ss. Note, that values are on seconds level.
+     */
+    HOUR("h:min:sec", null, Quantity.TIME, 1),
+    /**
+     * Minutes in form mm:ss. Note, that values are on seconds level.
+     */
+    MINUTE("min:sec", null, Quantity.TIME, 1),
+
+    // ============ default ========================================================================
+    /**
+     * Default unit.
+     */
+    DEFAULT("", null, Quantity.NONE, Double.NaN);
+
+    // =============================================================================================
+    // constants
+    // =============================================================================================
+    /**
+     * One minute in seconds.
+     */
+    public final static int MINUTE_IN_SECONDS = 60;
+
+    /**
+     * One hour in seconds.
+     */
+    public final static int HOUR_IN_SECONDS = 60 * 60;
+
+    /**
+     * Factors to convert between all units, indexed by ordinal of source and target unit. NaN, if
+     * the units cannot be converted.
+     */
+    private static final double[][] FACTORS = new double[values().length][values().length];
+
+    /**
+     * True, if the conversion between two units is reciprocal (pace and speed), indexed like
+     * {@link #FACTORS}. Then the factor is divided by the value.
+     */
+    private static final boolean[][] RECIPROCAL = new boolean[values().length][values().length];
+
+    static {
+        for (Unit from : values()) {
+            for (Unit to : values()) {
+                final double factor;
+                if (from.quantity == Quantity.NONE || to.quantity == Quantity.NONE) {
+                    factor = Double.NaN;
+                } else if (from.quantity == to.quantity) {
+                    factor = from.factor / to.factor;
+                } else if (from.quantity.isReciprocal(to.quantity)) {
+                    // seconds per km times km per hour is one hour
+                    factor = HOUR_IN_SECONDS / (from.factor * to.factor);
+                    RECIPROCAL[from.ordinal()][to.ordinal()] = true;
+                } else {
+                    factor = Double.NaN;
+                }
+                FACTORS[from.ordinal()][to.ordinal()] = factor;
+            }
+        }
+    }
+
+    // =============================================================================================
+    // variables and constructor
+    // =============================================================================================
+    /**
+     * International symbol.
+     */
+    private final String symbol;
+
+    /**
+     * String key for label. Null if no label exists.
+     */
+    private final String label;
+
+    /**
+     * Physical quantity, only units of the same quantity (or pace and speed) can be converted.
+     */
+    private final Quantity quantity;
+
+    /**
+     * Factor to convert a value to the base unit of the quantity (kg, km, seconds per km, km/h
+     * or seconds).
+     */
+    private final double factor;
+
+    /**
+     * Creates a unit.
+     *
+     * @param symbol   international symbol
+     * @param label    string key for label
+     * @param quantity physical quantity
+     * @param factor   factor to convert to the base unit of the quantity
+     */
+    Unit(String symbol, String label, Quantity quantity, double factor) {
+        this.symbol = symbol;
+        this.label = label;
+        this.quantity = quantity;
+        this.factor = factor;
+    }
+
+    // =============================================================================================
+    // methods
+    // =============================================================================================
+
+    /**
+     * Returns the id name of the string resource for the label.
+     *
+     * @return id name of label or null, if no label exists
+     */
+    public String getLabelKey() {
+        return label;
+    }
+
+    /**
+     * Converts a value from one unit to another. Pace and speed are converted reciprocally.
+     *
+     * @param value value in source unit
+     * @param from  source unit
+     * @param to    target unit
+     * @return value in target unit
+     * @throws IllegalArgumentException if the units cannot be converted, see
+     *                                  {@link #isConvertible(Unit, Unit)}
+     */
+    public static double convert(double value, Unit from, Unit to) {
+        final double factor = FACTORS[from.ordinal()][to.ordinal()];
+        if (Double.isNaN(factor)) {
+            throw new IllegalArgumentException("conversion from " + from.symbol + " to " + to.symbol + " is not supported");
+        }
+        return RECIPROCAL[from.ordinal()][to.ordinal()] ? factor / value : value * factor;
+    }
+
+    /**
+     * Returns true, if a value can be converted from one unit to another.
+     *
+     * @param from source unit
+     * @param to   target unit
+     * @return true, if conversion is supported
+     */
+    public static boolean isConvertible(Unit from, Unit to) {
+        return !Double.isNaN(FACTORS[from.ordinal()][to.ordinal()]);
+    }
+
+    /**
+     * Converts the weight in kilogram. Rounds the value.
+     *
+     * @param weight kilogram in current unit
+     * @return weight in kilogram
+     * @throws CustomException if conversion for unit is not supported
+     */
+    public int toKg(int weight) throws CustomException {
+        return (int) Math.round(convertChecked(weight, this, KG));
+    }
+
+    /**
+     * Converts the length in centimeter.
+     *
+     * @param length length in current unit
+     * @return length in centimeter
+     * @throws CustomException if conversion for unit is not supported
+     */
+    public float toCm(float length) throws CustomException {
+        return (float) convertChecked(length, this, CM);
+    }
+
+    /**
+     * Converts the length in kilometer.
+     *
+     * @param length length in current unit
+     * @return length in kilometer
+     * @throws CustomException if conversion for unit is not supported
+     */
+    public float toKm(float length) throws CustomException {
+        return (float) convertChecked(length, this, KM);
+    }
+
+    /**
+     * Converts kilometer length to desired unit.
+     *
+     * @param km length in kilometer
+     * @return length in desired unit
+     * @throws CustomException if conversion for unit is not supported
+     */
+    public float kmTo(float km) throws CustomException {
+        return (float) convertChecked(km, KM, this);
+    }
+
+    /**
+     * Converts the pace in minutes per hour. Note, that pace is on seconds level.
+     *
+     * @param paceOrSpeed pace or speed in current unit
+     * @return pace in kilometer per hour
+     * @throws CustomException if conversion for unit is not supported
+     */
+    public int toMinPerKm(float paceOrSpeed) throws CustomException {
+        checkPaceOrSpeed(paceOrSpeed, this, MIN_KM);
+        return (int) Math.round(convertChecked(paceOrSpeed, this, MIN_KM));
+    }
+
+    /**
+     * Converts the pace from minutes per hour to desired unit. Note, that pace is on seconds level.
+     *
+     * @param pace seconds per minute
+     * @return pace in desired unit
+     * @throws CustomException if conversion for unit is not supported
+     */
+    public float minPerKmTo(int pace) throws CustomException {
+        checkPaceOrSpeed(pace, MIN_KM, this);
+        final double paceOrSpeed = convertChecked(pace, MIN_KM, this);
+        return quantity == Quantity.PACE ? Math.round(paceOrSpeed) : (float) paceOrSpeed;
+    }
+
+    /**
+     * Converts the speed in kilometer per hour. Note, that pace is on seconds level.
+     *
+     * @param speedOrPace speed or pace in current unit
+     * @return speed in kilometer per hour
+     * @throws CustomException if conversion for unit is not supported
+     */
+    public float toKmPerHour(float speedOrPace) throws CustomException {
+        checkPaceOrSpeed(speedOrPace, this, KM_H);
+        return (float) convertChecked(speedOrPace, this, KM_H);
+    }
+
+    /**
+     * Converts speed from kilometer per hour speed to desired unit.
+     *
+     * @param speed kilometer per hour
+     * @return speed in desired unit
+     * @throws CustomException if conversion for unit is not supported
+     */
+    public float kmPerHourTo(float speed) throws CustomException {
+        checkPaceOrSpeed(speed, KM_H, this);
+        return (float) convertChecked(speed, KM_H, this);
+    }
+
+    /**
+     * Returns the international symbol of the unit.
+     *
+     * @return unit symbol
+     */
+    public String toString() {
+        return symbol;
+    }
+
+    /**
+     * Formats the given value with the international symbol of the unit.
+     *
+     * @return value + symbol
+     */
+    public String format(double value) {
+        return format(new StringBuilder(), value).toString();
+    }
+
+    /**
+     * Appends the given value with the international symbol of the unit.
+     *
+     * @param sink  builder to append to
+     * @param value value
+     * @return sink
+     */
+    public StringBuilder format(StringBuilder sink, double value) {
+        switch (this) {
+            case MINUTE:
+            case HOUR:
+            case MIN_KM:
+            case MIN_MILE:
+                RunFormatter.appendSeconds(sink, (int) value).append(' ')
+                        .append(value >= HOUR_IN_SECONDS ? "h" : value > MINUTE_IN_SECONDS ? "min" : "sec");
+                return this == MIN_KM ? sink.append('/').append(KM.symbol)
+                        : this == MIN_MILE ? sink.append('/').append(symbol) : sink;
+            default:
+                return sink.append(value).append(' ').append(symbol);
+        }
+    }
+
+    /**
+     * Returns all weight units.
+     *
+     * @return list of weight units
+     */
+    public static List<Unit> getWeightUnits() {
+        return new ArrayList<>(Arrays.asList(KG, LB));
+    }
+
+    /**
+     * Returns all units to set the height.
+     *
+     * @return list of height units
+     */
+    public static List<Unit> getHeightUnits() {
+        return new ArrayList<>(Arrays.asList(CM, FEET, INCH));
+    }
+
+    /**
+     * Returns all units to set distances.
+     *
+     * @return distance units
+     */
+    public static List<Unit> getDistanceUnits() {
+        return new ArrayList<>(Arrays.asList(KM, MILE));
+    }
+
+    /**
+     * Formats seconds to time hh:min:sec.
+     *
+     * @param totalSeconds seconds
+     * @return format time
+     */
+    public static String formatSeconds(int totalSeconds) {
+        return RunFormatter.appendSeconds(new StringBuilder(8), totalSeconds).toString();
+    }
+
+    // =============================================================================================
+    // private utility functions
+    // =============================================================================================
+
+    /**
+     * Converts a value like {@link #convert(double, Unit, Unit)}, but reports unsupported units
+     * by exception.
+     *
+     * @param value value in source unit
+     * @param from  source unit
+     * @param to    target unit
+     * @return value in target unit
+     * @throws CustomException if conversion is not supported
+     */
+    private static double convertChecked(double value, Unit from, Unit to) throws CustomException {
+        if (!isConvertible(from, to)) {
+            throw new CustomException("error", "conversion from " + from.symbol + " to " + to.symbol + " is not supported");
+        }
+        return convert(value, from, to);
+    }
+
+    /**
+     * Checks, that a pace or speed is not negative and not 0, if it is converted from pace to speed
+     * or vice versa, which would divide by 0.
+     *
+     * @param paceOrSpeed pace or speed
+     * @param from        source unit
+     * @param to          target unit
+     * @throws CustomException if pace or speed is negative or 0 in a reciprocal conversion
+     */
+    private static void checkPaceOrSpeed(float paceOrSpeed, Unit from, Unit to) throws CustomException {
+        if (paceOrSpeed < 0 || paceOrSpeed == 0 && from.quantity.isReciprocal(to.quantity)) {
+            throw new CustomException("error", "speed or pace " + paceOrSpeed + " must be greater than 0");
+        }
+    }
+
+    /**
+     * Physical quantities of the units.
+     */
+    private enum Quantity {
+        WEIGHT, LENGTH, PACE, SPEED, TIME, NONE;
+
+        /**
+         * Returns true, if values of both quantities are reciprocal.
+         *
+         * @param other other quantity
+         * @return true, for pace and speed
+         */
+        boolean isReciprocal(Quantity other) {
+            return this == PACE && other == SPEED || this == SPEED && other == PACE;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.DebouncedCalculator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class DebouncedCalculator.
+ */
+public class TestDebouncedCalculator {
+
+    /**
+     * Executor, which delivers the results on the calling thread.
+     */
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    /**
+     * Calculation, which records its inputs and returns the length of the input.
+     */
+    private static class RecordingCalculation implements DebouncedCalculator.Calculation<String, Integer> {
+
+        private final List<String> inputs = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public Integer calculate(String input) throws CustomException {
+            inputs.add(input);
+            if (input.isEmpty()) {
+                throw new CustomException("Error", "empty input");
+            }
+            return input.length();
+        }
+    }
+
+    /**
+     * Listener, which records all results and errors.
+     */
+    private static class RecordingListener implements DebouncedCalculator.Listener<Integer> {
+
+        private final List<Integer> results = Collections.synchronizedList(new ArrayList<Integer>());
+
+        private final List<CustomException> errors = Collections.synchronizedList(new ArrayList<CustomException>());
+
+        private final CountDownLatch delivered = new CountDownLatch(1);
+
+        @Override
+        public void onResult(Integer result) {
+            results.add(result);
+            delivered.countDown();
+        }
+
+        @Override
+        public void onError(CustomException ex) {
+            errors.add(ex);
+            delivered.countDown();
+        }
+    }
+
+    @Test
+    public void testDebounceInputs() throws InterruptedException {
+        RecordingCalculation calculation = new RecordingCalculation();
+        RecordingListener listener = new RecordingListener();
+        DebouncedCalculator<String, Integer> calculator =
+                new DebouncedCalculator<>(calculation, listener, DIRECT, 500);
+        calculator.submit("1");
+        calculator.submit("12");
+        calculator.submit("12:");
+        final long last = calculator.submit("12:3");
+        assertTrue(calculator.isLatest(last));
+        assertTrue(listener.delivered.await(10, TimeUnit.SECONDS));
+        calculator.shutdown();
+        assertEquals(Collections.singletonList("12:3"), calculation.inputs);
+        assertEquals(Collections.singletonList(4), listener.results);
+    }
+
+    @Test
+    public void testDiscardStaleResult() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingCalculation calculation = new RecordingCalculation();
+        RecordingListener listener = new RecordingListener();
+        DebouncedCalculator<String, Integer> calculator = new DebouncedCalculator<>(
+                new DebouncedCalculator.Calculation<String, Integer>() {
+                    @Override
+                    public Integer calculate(String input) throws CustomException {
+                        if ("slow".equals(input)) {
+                            started.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return calculation.calculate(input);
+                    }
+                }, listener, DIRECT, 0);
+        calculator.submit("slow");
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        calculator.submit("fast");
+        release.countDown();
+        assertTrue(listener.delivered.await(10, TimeUnit.SECONDS));
+        calculator.shutdown();
+        assertEquals(2, calculation.inputs.size());
+        assertEquals(Collections.singletonList(4), listener.results);
+    }
+
+    @Test
+    public void testDiscardPostedResult() throws InterruptedException {
+        final BlockingQueue<Runnable> mainThread = new LinkedBlockingQueue<>();
+        RecordingListener listener = new RecordingListener();
+        DebouncedCalculator<String, Integer> calculator = new DebouncedCalculator<>(
+                new RecordingCalculation(), listener, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                mainThread.add(command);
+            }
+        }, 0);
+        final long number = calculator.submit("5:00");
+        Runnable posted = mainThread.poll(10, TimeUnit.SECONDS);
+        assertNotNull(posted);
+        // input changed, after the result was posted
+        calculator.cancel();
+        assertFalse(calculator.isLatest(number));
+        posted.run();
+        calculator.shutdown();
+        assertTrue(listener.results.isEmpty());
+    }
+
+    @Test
+    public void testError() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        DebouncedCalculator<String, Integer> calculator =
+                new DebouncedCalculator<>(new RecordingCalculation(), listener, DIRECT, 0);
+        calculator.submit("");
+        assertTrue(listener.delivered.await(10, TimeUnit.SECONDS));
+        calculator.shutdown();
+        assertTrue(listener.results.isEmpty());
+        assertEquals(1, listener.errors.size());
+        assertEquals("empty input", listener.errors.get(0).getMessage());
+    }
+
+    @Test
+    public void testRuntimeException() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        DebouncedCalculator<String, Integer> calculator = new DebouncedCalculator<>(
+                new DebouncedCalculator.Calculation<String, Integer>() {
+                    @Override
+                    public Integer calculate(String input) {
+                        return Integer.parseInt(input);
+                    }
+                }, listener, DIRECT, 0);
+        calculator.submit("5:00");
+        assertTrue(listener.delivered.await(10, TimeUnit.SECONDS));
+        calculator.shutdown();
+        assertTrue(listener.results.isEmpty());
+        assertEquals(1, listener.errors.size());
+        assertTrue(listener.errors.get(0).getCause() instanceof NumberFormatException);
+    }
+}
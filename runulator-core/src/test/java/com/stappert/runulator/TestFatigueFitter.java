@@ -0,0 +1,89 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.forecast.FatigueFitter;
+import com.stappert.runulator.forecast.RiegelModel;
+import com.stappert.runulator.utils.Run;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class FatigueFitter.
+ */
+public class TestFatigueFitter {
+
+    private static final float DEFAULT = RiegelModel.DEFAULT_FATIGUE_COEFFICIENT;
+
+    @Test
+    public void testFitRiegelRuns() {
+        FatigueFitter fitter = new FatigueFitter();
+        float[] distances = {5, 10, Run.HALF_MARATHON, Run.MARATHON};
+        for (float distance : distances) {
+            fitter.add(distance, (int) Math.round(1200 * Math.pow(distance / 5, 1.06)));
+        }
+        assertTrue(fitter.isFitted());
+        assertEquals(4, fitter.getCount());
+        assertEquals(1.06f, fitter.getFatigueCoefficient(DEFAULT), 0.0005f);
+    }
+
+    @Test
+    public void testRemoveEqualsNewFit() {
+        FatigueFitter fitter = new FatigueFitter();
+        fitter.add(5, 1250);
+        fitter.add(10, 2600);
+        fitter.add(Run.HALF_MARATHON, 5800);
+        fitter.remove(5, 1250);
+        FatigueFitter expected = new FatigueFitter();
+        expected.add(10, 2600);
+        expected.add(Run.HALF_MARATHON, 5800);
+        assertEquals(expected.getFatigueCoefficient(DEFAULT), fitter.getFatigueCoefficient(DEFAULT), 1e-6f);
+        assertEquals(Math.log(5800.0 / 2600) / Math.log(Run.HALF_MARATHON / 10.0),
+                fitter.getFatigueCoefficient(DEFAULT), 1e-6);
+    }
+
+    @Test
+    public void testNotEnoughData() {
+        FatigueFitter fitter = new FatigueFitter();
+        assertEquals(DEFAULT, fitter.getFatigueCoefficient(DEFAULT), 0);
+        fitter.add(10, 2600);
+        assertFalse(fitter.isFitted());
+        assertEquals(DEFAULT, fitter.getFatigueCoefficient(DEFAULT), 0);
+        // same distance
+        fitter.add(10, 2500);
+        assertFalse(fitter.isFitted());
+        // too close distance
+        fitter.add(10.5f, 2700);
+        assertFalse(fitter.isFitted());
+        fitter.add(Run.MARATHON, 12000);
+        assertTrue(fitter.isFitted());
+        fitter.remove(Run.MARATHON, 12000);
+        assertFalse(fitter.isFitted());
+        fitter.remove(10, 2600);
+        fitter.remove(10, 2500);
+        fitter.remove(10.5f, 2700);
+        assertEquals(0, fitter.getCount());
+    }
+
+    @Test
+    public void testPlausibleCoefficient() {
+        FatigueFitter fitter = new FatigueFitter();
+        fitter.add(5, 1500);
+        fitter.add(10, 2400);
+        assertEquals(FatigueFitter.MIN_FATIGUE_COEFFICIENT, fitter.getFatigueCoefficient(DEFAULT), 0);
+        fitter.clear();
+        fitter.add(5, 1200);
+        fitter.add(Run.MARATHON, 6 * 60 * 60);
+        assertEquals(FatigueFitter.MAX_FATIGUE_COEFFICIENT, fitter.getFatigueCoefficient(DEFAULT), 0);
+    }
+
+    @Test
+    public void testInvalidRunsAreIgnored() {
+        FatigueFitter fitter = new FatigueFitter();
+        fitter.add(0, 1500);
+        fitter.add(10, -1);
+        assertEquals(0, fitter.getCount());
+    }
+}
@@ -0,0 +1,119 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.storage.FavoriteRunRepository;
+import com.stappert.runulator.storage.RunEntry;
+import com.stappert.runulator.storage.RunLog;
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class FavoriteRunRepository.
+ */
+public class TestFavoriteRunRepository {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testListsAreCachedPerVersion() throws IOException, CustomException {
+        FavoriteRunRepository repository = createRepository(2000);
+        final int version = repository.getVersion();
+        List<Run> runs = repository.getRuns();
+        assertEquals(2000, runs.size());
+        assertSame(runs, repository.getRuns());
+        assertSame(repository.getEntries(), repository.getEntries());
+        assertEquals(version, repository.getVersion());
+    }
+
+    @Test
+    public void testChangesIncreaseVersion() throws IOException, CustomException {
+        FavoriteRunRepository repository = createRepository(3);
+        List<Run> runs = repository.getRuns();
+        int version = repository.getVersion();
+        RunEntry entry = entry(10, 3000);
+        assertTrue(repository.add(entry));
+        assertTrue(repository.getVersion() > version);
+        assertNotSame(runs, repository.getRuns());
+        assertEquals(4, repository.getRuns().size());
+        assertEquals(Run.createWithDistanceAndDuration(10, 3000), repository.getRuns().get(3));
+
+        version = repository.getVersion();
+        assertFalse(repository.add(entry(10, 3000)));
+        assertEquals(version, repository.getVersion());
+
+        assertTrue(repository.remove(entry));
+        assertTrue(repository.getVersion() > version);
+        assertFalse(repository.contains(entry));
+
+        version = repository.getVersion();
+        assertFalse(repository.remove(entry));
+        assertEquals(version, repository.getVersion());
+    }
+
+    @Test
+    public void testChangesAreStored() throws IOException, CustomException {
+        File file = new File(folder.getRoot(), "favorites.bin");
+        FavoriteRunRepository repository = new FavoriteRunRepository(new RunLog(file));
+        repository.add(entry(5, 1500));
+        repository.add(entry(10, 3000));
+        repository.remove(entry(5, 1500));
+        assertEquals(1, repository.addAll(Arrays.asList(entry(10, 3000), entry(21, 6000))));
+        assertEquals(Arrays.asList(entry(10, 3000), entry(21, 6000)),
+                new FavoriteRunRepository(new RunLog(file)).getEntries());
+        repository.clear();
+        assertFalse(file.exists());
+        assertTrue(repository.getRuns().isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testListsAreImmutable() throws IOException, CustomException {
+        createRepository(1).getRuns().clear();
+    }
+
+    /**
+     * Creates a repository with favorite runs.
+     *
+     * @param count number of favorite runs
+     * @return repository
+     * @throws IOException     if log can not be written
+     * @throws CustomException if run can not be calculated
+     */
+    private FavoriteRunRepository createRepository(int count) throws IOException, CustomException {
+        List<RunEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add(entry(1 + i / 100f, 600 + i));
+        }
+        RunLog runLog = new RunLog(new File(folder.getRoot(), "favorites.bin"));
+        runLog.rewrite(entries);
+        return new FavoriteRunRepository(runLog);
+    }
+
+    /**
+     * Creates an entry from distance and duration.
+     *
+     * @param distance distance in km
+     * @param duration duration in seconds
+     * @return entry
+     * @throws CustomException if run can not be calculated
+     */
+    private static RunEntry entry(float distance, int duration) throws CustomException {
+        return RunEntry.create(ParameterType.DISTANCE, distance, ParameterType.DURATION, duration, 0);
+    }
+}
@@ -0,0 +1,138 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.forecast.CameronModel;
+import com.stappert.runulator.forecast.ForecastCache;
+import com.stappert.runulator.forecast.ForecastModel;
+import com.stappert.runulator.forecast.RiegelModel;
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.Run;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests class ForecastCache.
+ */
+public class TestForecastCache {
+
+    private static final float[] DISTANCES = {5, 10, Run.HALF_MARATHON, Run.MARATHON};
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    /**
+     * Returns the durations of the model without cache.
+     */
+    private static int[] predict(ForecastModel model, float baseDistance, int baseDuration,
+                                 float[] targets) throws CustomException {
+        int[] durations = new int[targets.length];
+        model.predict(baseDistance, baseDuration, targets, durations);
+        return durations;
+    }
+
+    @Test
+    public void testHitsAndMisses() throws CustomException {
+        ForecastCache cache = new ForecastCache(16);
+        RiegelModel model = new RiegelModel();
+        int[] durations = new int[DISTANCES.length];
+        cache.predict(model, 10, 3000, DISTANCES, durations);
+        assertArrayEquals(predict(model, 10, 3000, DISTANCES), durations);
+        assertEquals(0, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        // same forecast again, e.g. when returning to the tab
+        durations = new int[DISTANCES.length];
+        cache.predict(new RiegelModel(), 10, 3000, DISTANCES, durations);
+        assertArrayEquals(predict(model, 10, 3000, DISTANCES), durations);
+        assertEquals(4, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        // only the new distance is forecast
+        final float[] targets = {5, 7.5f, Run.MARATHON};
+        durations = new int[targets.length];
+        cache.predict(model, 10, 3000, targets, durations);
+        assertArrayEquals(predict(model, 10, 3000, targets), durations);
+        assertEquals(6, cache.getHits());
+        assertEquals(5, cache.getMisses());
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void testModelAndCoefficient() throws CustomException {
+        ForecastCache cache = new ForecastCache(16);
+        int[] durations = new int[DISTANCES.length];
+        cache.predict(new RiegelModel(1.06f), 10, 3000, DISTANCES, durations);
+        assertArrayEquals(predict(new RiegelModel(1.06f), 10, 3000, DISTANCES), durations);
+        cache.predict(new RiegelModel(1.08f), 10, 3000, DISTANCES, durations);
+        assertArrayEquals(predict(new RiegelModel(1.08f), 10, 3000, DISTANCES), durations);
+        cache.predict(new CameronModel(), 10, 3000, DISTANCES, durations);
+        assertArrayEquals(predict(new CameronModel(), 10, 3000, DISTANCES), durations);
+        assertEquals(0, cache.getHits());
+        assertEquals(12, cache.size());
+        cache.predict(new RiegelModel(1.06f), 10, 3000, DISTANCES, durations);
+        assertArrayEquals(predict(new RiegelModel(1.06f), 10, 3000, DISTANCES), durations);
+        assertEquals(4, cache.getHits());
+    }
+
+    @Test
+    public void testDropOnNewBaseRun() throws CustomException {
+        ForecastCache cache = new ForecastCache(16);
+        RiegelModel model = new RiegelModel();
+        int[] durations = new int[DISTANCES.length];
+        cache.predict(model, 10, 3000, DISTANCES, durations);
+        cache.predict(model, 10, 2900, DISTANCES, durations);
+        assertArrayEquals(predict(model, 10, 2900, DISTANCES), durations);
+        assertEquals(0, cache.getHits());
+        assertEquals(4, cache.size());
+        cache.predict(model, 5, 1450, DISTANCES, durations);
+        assertArrayEquals(predict(model, 5, 1450, DISTANCES), durations);
+        assertEquals(0, cache.getHits());
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws CustomException {
+        ForecastCache cache = new ForecastCache(3);
+        RiegelModel model = new RiegelModel();
+        int[] duration = new int[1];
+        cache.predict(model, 10, 3000, new float[]{1}, duration);
+        cache.predict(model, 10, 3000, new float[]{2}, duration);
+        cache.predict(model, 10, 3000, new float[]{3}, duration);
+        // use 1, so that 2 is the least recently used
+        cache.predict(model, 10, 3000, new float[]{1}, duration);
+        cache.predict(model, 10, 3000, new float[]{4}, duration);
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getHits());
+        cache.predict(model, 10, 3000, new float[]{1, 3, 4}, new int[3]);
+        assertEquals(4, cache.getHits());
+        cache.predict(model, 10, 3000, new float[]{2}, duration);
+        assertEquals(4, cache.getHits());
+        assertEquals(5, cache.getMisses());
+        assertEquals(predict(model, 10, 3000, new float[]{2})[0], duration[0]);
+    }
+
+    @Test
+    public void testManyDistances() throws CustomException {
+        ForecastCache cache = new ForecastCache(64);
+        RiegelModel model = new RiegelModel();
+        float[] targets = new float[200];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = 0.5f + i * 0.25f;
+        }
+        int[] durations = new int[targets.length];
+        for (int round = 0; round < 3; round++) {
+            cache.predict(model, 10, 3000, targets, durations);
+            assertArrayEquals(predict(model, 10, 3000, targets), durations);
+        }
+        assertEquals(64, cache.size());
+    }
+
+    @Test
+    public void testInvalidBaseRun() throws CustomException {
+        ForecastCache cache = new ForecastCache(16);
+        exception.expect(CustomException.class);
+        cache.predict(new RiegelModel(), 0, 3000, DISTANCES, new int[DISTANCES.length]);
+    }
+}
@@ -0,0 +1,152 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.forecast.CameronModel;
+import com.stappert.runulator.forecast.ForecastModel;
+import com.stappert.runulator.forecast.PurdyModel;
+import com.stappert.runulator.forecast.RiegelModel;
+import com.stappert.runulator.forecast.VdotModel;
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.Run;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the forecast models.
+ */
+public class TestForecastModels {
+
+    /**
+     * All forecast models.
+     */
+    private static final ForecastModel[] MODELS = {
+            new RiegelModel(), new CameronModel(), new PurdyModel(), new VdotModel()};
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testRiegelEqualsForecastRun() throws CustomException {
+        float[] distances = createLadder();
+        int[] durations = new int[distances.length];
+        ForecastModel model = new RiegelModel();
+        for (int baseDuration = 600; baseDuration < 5 * 60 * 60; baseDuration += 997) {
+            for (float baseDistance = 1; baseDistance < 50; baseDistance += 3.7f) {
+                model.predict(baseDistance, baseDuration, distances, durations);
+                for (int i = 0; i < distances.length; i++) {
+                    // same formula as Run.getForecastRun, which fails for forecasts below 1 s
+                    int expected = (int) (baseDuration * Math.pow(distances[i] / baseDistance,
+                            RiegelModel.DEFAULT_FATIGUE_COEFFICIENT));
+                    // logarithm and power may differ in the last bit, so truncation may differ by 1 s
+                    assertEquals(expected, durations[i], 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRiegelEqualsForecastRunDuration() throws CustomException {
+        Run run = Run.createWithDistanceAndDuration(10, 3000);
+        int[] durations = new int[1];
+        new RiegelModel().predict(10, 3000, new float[]{Run.MARATHON}, durations);
+        assertEquals(run.getForecastRun(Run.MARATHON, RiegelModel.DEFAULT_FATIGUE_COEFFICIENT)
+                .getDurationAsNumber(), durations[0], 1);
+    }
+
+    @Test
+    public void testRiegelFatigueCoefficient() throws CustomException {
+        int[] durations = new int[3];
+        new RiegelModel(1.06f).predict(10, 3000, new float[]{10, 0, 20}, durations);
+        assertEquals(3000, durations[0]);
+        assertEquals(0, durations[1]);
+        assertEquals(6254, durations[2]);
+    }
+
+    @Test
+    public void testCameron() throws CustomException {
+        int[] durations = new int[2];
+        new CameronModel().predict(5, 1197, new float[]{10, Run.MARATHON}, durations);
+        assertEquals(2493, durations[0]);
+        assertEquals(11682, durations[1]);
+    }
+
+    @Test
+    public void testPurdy() throws CustomException {
+        int[] durations = new int[2];
+        new PurdyModel().predict(5, 1197, new float[]{10, Run.MARATHON}, durations);
+        assertEquals(2483, durations[0]);
+        assertEquals(12257, durations[1]);
+    }
+
+    @Test
+    public void testVdotEqualsDanielsTable() throws CustomException {
+        // VDOT 50: 5 km in 19:57, 10 km in 41:21, half marathon in 1:31:35, marathon in 3:10:49
+        int[] durations = new int[3];
+        new VdotModel().predict(5, 1197, new float[]{10, Run.HALF_MARATHON, Run.MARATHON}, durations);
+        assertEquals(41 * 60 + 21, durations[0], 3);
+        assertEquals(60 * 60 + 31 * 60 + 35, durations[1], 5);
+        assertEquals(3 * 60 * 60 + 10 * 60 + 49, durations[2], 10);
+    }
+
+    @Test
+    public void testModelsReproduceBaseRun() throws CustomException {
+        float[] distances = {Run.HALF_MARATHON};
+        int[] durations = new int[1];
+        for (ForecastModel model : MODELS) {
+            model.predict(Run.HALF_MARATHON, 6000, distances, durations);
+            assertEquals(model.getClass().getSimpleName(), 6000, durations[0], 1);
+        }
+    }
+
+    @Test
+    public void testModelsIncreaseWithDistance() throws CustomException {
+        float[] distances = createLadder();
+        int[] durations = new int[distances.length];
+        for (ForecastModel model : MODELS) {
+            model.predict(10, 2700, distances, durations);
+            for (int i = 1; i < distances.length; i++) {
+                assertTrue(model.getClass().getSimpleName() + " at " + distances[i],
+                        durations[i - 1] < durations[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testModelsInvalidTargets() throws CustomException {
+        int[] durations = {1, 1};
+        for (ForecastModel model : MODELS) {
+            model.predict(10, 2700, new float[]{0, -5}, durations);
+            assertEquals(0, durations[0]);
+            assertEquals(0, durations[1]);
+        }
+    }
+
+    @Test
+    public void testInvalidBaseRun() throws CustomException {
+        expectedException.expect(CustomException.class);
+        new VdotModel().predict(0, 3000, new float[]{10}, new int[1]);
+    }
+
+    @Test
+    public void testTooShortOutput() throws CustomException {
+        expectedException.expect(CustomException.class);
+        new CameronModel().predict(10, 3000, new float[]{10, 20}, new int[1]);
+    }
+
+    /**
+     * Creates a distance every 100 m up to 100 km.
+     *
+     * @return distances
+     */
+    private static float[] createLadder() {
+        float[] distances = new float[1000];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = (i + 1) / 10f;
+        }
+        return distances;
+    }
+}
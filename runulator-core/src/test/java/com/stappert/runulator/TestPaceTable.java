@@ -0,0 +1,71 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.PaceTable;
+import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.Unit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class PaceTable.
+ */
+public class TestPaceTable {
+
+    /**
+     * Pace and speed units.
+     */
+    private static final Unit[][] UNITS = {
+            {Unit.MIN_KM, Unit.KM_H}, {Unit.MIN_KM, Unit.MPH},
+            {Unit.MIN_MILE, Unit.KM_H}, {Unit.MIN_MILE, Unit.MPH}};
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testSameAsRun() throws CustomException {
+        for (Unit[] units : UNITS) {
+            final PaceTable table = new PaceTable(units[0], units[1]);
+            for (int pace = 1; pace <= PaceTable.MAX_PACE + 300; pace++) {
+                final Run run = Run.createWithDistanceAndPace(1, pace);
+                assertEquals(run.getPace(units[0]), table.formatPace(run));
+                assertEquals(run.getSpeed(units[1]), table.formatSpeed(run));
+                assertEquals(units[1].kmPerHourTo((float) Unit.HOUR_IN_SECONDS / pace), table.getSpeed(pace), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testSpeedNotOfPace() throws CustomException {
+        final PaceTable table = new PaceTable(Unit.MIN_MILE, Unit.MPH);
+        for (int duration = 2400; duration < 4800; duration += 13) {
+            final Run run = Run.createWithDistanceAndDuration(10, duration);
+            assertEquals(run.getPace(Unit.MIN_MILE), table.formatPace(run));
+            assertEquals(run.getSpeed(Unit.MPH), table.formatSpeed(run));
+        }
+    }
+
+    @Test
+    public void testUnits() throws CustomException {
+        final PaceTable table = new PaceTable(Unit.MIN_KM, Unit.KM_H);
+        assertTrue(table.hasUnits(Unit.MIN_KM, Unit.KM_H));
+        assertFalse(table.hasUnits(Unit.MIN_MILE, Unit.KM_H));
+        assertTrue(PaceTable.contains(PaceTable.MIN_PACE));
+        assertTrue(PaceTable.contains(PaceTable.MAX_PACE));
+        assertFalse(PaceTable.contains(PaceTable.MAX_PACE + 1));
+        exception.expect(CustomException.class);
+        new PaceTable(Unit.KM, Unit.KM_H);
+    }
+
+    @Test
+    public void testInvalidPace() throws CustomException {
+        exception.expect(CustomException.class);
+        new PaceTable(Unit.MIN_KM, Unit.KM_H).getSpeed(0);
+    }
+}
@@ -0,0 +1,196 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.storage.PersonalRecords;
+import com.stappert.runulator.storage.RunHistory;
+import com.stappert.runulator.utils.Run;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class PersonalRecords.
+ */
+public class TestPersonalRecords {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private static final int FIVE_K = 1;
+    private static final int MARATHON = 4;
+
+    @Test
+    public void testStandardDistances() {
+        assertEquals(0, PersonalRecords.indexOf(1));
+        assertEquals(FIVE_K, PersonalRecords.indexOf(5.04f));
+        assertEquals(-1, PersonalRecords.indexOf(5.06f));
+        assertEquals(3, PersonalRecords.indexOf(21.1f));
+        assertEquals(MARATHON, PersonalRecords.indexOf(Run.MARATHON));
+        assertEquals(-1, PersonalRecords.indexOf(7));
+    }
+
+    @Test
+    public void testAddRemoveAndTop() {
+        PersonalRecords records = new PersonalRecords();
+        assertEquals(0, records.getBest(FIVE_K));
+        assertTrue(records.add(5, 1500));
+        assertTrue(records.add(5, 1400));
+        assertTrue(records.add(5, 1400));
+        // scaled to 5 km: 1450 s
+        assertTrue(records.add(5.04f, 1462));
+        assertTrue(records.add(5, 1600));
+        assertFalse(records.add(7, 2000));
+        assertEquals(5, records.getCount(FIVE_K));
+        assertEquals(1400, records.getBest(FIVE_K));
+
+        int[] top = new int[4];
+        assertEquals(4, records.getTop(FIVE_K, top));
+        assertArrayEquals(new int[]{1400, 1400, 1450, 1500}, top);
+
+        assertTrue(records.remove(5, 1400));
+        assertFalse(records.remove(5, 1401));
+        assertEquals(1400, records.getBest(FIVE_K));
+        assertTrue(records.remove(5, 1400));
+        assertEquals(1450, records.getBest(FIVE_K));
+
+        int[] all = new int[10];
+        assertEquals(3, records.getTop(FIVE_K, all));
+        assertEquals(1600, all[2]);
+    }
+
+    @Test
+    public void testTopMatchesSortedList() {
+        Random random = new Random(7);
+        PersonalRecords records = new PersonalRecords();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            final int duration = 7200 + random.nextInt(10000);
+            records.add(Run.MARATHON, duration);
+            expected.add(duration);
+            if (i % 3 == 0) {
+                final Integer removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(records.remove(Run.MARATHON, removed));
+            }
+        }
+        Collections.sort(expected);
+        int[] top = new int[100];
+        assertEquals(100, records.getTop(MARATHON, top));
+        for (int i = 0; i < top.length; i++) {
+            assertEquals((int) expected.get(i), top[i]);
+        }
+        assertEquals(expected.size(), records.getCount(MARATHON));
+    }
+
+    @Test
+    public void testUpdateFromHistory() throws IOException {
+        RunHistory history = new RunHistory(new File(folder.getRoot(), "history"));
+        history.append(1, 5, 1500, 300, RunHistory.FLAG_COMPLETED);
+        history.append(1, 10, 3300, 330, RunHistory.FLAG_COMPLETED);
+        PersonalRecords records = new PersonalRecords();
+        records.update(history.getView());
+        assertEquals(2, records.getHistoryRows());
+        history.append(2, 5, 1450, 290, RunHistory.FLAG_COMPLETED);
+        records.update(history.getView());
+        assertEquals(3, records.getHistoryRows());
+        assertEquals(2, records.getCount(FIVE_K));
+        assertEquals(1450, records.getBest(FIVE_K));
+        // rebuild after history was cleared
+        history.clear();
+        history.append(3, 10, 3000, 300, RunHistory.FLAG_COMPLETED);
+        records.update(history.getView());
+        assertEquals(0, records.getCount(FIVE_K));
+        assertEquals(3000, records.getBest(2));
+    }
+
+    @Test
+    public void testCalculatedRunsAreIgnored() throws IOException {
+        RunHistory history = new RunHistory(new File(folder.getRoot(), "history"));
+        // 5 km in 15:00 only calculated
+        history.append(1, 5, 900, 180, 0);
+        history.append(1, 5, 1500, 300, RunHistory.FLAG_COMPLETED);
+        PersonalRecords records = new PersonalRecords();
+        records.update(history.getView());
+        assertEquals(2, records.getHistoryRows());
+        assertEquals(1, records.getCount(FIVE_K));
+        assertEquals(1500, records.getBest(FIVE_K));
+    }
+
+    @Test
+    public void testRemovedRunsAreRevoked() throws IOException {
+        RunHistory history = new RunHistory(new File(folder.getRoot(), "history"));
+        PersonalRecords records = new PersonalRecords();
+        // a mistyped favorite is added, removed and added again
+        history.append(1, 5, 600, 120, RunHistory.FLAG_COMPLETED);
+        history.append(1, 5, 1500, 300, RunHistory.FLAG_COMPLETED);
+        records.update(history.getView());
+        assertEquals(600, records.getBest(FIVE_K));
+        history.append(1, 5, 600, 120, RunHistory.FLAG_REMOVED);
+        records.update(history.getView());
+        assertEquals(1, records.getCount(FIVE_K));
+        assertEquals(1500, records.getBest(FIVE_K));
+        history.append(2, 5, 1500, 300, RunHistory.FLAG_REMOVED);
+        history.append(2, 5, 1500, 300, RunHistory.FLAG_COMPLETED);
+        records.update(history.getView());
+        int[] top = new int[2];
+        assertEquals(1, records.getTop(FIVE_K, top));
+        assertEquals(1500, top[0]);
+
+        // a rebuild of the history has the same result
+        PersonalRecords rebuilt = new PersonalRecords();
+        rebuilt.update(history.getView());
+        assertEquals(1, rebuilt.getCount(FIVE_K));
+        assertEquals(1500, rebuilt.getBest(FIVE_K));
+        assertFalse(history.getView().isCompleted(2));
+        assertTrue(history.getView().isRemoved(2));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        PersonalRecords records = new PersonalRecords();
+        for (int i = 0; i < 100; i++) {
+            records.add(1, 200 + i % 30);
+            records.add(Run.HALF_MARATHON, 5400 + i);
+        }
+        File file = new File(folder.getRoot(), "records.bin");
+        records.save(file);
+        PersonalRecords loaded = PersonalRecords.load(file);
+        for (int index = 0; index < PersonalRecords.DISTANCES.length; index++) {
+            assertEquals(records.getCount(index), loaded.getCount(index));
+            int[] expected = new int[50];
+            int[] actual = new int[50];
+            assertEquals(records.getTop(index, expected), loaded.getTop(index, actual));
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testChecksumMismatch() throws IOException {
+        PersonalRecords records = new PersonalRecords();
+        records.add(10, 3000);
+        File file = new File(folder.getRoot(), "records.bin");
+        records.save(file);
+        try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+            output.seek(20);
+            output.write(0x7F);
+        }
+        exception.expect(IOException.class);
+        PersonalRecords.load(file);
+    }
+}
@@ -221,11 +221,11 @@ public class TestRun {
                     Run.createWithDistanceAndPace(10, Run.parseTimeInSeconds("6:00")),
                     Run.createWithDistanceAndDuration(10, 50 * MINUTE)));
             Set<String> expectedRuns = new HashSet<>(Arrays.asList(
-                    "{'DISTANCE':22.0,'DURATION':7200,'PACE':327,'SPEED':11.0}",
-                    "{'DISTANCE':14.0,'DURATION':4200,'PACE':300,'SPEED':12.0}",
-                    "{'DISTANCE':10.0,'DURATION':3300,'PACE':330,'SPEED':10.91}",
-                    "{'DISTANCE':10.0,'DURATION':3600,'PACE':360,'SPEED':10.0}",
-                    "{'DISTANCE':10.0,'DURATION':3000,'PACE':300,'SPEED':12.0}"));
+                    "{\"DISTANCE\":22.0,\"DURATION\":7200,\"PACE\":327,\"SPEED\":11.0}",
+                    "{\"DISTANCE\":14.0,\"DURATION\":4200,\"PACE\":300,\"SPEED\":12.0}",
+                    "{\"DISTANCE\":10.0,\"DURATION\":3300,\"PACE\":330,\"SPEED\":10.91}",
+                    "{\"DISTANCE\":10.0,\"DURATION\":3600,\"PACE\":360,\"SPEED\":10.0}",
+                    "{\"DISTANCE\":10.0,\"DURATION\":3000,\"PACE\":300,\"SPEED\":12.0}"));
             Assert.assertEquals(expectedRuns, Run.runsToJson(runs));
         } catch (Exception e) {
             e.printStackTrace();
@@ -266,15 +266,15 @@ public class TestRun {
     @Test
     public void testToJson() {
         try {
-            Assert.assertEquals("{'DISTANCE':22.0,'DURATION':7200,'PACE':327,'SPEED':11.0}",
+            Assert.assertEquals("{\"DISTANCE\":22.0,\"DURATION\":7200,\"PACE\":327,\"SPEED\":11.0}",
                     Run.createWithDurationAndSpeed(2 * HOUR, 11).toJson());
-            Assert.assertEquals("{'DISTANCE':14.0,'DURATION':4200,'PACE':300,'SPEED':12.0}",
+            Assert.assertEquals("{\"DISTANCE\":14.0,\"DURATION\":4200,\"PACE\":300,\"SPEED\":12.0}",
                     Run.createWithDurationAndPace(HOUR + 10 * MINUTE, 5 * MINUTE).toJson());
-            Assert.assertEquals("{'DISTANCE':10.0,'DURATION':3300,'PACE':330,'SPEED':10.91}",
+            Assert.assertEquals("{\"DISTANCE\":10.0,\"DURATION\":3300,\"PACE\":330,\"SPEED\":10.91}",
                     Run.createWithDistanceAndSpeed(10, 10.91f).toJson());
-            Assert.assertEquals("{'DISTANCE':10.0,'DURATION':3600,'PACE':360,'SPEED':10.0}",
+            Assert.assertEquals("{\"DISTANCE\":10.0,\"DURATION\":3600,\"PACE\":360,\"SPEED\":10.0}",
                     Run.createWithDistanceAndPace(10, Run.parseTimeInSeconds("6:00")).toJson());
-            Assert.assertEquals("{'DISTANCE':10.0,'DURATION':3000,'PACE':300,'SPEED':12.0}",
+            Assert.assertEquals("{\"DISTANCE\":10.0,\"DURATION\":3000,\"PACE\":300,\"SPEED\":12.0}",
                     Run.createWithDistanceAndDuration(10, 50 * MINUTE).toJson());
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,225 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunBatch;
+import com.stappert.runulator.utils.RunBatchSolver;
+import com.stappert.runulator.utils.RunResult;
+import com.stappert.runulator.utils.RunSolver;
+import com.stappert.runulator.utils.Unit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class RunBatchSolver.
+ */
+public class TestRunBatchSolver {
+
+    /**
+     * Number of rows, big enough to be split into several tasks and not a multiple of 64.
+     */
+    private final static int SIZE = 50_003;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testSolveWithDistanceAndDuration() throws CustomException {
+        RunBatch batch = createBatch(ParameterType.DISTANCE, ParameterType.DURATION);
+        int valid = RunBatchSolver.solve(ParameterType.DISTANCE, ParameterType.DURATION, batch);
+        for (int i = 0; i < batch.size(); i++) {
+            float distance = batch.getDistances()[i];
+            int duration = batch.getDurations()[i];
+            if (distance > 0 && duration > 0) {
+                assertRow(Run.createWithDistanceAndDuration(distance, duration), batch, i);
+            }
+        }
+        assertValidRows(batch, valid);
+    }
+
+    @Test
+    public void testSolveWithDistanceAndPace() throws CustomException {
+        RunBatch batch = createBatch(ParameterType.DISTANCE, ParameterType.PACE);
+        int valid = RunBatchSolver.solve(ParameterType.PACE, ParameterType.DISTANCE, batch);
+        for (int i = 0; i < batch.size(); i++) {
+            float distance = batch.getDistances()[i];
+            int pace = batch.getPaces()[i];
+            if (distance > 0 && pace > 0) {
+                assertRow(Run.createWithDistanceAndPace(distance, pace), batch, i);
+            }
+        }
+        assertValidRows(batch, valid);
+    }
+
+    @Test
+    public void testSolveWithDistanceAndSpeed() throws CustomException {
+        RunBatch batch = createBatch(ParameterType.DISTANCE, ParameterType.SPEED);
+        int valid = RunBatchSolver.solve(ParameterType.DISTANCE, ParameterType.SPEED, batch);
+        for (int i = 0; i < batch.size(); i++) {
+            float distance = batch.getDistances()[i];
+            float speed = batch.getSpeeds()[i];
+            if (distance > 0 && speed > 0) {
+                assertRow(Run.createWithDistanceAndSpeed(distance, speed), batch, i);
+            }
+        }
+        assertValidRows(batch, valid);
+    }
+
+    @Test
+    public void testSolveWithDurationAndPace() throws CustomException {
+        RunBatch batch = createBatch(ParameterType.DURATION, ParameterType.PACE);
+        int valid = RunBatchSolver.solve(ParameterType.DURATION, ParameterType.PACE, batch);
+        for (int i = 0; i < batch.size(); i++) {
+            int duration = batch.getDurations()[i];
+            int pace = batch.getPaces()[i];
+            if (duration > 0 && pace > 0) {
+                assertRow(Run.createWithDurationAndPace(duration, pace), batch, i);
+            }
+        }
+        assertValidRows(batch, valid);
+    }
+
+    @Test
+    public void testSolveWithDurationAndSpeed() throws CustomException {
+        RunBatch batch = createBatch(ParameterType.DURATION, ParameterType.SPEED);
+        int valid = RunBatchSolver.solve(ParameterType.SPEED, ParameterType.DURATION, batch);
+        for (int i = 0; i < batch.size(); i++) {
+            int duration = batch.getDurations()[i];
+            float speed = batch.getSpeeds()[i];
+            if (duration > 0 && speed > 0) {
+                assertRow(Run.createWithDurationAndSpeed(duration, speed), batch, i);
+            }
+        }
+        assertValidRows(batch, valid);
+    }
+
+    @Test
+    public void testSolveSmallBatch() throws CustomException {
+        RunBatch batch = new RunBatch(3);
+        batch.getDistances()[0] = 10;
+        batch.getDurations()[0] = 3000;
+        batch.getDistances()[1] = 0;
+        batch.getDurations()[1] = 3000;
+        batch.getDistances()[2] = 5;
+        batch.getDurations()[2] = 1500;
+        assertEquals(2, RunBatchSolver.solve(ParameterType.DISTANCE, ParameterType.DURATION, batch));
+        assertTrue(batch.isValid(0));
+        assertFalse(batch.isValid(1));
+        assertTrue(batch.isValid(2));
+        assertEquals(300, batch.getPaces()[0]);
+        assertEquals(12f, batch.getSpeeds()[2], 0);
+    }
+
+    @Test
+    public void testNotANumberIsInvalid() throws CustomException {
+        RunBatch batch = new RunBatch(2);
+        batch.getDistances()[0] = Float.NaN;
+        batch.getSpeeds()[0] = 12;
+        batch.getDistances()[1] = 10;
+        batch.getSpeeds()[1] = Float.NaN;
+        assertEquals(0, RunBatchSolver.solve(ParameterType.DISTANCE, ParameterType.SPEED, batch));
+        assertFalse(batch.isValid(0));
+        assertFalse(batch.isValid(1));
+        // the scalar path rejects the same rows
+        for (int row = 0; row < batch.size(); row++) {
+            assertEquals(RunSolver.INVALID_VALUE, RunSolver.solveWithDistanceAndSpeed(
+                    batch.getDistances()[row], batch.getSpeeds()[row], new RunResult()));
+        }
+    }
+
+    @Test
+    public void testSolveUnsupportedParameters() throws CustomException {
+        expectedException.expect(CustomException.class);
+        RunBatchSolver.solve(ParameterType.PACE, ParameterType.SPEED, new RunBatch(1));
+    }
+
+    // =============================================================================================
+    // utils
+    // =============================================================================================
+
+    /**
+     * Creates a batch with random values for both input parameters. About every 100th value is
+     * invalid.
+     *
+     * @param parameter1 first input parameter
+     * @param parameter2 second input parameter
+     * @return batch
+     */
+    private static RunBatch createBatch(ParameterType parameter1, ParameterType parameter2) {
+        Random random = new Random(42);
+        RunBatch batch = new RunBatch(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            fill(batch, parameter1, i, random);
+            fill(batch, parameter2, i, random);
+        }
+        return batch;
+    }
+
+    /**
+     * Fills a random value of the parameter into the row.
+     *
+     * @param batch     batch
+     * @param parameter parameter to fill
+     * @param row       row
+     * @param random    random generator
+     */
+    private static void fill(RunBatch batch, ParameterType parameter, int row, Random random) {
+        boolean invalid = random.nextInt(100) == 0;
+        switch (parameter) {
+            case DISTANCE:
+                batch.getDistances()[row] = invalid ? 0 : 0.1f + random.nextFloat() * 100;
+                break;
+            case DURATION:
+                batch.getDurations()[row] = invalid ? -1 : 1 + random.nextInt(10 * Unit.HOUR_IN_SECONDS);
+                break;
+            case PACE:
+                batch.getPaces()[row] = invalid ? 0 : 120 + random.nextInt(1080);
+                break;
+            default:
+                batch.getSpeeds()[row] = invalid ? -2.5f : 3 + random.nextFloat() * 27;
+                break;
+        }
+    }
+
+    /**
+     * Asserts, that the row is valid and bit-identical to the run.
+     *
+     * @param expected expected run
+     * @param batch    batch
+     * @param row      row
+     * @throws CustomException if conversion fails
+     */
+    private static void assertRow(Run expected, RunBatch batch, int row) throws CustomException {
+        assertTrue(batch.isValid(row));
+        assertEquals(Float.floatToIntBits(expected.getDistanceAsNumber(Unit.KM)),
+                Float.floatToIntBits(batch.getDistances()[row]));
+        assertEquals(expected.getDurationAsNumber(), batch.getDurations()[row]);
+        assertEquals(expected.getPaceAsNumber(Unit.MIN_KM), batch.getPaces()[row]);
+        assertEquals(Float.floatToIntBits(expected.getSpeedAsNumber(Unit.KM_H)),
+                Float.floatToIntBits(batch.getSpeeds()[row]));
+    }
+
+    /**
+     * Asserts, that the number of valid rows matches the bitset and no bit beyond the size is set.
+     *
+     * @param batch batch
+     * @param valid number of valid rows returned by the solver
+     */
+    private static void assertValidRows(RunBatch batch, int valid) {
+        BitSet validRows = batch.getValidRows();
+        assertEquals(valid, validRows.cardinality());
+        assertTrue(validRows.length() <= batch.size());
+        assertTrue(valid < batch.size());
+        assertTrue(valid > batch.size() * 0.95);
+    }
+}
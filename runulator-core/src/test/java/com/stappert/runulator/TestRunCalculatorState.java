@@ -0,0 +1,182 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.RunCalculatorState;
+import com.stappert.runulator.utils.RunCalculatorState.Info;
+import com.stappert.runulator.utils.RunCalculatorState.Output;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class RunCalculatorState.
+ */
+public class TestRunCalculatorState {
+
+    /**
+     * Recorded input of a user, who calculates the speed of a 10 km run with a pace of 5:30 and
+     * corrects the pace afterwards. "result" stands for a finished calculation.
+     */
+    private static final String[] KEYSTROKES = {
+            "select DISTANCE", "select PACE",
+            "text1 1", "text1 10",
+            "text2 5", "text2 5:", "text2 5:3", "text2 5:30", "result",
+            "text2 5:3", "text2 5:", "text2 5", "text2 ", "text2 6", "text2 6:", "text2 6:0",
+            "text2 6:00", "result", "result"};
+
+    /**
+     * Number of changed outputs after each recorded event. Typing does not touch any view, until
+     * the input becomes incomplete or a result arrives, and a result only touches the changed
+     * values, e.g. calories and cadence count stay, if only the pace is corrected.
+     */
+    private static final int[] VIEW_UPDATES = {
+            3, 8,
+            0, 0,
+            0, 0, 0, 0, 6,
+            0, 0, 0, 4, 0, 0, 0,
+            0, 4, 0};
+
+    @Test
+    public void testInitialState() {
+        RunCalculatorState state = new RunCalculatorState();
+        assertEquals(Output.values().length, Long.bitCount(state.takeChanges()));
+        assertEquals(0, state.takeChanges());
+        assertEquals(Info.SELECT_TWO, state.getInfo());
+        assertNull(state.getInputParameter1());
+        assertNull(state.getInputParameter2());
+        assertFalse(state.isResultEnabled());
+        assertFalse(state.isComplete());
+        for (ParameterType parameter : new ParameterType[]{ParameterType.DISTANCE,
+                ParameterType.DURATION, ParameterType.PACE, ParameterType.SPEED}) {
+            assertFalse(state.isSelected(parameter));
+            assertTrue(state.isEnabled(parameter));
+        }
+    }
+
+    @Test
+    public void testReplayKeystrokes() {
+        RunCalculatorState state = new RunCalculatorState();
+        state.takeChanges();
+        int[] updates = new int[KEYSTROKES.length];
+        int results = 0;
+        for (int i = 0; i < KEYSTROKES.length; i++) {
+            final String[] event = KEYSTROKES[i].split(" ", 2);
+            if ("select".equals(event[0])) {
+                state.select(ParameterType.valueOf(event[1]));
+            } else if ("text1".equals(event[0])) {
+                state.setInputText1(event[1]);
+            } else if ("text2".equals(event[0])) {
+                state.setInputText2(event[1]);
+            } else {
+                results++;
+                assertTrue(state.isComplete());
+                final boolean fast = "5:30".equals(state.getInputText2());
+                state.setResult(fast ? "0:55:00" : "1:00:00", fast ? "10.91" : "10.0", "~720", "170",
+                        "{\"DISTANCE\":10.0,\"PACE\":" + (fast ? 330 : 360) + "}");
+            }
+            updates[i] = Long.bitCount(state.takeChanges());
+        }
+        assertArrayEquals(VIEW_UPDATES, updates);
+        int total = 0;
+        for (int update : updates) {
+            total += update;
+        }
+        // 19 events, of which only 5 touch any view
+        assertEquals(25, total);
+        assertEquals(ParameterType.DISTANCE, state.getInputParameter1());
+        assertEquals(ParameterType.PACE, state.getInputParameter2());
+        assertEquals(ParameterType.DURATION, state.getResultParameter1());
+        assertEquals(ParameterType.SPEED, state.getResultParameter2());
+        assertEquals(Info.NONE, state.getInfo());
+        assertEquals("10.0", state.getResultValue2());
+        assertEquals(3, results);
+    }
+
+    @Test
+    public void testIncompleteInput() {
+        RunCalculatorState state = new RunCalculatorState();
+        state.setInput(ParameterType.DURATION, "30:00", ParameterType.SPEED, "12");
+        assertTrue(state.isComplete());
+        state.setResult("6.0", "5:00", "~432", "165", "{\"DURATION\":1800,\"SPEED\":12.0}");
+        state.takeChanges();
+        state.setInputText1("");
+        final long changes = state.takeChanges();
+        assertFalse(state.isComplete());
+        assertTrue(RunCalculatorState.isChanged(changes, Output.INFO));
+        assertTrue(RunCalculatorState.isChanged(changes, Output.RESULT_VALUE_1));
+        assertTrue(RunCalculatorState.isChanged(changes, Output.RUN));
+        assertFalse(RunCalculatorState.isChanged(changes, Output.INPUT_TEXT_1));
+        assertEquals(Info.ENTER_VALUES, state.getInfo());
+        assertEquals(RunCalculatorState.NO_VALUE, state.getResultValue1());
+        assertNull(state.getRunJson());
+    }
+
+    @Test
+    public void testNotSolvable() {
+        RunCalculatorState state = new RunCalculatorState();
+        state.setInput(ParameterType.DISTANCE, "0", ParameterType.DURATION, "30:00");
+        state.takeChanges();
+        state.setNotSolvable();
+        assertEquals(1, Long.bitCount(state.takeChanges()));
+        assertEquals(Info.VALUES_GREATER_ZERO, state.getInfo());
+    }
+
+    @Test
+    public void testSwitchDuration() {
+        RunCalculatorState state = new RunCalculatorState();
+        state.select(ParameterType.DURATION);
+        state.setInputText1("30:00");
+        state.takeChanges();
+        // distance becomes parameter 1, duration moves to parameter 2
+        state.select(ParameterType.DISTANCE);
+        long changes = state.takeChanges();
+        assertEquals(ParameterType.DISTANCE, state.getInputParameter1());
+        assertEquals(ParameterType.DURATION, state.getInputParameter2());
+        assertEquals("", state.getInputText1());
+        assertEquals("30:00", state.getInputText2());
+        assertTrue(RunCalculatorState.isChanged(changes, Output.INPUT_TEXT_1));
+        assertTrue(RunCalculatorState.isChanged(changes, Output.INPUT_TEXT_2));
+        assertTrue(state.isSelected(ParameterType.DURATION));
+        assertFalse(state.isEnabled(ParameterType.PACE));
+        assertEquals(ParameterType.PACE, state.getResultParameter1());
+        assertEquals(ParameterType.SPEED, state.getResultParameter2());
+        // deselecting distance moves duration back to parameter 1
+        state.select(ParameterType.DISTANCE);
+        assertEquals(ParameterType.DURATION, state.getInputParameter1());
+        assertNull(state.getInputParameter2());
+        assertEquals("30:00", state.getInputText1());
+        assertEquals("", state.getInputText2());
+        // deselecting duration clears its text
+        state.select(ParameterType.DURATION);
+        assertNull(state.getInputParameter1());
+        assertEquals("", state.getInputText1());
+        assertEquals(Info.SELECT_TWO, state.getInfo());
+    }
+
+    @Test
+    public void testSinglePace() {
+        RunCalculatorState state = new RunCalculatorState();
+        state.select(ParameterType.PACE);
+        assertEquals(ParameterType.SPEED, state.getResultParameter1());
+        assertNull(state.getResultParameter2());
+        assertFalse(state.isResultEnabled());
+        assertTrue(state.isEnabled(ParameterType.PACE));
+        assertFalse(state.isEnabled(ParameterType.SPEED));
+        state.select(ParameterType.PACE);
+        assertNull(state.getInputParameter2());
+        assertNull(state.getResultParameter1());
+    }
+
+    @Test
+    public void testInvalidate() {
+        RunCalculatorState state = new RunCalculatorState();
+        state.takeChanges();
+        state.invalidate();
+        assertEquals(Output.values().length, Long.bitCount(state.takeChanges()));
+    }
+}
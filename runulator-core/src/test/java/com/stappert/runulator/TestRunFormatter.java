@@ -0,0 +1,182 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunFormatter;
+import com.stappert.runulator.utils.Unit;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests class RunFormatter against the former formatting with string concatenation and
+ * String.format.
+ */
+public class TestRunFormatter {
+
+    /**
+     * 100 hours in seconds.
+     */
+    private static final int MAX_SECONDS = 100 * 60 * 60;
+
+    /**
+     * Number of random values.
+     */
+    private static final int RANDOM_VALUES = 200000;
+
+    // =============================================================================================
+    // former formatting
+    // =============================================================================================
+
+    private static String formatSeconds(int totalSeconds) {
+        if (totalSeconds <= 0) {
+            return "0";
+        } else {
+            int hours = totalSeconds / Unit.HOUR_IN_SECONDS;
+            int minutes = totalSeconds / Unit.MINUTE_IN_SECONDS % Unit.MINUTE_IN_SECONDS;
+            int seconds = totalSeconds % Unit.MINUTE_IN_SECONDS % Unit.MINUTE_IN_SECONDS;
+            return (hours > 0 ? hours + ":" : "")
+                    + (hours > 0 && 10 > minutes ? "0" + minutes + ":" : minutes > 0 ? minutes + ":" : "")
+                    + (hours + minutes > 0 && 10 > seconds ? "0" + seconds : seconds);
+        }
+    }
+
+    private static String formatPace(int pace) {
+        String paceString = formatSeconds(pace);
+        return paceString.length() == 1 ? "00:0" + paceString
+                : paceString.length() == 2 ? "00:" + paceString : paceString;
+    }
+
+    private static String formatDistance(float distance) {
+        int noOfDecimalPlaces = Float.toString(distance).split("\\.")[1].length();
+        return String.format(Locale.ENGLISH, "%." + (noOfDecimalPlaces < 4 ? noOfDecimalPlaces : 4) + "f", distance);
+    }
+
+    private static String formatSpeed(float speed) {
+        int noOfDecimalPlaces = Float.toString(speed).split("\\.")[1].length();
+        return String.format(Locale.ENGLISH, "%." + (noOfDecimalPlaces <= 1 ? 1 : 2) + "f", speed);
+    }
+
+    // =============================================================================================
+    // tests
+    // =============================================================================================
+
+    @Test
+    public void testSeconds() {
+        final StringBuilder sink = new StringBuilder();
+        for (int seconds = -1; seconds <= MAX_SECONDS; seconds++) {
+            sink.setLength(0);
+            assertEquals(formatSeconds(seconds), RunFormatter.appendSeconds(sink, seconds).toString());
+            assertEquals(formatSeconds(seconds), Unit.formatSeconds(seconds));
+        }
+    }
+
+    @Test
+    public void testPace() {
+        final StringBuilder sink = new StringBuilder();
+        for (int pace = -1; pace <= MAX_SECONDS; pace++) {
+            sink.setLength(0);
+            assertEquals(formatPace(pace), RunFormatter.appendPace(sink, pace).toString());
+        }
+    }
+
+    @Test
+    public void testDistance() throws CustomException {
+        final StringBuilder sink = new StringBuilder();
+        // all distances in meters up to 250 km, also in miles
+        for (int meters = 0; meters <= 250000; meters++) {
+            for (float distance : new float[]{meters / 1000f, Unit.MILE.kmTo(meters / 1000f)}) {
+                sink.setLength(0);
+                assertEquals(formatDistance(distance), RunFormatter.appendDistance(sink, distance).toString());
+            }
+        }
+        final Random random = new Random(42);
+        for (int i = 0; i < RANDOM_VALUES; i++) {
+            final float distance = Float.intBitsToFloat(random.nextInt() & 0x7FFFFFFF);
+            if (!Float.isNaN(distance)) {
+                sink.setLength(0);
+                assertEquals(formatDistance(distance), RunFormatter.appendDistance(sink, distance).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testSpeed() throws CustomException {
+        final StringBuilder sink = new StringBuilder();
+        for (int i = 0; i <= 100000; i++) {
+            for (float speed : new float[]{i / 1000f, Unit.MPH.kmPerHourTo(i / 1000f)}) {
+                sink.setLength(0);
+                assertEquals(formatSpeed(speed), RunFormatter.appendSpeed(sink, speed).toString());
+            }
+        }
+        final Random random = new Random(7);
+        for (int i = 0; i < RANDOM_VALUES; i++) {
+            final float speed = random.nextFloat() * 100;
+            sink.setLength(0);
+            assertEquals(formatSpeed(speed), RunFormatter.appendSpeed(sink, speed).toString());
+        }
+    }
+
+    @Test
+    public void testRunGetters() throws CustomException {
+        for (int duration = 1000; duration < 20000; duration += 7) {
+            final Run run = Run.createWithDistanceAndDuration(10.5f, duration);
+            assertEquals(formatSeconds(duration), run.getDuration());
+            assertEquals(formatDistance(run.getDistanceAsNumber(Unit.MILE)), run.getDistance(Unit.MILE));
+            assertEquals(formatPace(run.getPaceAsNumber(Unit.MIN_MILE)), run.getPace(Unit.MIN_MILE));
+            assertEquals(formatSpeed(run.getSpeedAsNumber(Unit.KM_H)), run.getSpeed(Unit.KM_H));
+        }
+    }
+
+    @Test
+    public void testFixed() {
+        final StringBuilder sink = new StringBuilder();
+        final Random random = new Random(11);
+        for (int i = 0; i < RANDOM_VALUES; i++) {
+            final float value = (random.nextFloat() - 0.5f) * 20000;
+            final int decimalPlaces = i % (RunFormatter.MAX_DECIMAL_PLACES + 1);
+            sink.setLength(0);
+            assertEquals(String.format(Locale.ENGLISH, "%." + decimalPlaces + "f", value),
+                    RunFormatter.appendFixed(sink, value, decimalPlaces).toString());
+        }
+        // ties are rounded half up
+        for (float value : new float[]{0.5f, 1.25f, 0.03125f, -0.03125f, -0f, 2.675f}) {
+            for (int decimalPlaces = 0; decimalPlaces <= RunFormatter.MAX_DECIMAL_PLACES; decimalPlaces++) {
+                sink.setLength(0);
+                assertEquals(String.format(Locale.ENGLISH, "%." + decimalPlaces + "f", value),
+                        RunFormatter.appendFixed(sink, value, decimalPlaces).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testUnitFormat() {
+        final StringBuilder sink = new StringBuilder();
+        for (Unit unit : Unit.values()) {
+            for (double value : new double[]{0, 45, 60, 61, 3599, 3600, 7384, 12.5}) {
+                final String expected;
+                switch (unit) {
+                    case MINUTE:
+                    case HOUR:
+                        expected = formatSeconds((int) value) + " " + (value >= Unit.HOUR_IN_SECONDS ? "h" : value > Unit.MINUTE_IN_SECONDS ? "min" : "sec");
+                        break;
+                    case MIN_KM:
+                        expected = formatSeconds((int) value) + " " + (value >= Unit.HOUR_IN_SECONDS ? "h" : value > Unit.MINUTE_IN_SECONDS ? "min" : "sec") + "/" + Unit.KM;
+                        break;
+                    case MIN_MILE:
+                        expected = formatSeconds((int) value) + " " + (value >= Unit.HOUR_IN_SECONDS ? "h" : value > Unit.MINUTE_IN_SECONDS ? "min" : "sec") + "/" + unit;
+                        break;
+                    default:
+                        expected = value + " " + unit;
+                }
+                assertEquals(expected, unit.format(value));
+                sink.setLength(0);
+                assertEquals(expected, unit.format(sink, value).toString());
+            }
+        }
+    }
+}
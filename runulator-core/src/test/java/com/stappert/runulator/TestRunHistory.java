@@ -0,0 +1,158 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.storage.RunHistory;
+import com.stappert.runulator.storage.RunHistoryView;
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests classes RunHistory and RunHistoryView.
+ */
+public class TestRunHistory {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final int INPUT = 1 << ParameterType.DISTANCE.ordinal()
+            | 1 << ParameterType.DURATION.ordinal();
+
+    @Test
+    public void testAppendAndRead() throws IOException, CustomException {
+        File directory = new File(folder.getRoot(), "history");
+        RunHistory history = new RunHistory(directory);
+        assertEquals(0, history.getView().size());
+        history.append(18000, 10.5f, 3125, 298, INPUT);
+        history.append(18001, 5, 1500, 300, INPUT | RunHistory.FLAG_COMPLETED);
+        assertEquals(2, history.size());
+        RunHistoryView view = history.getView();
+        assertEquals(2, view.size());
+        assertEquals(18000, view.getEpochDay(0));
+        assertEquals(10500, view.getDistanceInMeters(0));
+        assertEquals(10.5f, view.getDistance(0), 0);
+        assertEquals(3125, view.getDuration(0));
+        assertEquals(3125000, view.getDurationInMillis(0));
+        assertEquals(298, view.getPace(0));
+        assertEquals(12.096f, view.getSpeed(0), 0.001f);
+        assertEquals(INPUT, view.getFlags(0) & RunHistory.INPUT_MASK);
+        assertFalse(view.isCompleted(0));
+        assertTrue(view.isCompleted(1));
+        assertEquals(Run.createWithDistanceAndDuration(10.5f, 3125), view.toRun(0));
+        assertSame(view, history.getView());
+
+        // reopen
+        RunHistoryView reopened = new RunHistory(directory).getView();
+        assertEquals(2, reopened.size());
+        assertEquals(5000, reopened.getDistanceInMeters(1));
+    }
+
+    @Test
+    public void testScans() throws IOException {
+        RunHistory history = new RunHistory(folder.getRoot());
+        for (int i = 0; i < 1000; i++) {
+            history.append(i, 1 + i % 10, 300 + 300 * (i % 10), 400 - i % 7, INPUT);
+        }
+        RunHistoryView view = history.getView();
+        assertEquals(1000, view.size());
+        assertEquals(10, view.count(100, 109));
+        assertEquals(55000, view.totalDistanceInMeters(100, 109));
+        final int fastest = view.fastestPace(10000);
+        assertEquals(10000, view.getDistanceInMeters(fastest));
+        assertEquals(394, view.getPace(fastest));
+        assertEquals(-1, view.fastestPace(11000));
+    }
+
+    @Test
+    public void testTornAppendIsIgnored() throws IOException {
+        File directory = folder.getRoot();
+        RunHistory history = new RunHistory(directory);
+        history.append(1, 10, 3000, 300, INPUT);
+        history.flush();
+        // a second row, which was only written to the distance column
+        try (FileOutputStream output = new FileOutputStream(new File(directory, "distance.col"), true)) {
+            output.write(new byte[]{1, 2, 3, 4});
+        }
+        history = new RunHistory(directory);
+        assertEquals(1, history.size());
+        history.append(2, 5, 1500, 300, INPUT);
+        RunHistoryView view = history.getView();
+        assertEquals(2, view.size());
+        assertEquals(5000, view.getDistanceInMeters(1));
+        assertEquals(2, view.getEpochDay(1));
+    }
+
+    @Test
+    public void testFailedColumnIsTruncated() throws IOException {
+        File directory = folder.getRoot();
+        RunHistory history = new RunHistory(directory);
+        history.append(1, 10, 3000, 300, INPUT);
+        // the pace column can not be written, after day, distance and duration were appended
+        File paceColumn = new File(directory, "pace.col");
+        assertTrue(paceColumn.mkdir());
+        try {
+            history.flush();
+            fail("flush with unwritable column");
+        } catch (IOException ex) {
+            assertEquals(1, history.size());
+        }
+        assertTrue(paceColumn.delete());
+        history.append(2, 5, 1500, 290, INPUT | RunHistory.FLAG_COMPLETED);
+        RunHistoryView view = history.getView();
+        assertEquals(2, view.size());
+        assertEquals(4 * 2, new File(directory, "day.col").length());
+        assertEquals(1, view.getEpochDay(0));
+        assertEquals(10000, view.getDistanceInMeters(0));
+        assertEquals(300, view.getPace(0));
+        assertFalse(view.isCompleted(0));
+        assertEquals(2, view.getEpochDay(1));
+        assertEquals(1500, view.getDuration(1));
+        assertEquals(290, view.getPace(1));
+        assertTrue(view.isCompleted(1));
+    }
+
+    @Test
+    public void testLongestDuration() throws IOException {
+        RunHistory history = new RunHistory(folder.getRoot());
+        assertTrue(RunHistory.canAppend(1000, RunHistory.MAX_DURATION));
+        assertFalse(RunHistory.canAppend(1000, RunHistory.MAX_DURATION + 1));
+        assertFalse(RunHistory.canAppend(3e6f, 3600));
+        history.append(1, 1000, RunHistory.MAX_DURATION, 3600, INPUT);
+        RunHistoryView view = history.getView();
+        assertEquals(RunHistory.MAX_DURATION, view.getDuration(0));
+        assertTrue(view.getSpeed(0) > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDurationTooLong() throws IOException {
+        // 1000 km at 36 min/km, the duration in milliseconds does not fit into an int
+        new RunHistory(folder.getRoot()).append(1, 1000, 1000 * 36 * 60, 36 * 60, INPUT);
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        RunHistory history = new RunHistory(folder.getRoot());
+        for (int i = 0; i < 300; i++) {
+            history.append(i, 10, 3000, 300, INPUT);
+        }
+        RunHistoryView view = history.getView();
+        history.clear();
+        assertEquals(0, history.size());
+        assertEquals(0, history.getView().size());
+        assertEquals(300, view.size());
+        assertEquals(299, view.getEpochDay(299));
+    }
+}
@@ -0,0 +1,107 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunJsonCodec;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests class RunJsonCodec.
+ */
+public class TestRunJsonCodec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private static final int DISTANCE = 1 << ParameterType.DISTANCE.ordinal();
+    private static final int DURATION = 1 << ParameterType.DURATION.ordinal();
+    private static final int PACE = 1 << ParameterType.PACE.ordinal();
+    private static final int SPEED = 1 << ParameterType.SPEED.ordinal();
+
+    @Test
+    public void testWrite() {
+        StringBuilder out = new StringBuilder("run=");
+        RunJsonCodec.write(out, 10.5f, 3125, 298, 12.096f);
+        assertEquals("run={\"DISTANCE\":10.5,\"DURATION\":3125,\"PACE\":298,\"SPEED\":12.096}",
+                out.toString());
+        out.setLength(0);
+        RunJsonCodec.write(out, ParameterType.DURATION, 3125, ParameterType.SPEED, 12.1f);
+        assertEquals("{\"DURATION\":3125,\"SPEED\":12.1}", out.toString());
+    }
+
+    @Test
+    public void testReadStandardAndLegacyForm() throws CustomException {
+        for (String json : new String[]{
+                "{\"DISTANCE\":10.5,\"DURATION\":3125,\"PACE\":298,\"SPEED\":12.096}",
+                "{'DISTANCE':10.5,'DURATION':3125,'PACE':298,'SPEED':12.096}",
+                " { 'DISTANCE' : 10.5 ,\n\"DURATION\": 3125, 'PACE':298 , 'SPEED' :12.096 } "}) {
+            float[] values = new float[RunJsonCodec.VALUE_COUNT];
+            assertEquals(DISTANCE | DURATION | PACE | SPEED, RunJsonCodec.read(json, values));
+            assertEquals(10.5f, values[0], 0);
+            assertEquals(3125, values[1], 0);
+            assertEquals(298, values[2], 0);
+            assertEquals(12.096f, values[3], 0);
+        }
+    }
+
+    @Test
+    public void testReadSkipsUnknownKeys() throws CustomException {
+        float[] values = new float[RunJsonCodec.VALUE_COUNT];
+        assertEquals(PACE | SPEED, RunJsonCodec.read(
+                "{\"NAME\":\"it's a \\\"run\\\"\",\"PACE\":300,\"FLAG\":true,\"SPEED\":1.2E1,\"X\":null}",
+                values));
+        assertEquals(300, values[2], 0);
+        assertEquals(12, values[3], 0);
+        assertEquals(0, RunJsonCodec.read("{ }", values));
+    }
+
+    @Test
+    public void testReadIsExact() throws CustomException {
+        Random random = new Random(42);
+        float[] values = new float[RunJsonCodec.VALUE_COUNT];
+        for (int i = 0; i < 100000; i++) {
+            final float expected = i % 2 == 0 ? random.nextFloat() * 100
+                    : Float.intBitsToFloat(random.nextInt() & 0x7F7FFFFF);
+            RunJsonCodec.read("{\"SPEED\":" + expected + "}", values);
+            assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(values[3]));
+            final String decimal = String.valueOf(random.nextInt(1000000) / 1000.0);
+            RunJsonCodec.read("{'DISTANCE':" + decimal + "}", values);
+            assertEquals(Float.floatToIntBits(Float.parseFloat(decimal)),
+                    Float.floatToIntBits(values[0]));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws CustomException {
+        Run run = Run.createWithDistanceAndSpeed(Run.HALF_MARATHON, 13.37f);
+        assertEquals(run, Run.jsonToRun(run.toJson()));
+        assertEquals(Run.createWithDurationAndPace(3600, 290),
+                Run.jsonToRun(Run.jsonWithDurationAndPace(3600, 290)));
+    }
+
+    @Test
+    public void testReadInvalidNumber() throws CustomException {
+        exception.expect(CustomException.class);
+        RunJsonCodec.read("{'DISTANCE':1.2.3}", new float[RunJsonCodec.VALUE_COUNT]);
+    }
+
+    @Test
+    public void testReadUnterminated() throws CustomException {
+        exception.expect(CustomException.class);
+        RunJsonCodec.read("{'DISTANCE':10,'DURATION':3000", new float[RunJsonCodec.VALUE_COUNT]);
+    }
+
+    @Test
+    public void testReadNoObject() throws CustomException {
+        exception.expect(CustomException.class);
+        RunJsonCodec.read("DISTANCE:10", new float[RunJsonCodec.VALUE_COUNT]);
+    }
+}
@@ -0,0 +1,210 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.storage.RunEntry;
+import com.stappert.runulator.storage.RunLog;
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests classes RunLog and RunEntry.
+ */
+public class TestRunLog {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testEntryJson() throws CustomException {
+        List<String> runsJson = Arrays.asList(
+                Run.jsonWithDistanceAndDuration(10.5f, 3125),
+                Run.jsonWithDistanceAndPace(10.5f, 298),
+                Run.jsonWithDistanceAndSpeed(10.5f, 12.1f),
+                Run.jsonWithDurationAndPace(3125, 298),
+                Run.jsonWithDurationAndSpeed(3125, 12.1f));
+        for (String runJson : runsJson) {
+            RunEntry entry = RunEntry.fromJson(runJson, 42);
+            assertEquals(runJson, entry.toJson());
+            assertEquals(Run.jsonToRun(runJson).toJson(), entry.toRun().toJson());
+            assertEquals(42, entry.getTimestamp());
+        }
+    }
+
+    @Test
+    public void testEntryInputs() throws CustomException {
+        RunEntry entry = RunEntry.create(ParameterType.SPEED, 12, ParameterType.DISTANCE, 10, 0);
+        assertEquals(ParameterType.DISTANCE, entry.getInput(0));
+        assertEquals(ParameterType.SPEED, entry.getInput(1));
+        assertEquals(3000, entry.getDuration());
+        assertEquals(300, entry.getPace());
+        assertEquals(entry, RunEntry.create(ParameterType.DISTANCE, 10, ParameterType.SPEED, 12, 99));
+        assertFalse(entry.equals(RunEntry.create(ParameterType.DISTANCE, 10, ParameterType.DURATION, 3000, 0)));
+    }
+
+    @Test
+    public void testEntryInvalidRun() throws CustomException {
+        expectedException.expect(CustomException.class);
+        RunEntry.create(ParameterType.DISTANCE, 0, ParameterType.DURATION, 3000, 0);
+    }
+
+    @Test
+    public void testAppendAndLoad() throws IOException, CustomException {
+        RunLog log = new RunLog(new File(folder.getRoot(), "runs.bin"));
+        assertFalse(log.exists());
+        assertTrue(log.load().isEmpty());
+        List<RunEntry> entries = createEntries(100);
+        for (RunEntry entry : entries) {
+            log.append(entry);
+        }
+        assertTrue(log.exists());
+        assertEntries(entries, log.load());
+    }
+
+    @Test
+    public void testRewrite() throws IOException, CustomException {
+        RunLog log = new RunLog(new File(folder.getRoot(), "runs.bin"));
+        List<RunEntry> entries = createEntries(10);
+        log.rewrite(entries);
+        entries.remove(3);
+        log.rewrite(entries);
+        assertEntries(entries, log.load());
+        log.append(entries.get(0));
+        entries.add(entries.get(0));
+        assertEntries(entries, log.load());
+        log.delete();
+        assertFalse(log.exists());
+    }
+
+    @Test
+    public void testLoadManyEntries() throws IOException, CustomException {
+        RunLog log = new RunLog(new File(folder.getRoot(), "runs.bin"));
+        List<RunEntry> entries = createEntries(100_000);
+        log.rewrite(entries);
+        assertEquals(12 + 100_000 * 28, new File(folder.getRoot(), "runs.bin").length());
+        assertEntries(entries, log.load());
+    }
+
+    @Test
+    public void testIncompleteRecordIsIgnored() throws IOException, CustomException {
+        File file = new File(folder.getRoot(), "runs.bin");
+        RunLog log = new RunLog(file);
+        List<RunEntry> entries = createEntries(3);
+        log.rewrite(entries);
+        // header claims one more record than written completely
+        try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+            output.seek(8);
+            output.writeInt(4);
+            output.seek(output.length());
+            output.write(new byte[10]);
+        }
+        assertEntries(entries, log.load());
+    }
+
+    @Test
+    public void testIncompleteHeaderIsEmpty() throws IOException, CustomException {
+        File file = new File(folder.getRoot(), "runs.bin");
+        RunLog log = new RunLog(file);
+        for (int length : new int[]{0, 5}) {
+            try (FileOutputStream output = new FileOutputStream(file)) {
+                output.write(new byte[length]);
+            }
+            assertEquals(0, log.load().size());
+        }
+        // the header is written again with the next entry
+        List<RunEntry> entries = createEntries(2);
+        for (RunEntry entry : entries) {
+            log.append(entry);
+        }
+        assertEntries(entries, log.load());
+    }
+
+    @Test
+    public void testNoRunLog() throws IOException {
+        File file = new File(folder.getRoot(), "runs.bin");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write("{'DISTANCE':10.0}".getBytes("UTF-8"));
+        }
+        expectedException.expect(IOException.class);
+        new RunLog(file).load();
+    }
+
+    // =============================================================================================
+    // utils
+    // =============================================================================================
+
+    /**
+     * Creates entries with all combinations of input parameters.
+     *
+     * @param count number of entries
+     * @return entries
+     * @throws CustomException if run can not be calculated
+     */
+    private static List<RunEntry> createEntries(int count) throws CustomException {
+        ParameterType[][] inputs = {
+                {ParameterType.DISTANCE, ParameterType.DURATION},
+                {ParameterType.DISTANCE, ParameterType.PACE},
+                {ParameterType.DISTANCE, ParameterType.SPEED},
+                {ParameterType.DURATION, ParameterType.PACE},
+                {ParameterType.DURATION, ParameterType.SPEED}};
+        List<RunEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ParameterType[] input = inputs[i % inputs.length];
+            entries.add(RunEntry.create(input[0], value(input[0], i), input[1], value(input[1], i),
+                    1_600_000_000_000L + i));
+        }
+        return entries;
+    }
+
+    /**
+     * Returns a valid value of the parameter.
+     *
+     * @param parameter run parameter
+     * @param i         index of entry
+     * @return value
+     */
+    private static float value(ParameterType parameter, int i) {
+        switch (parameter) {
+            case DISTANCE:
+                return 1 + (i % 500) / 10f;
+            case DURATION:
+                return 600 + i % 10_000;
+            case PACE:
+                return 180 + i % 300;
+            default:
+                return 8 + (i % 100) / 10f;
+        }
+    }
+
+    /**
+     * Asserts, that the entries and their timestamps are equal.
+     *
+     * @param expected expected entries
+     * @param actual   actual entries
+     */
+    private static void assertEntries(List<RunEntry> expected, List<RunEntry> actual) {
+        assertEquals(expected, actual);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+        }
+    }
+}
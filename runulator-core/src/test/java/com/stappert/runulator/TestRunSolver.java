@@ -0,0 +1,93 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.utils.CustomException;
+import com.stappert.runulator.utils.ParameterType;
+import com.stappert.runulator.utils.Run;
+import com.stappert.runulator.utils.RunResult;
+import com.stappert.runulator.utils.RunSolver;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests class RunSolver.
+ */
+public class TestRunSolver {
+
+    /**
+     * Number of calculations to measure allocations.
+     */
+    private final static int ITERATIONS = 100_000;
+
+    @Test
+    public void testSolveEqualsRunFactories() throws CustomException {
+        RunResult result = new RunResult();
+        for (int duration = 1; duration < 5 * 60 * 60; duration += 97) {
+            for (float distance = 0.1f; distance < 50; distance += 1.3f) {
+                final int pace = duration / 10 + 1;
+                final float speed = distance / 3 + 0.5f;
+                assertEquals(RunSolver.OK, RunSolver.solve(ParameterType.DISTANCE, distance, ParameterType.DURATION, duration, result));
+                assertEquals(Run.createWithDistanceAndDuration(distance, duration).toJson(), Run.createWithResult(result).toJson());
+                assertEquals(RunSolver.OK, RunSolver.solve(ParameterType.PACE, pace, ParameterType.DISTANCE, distance, result));
+                assertEquals(Run.createWithDistanceAndPace(distance, pace).toJson(), Run.createWithResult(result).toJson());
+                assertEquals(RunSolver.OK, RunSolver.solve(ParameterType.DISTANCE, distance, ParameterType.SPEED, speed, result));
+                assertEquals(Run.createWithDistanceAndSpeed(distance, speed).toJson(), Run.createWithResult(result).toJson());
+                assertEquals(RunSolver.OK, RunSolver.solve(ParameterType.DURATION, duration, ParameterType.PACE, pace, result));
+                assertEquals(Run.createWithDurationAndPace(duration, pace).toJson(), Run.createWithResult(result).toJson());
+                assertEquals(RunSolver.OK, RunSolver.solve(ParameterType.SPEED, speed, ParameterType.DURATION, duration, result));
+                assertEquals(Run.createWithDurationAndSpeed(duration, speed).toJson(), Run.createWithResult(result).toJson());
+            }
+        }
+    }
+
+    @Test
+    public void testSolveInvalidValues() {
+        RunResult result = new RunResult();
+        assertEquals(RunSolver.INVALID_VALUE, RunSolver.solveWithDistanceAndDuration(0, 50, result));
+        assertEquals(RunSolver.INVALID_VALUE, RunSolver.solveWithDistanceAndPace(10, -300, result));
+        assertEquals(RunSolver.INVALID_VALUE, RunSolver.solveWithDistanceAndSpeed(-1, 12, result));
+        assertEquals(RunSolver.INVALID_VALUE, RunSolver.solveWithDurationAndPace(3600, 0, result));
+        assertEquals(RunSolver.INVALID_VALUE, RunSolver.solveWithDurationAndSpeed(0, 0, result));
+        assertEquals(RunSolver.UNSUPPORTED_PARAMETERS, RunSolver.solve(ParameterType.PACE, 300, ParameterType.SPEED, 12, result));
+        assertEquals(RunSolver.UNSUPPORTED_PARAMETERS, RunSolver.solve(ParameterType.DISTANCE, 10, ParameterType.DISTANCE, 10, result));
+        assertEquals(RunSolver.UNSUPPORTED_PARAMETERS, RunSolver.solve(ParameterType.WEIGHT, 80, ParameterType.DISTANCE, 10, result));
+        assertEquals(RunSolver.UNSUPPORTED_PARAMETERS, RunSolver.solve(null, 80, ParameterType.DISTANCE, 10, result));
+    }
+
+    @Test
+    public void testSolveDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        RunResult result = new RunResult();
+        // warm up, so that the measurement is done in steady state
+        int checksum = solveAll(result);
+        final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        checksum += solveAll(result);
+        final long allocatedAfter = threadBean.getThreadAllocatedBytes(threadId);
+        assertEquals(0, checksum);
+        assertEquals(0, allocatedAfter - allocatedBefore);
+    }
+
+    /**
+     * Calculates runs with all combinations of parameters, including invalid values.
+     *
+     * @param result result to reuse
+     * @return number of calculations with unsupported parameters
+     */
+    private int solveAll(RunResult result) {
+        int checksum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            final float distance = i % 50;
+            final int seconds = i % 7200;
+            checksum += RunSolver.solve(ParameterType.DISTANCE, distance, ParameterType.DURATION, seconds, result) / RunSolver.UNSUPPORTED_PARAMETERS;
+            checksum += RunSolver.solve(ParameterType.DISTANCE, distance, ParameterType.PACE, seconds, result) / RunSolver.UNSUPPORTED_PARAMETERS;
+            checksum += RunSolver.solve(ParameterType.DISTANCE, distance, ParameterType.SPEED, distance, result) / RunSolver.UNSUPPORTED_PARAMETERS;
+            checksum += RunSolver.solve(ParameterType.DURATION, seconds, ParameterType.PACE, seconds, result) / RunSolver.UNSUPPORTED_PARAMETERS;
+            checksum += RunSolver.solve(ParameterType.DURATION, seconds, ParameterType.SPEED, distance, result) / RunSolver.UNSUPPORTED_PARAMETERS;
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,74 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.utils.TimeParser;
+import com.stappert.runulator.utils.Unit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class TimeParser.
+ */
+public class TestTimeParser {
+
+    /**
+     * 100 hours in seconds.
+     */
+    private static final int MAX_SECONDS = 100 * 60 * 60;
+
+    @Test
+    public void testRoundTripWithFormatSeconds() {
+        final StringBuilder time = new StringBuilder();
+        for (int seconds = 0; seconds <= MAX_SECONDS; seconds++) {
+            time.setLength(0);
+            time.append(Unit.formatSeconds(seconds));
+            assertEquals(time.toString(), seconds, TimeParser.parseSeconds(time));
+        }
+    }
+
+    @Test
+    public void testFormats() {
+        assertEquals(0, TimeParser.parseSeconds(null));
+        assertEquals(0, TimeParser.parseSeconds(""));
+        assertEquals(59, TimeParser.parseSeconds("59"));
+        assertEquals(90, TimeParser.parseSeconds("1:30"));
+        assertEquals(3599, TimeParser.parseSeconds("00:59:59"));
+        assertEquals(3 * 3600, TimeParser.parseSeconds("1:120:00"));
+        assertEquals(4200, TimeParser.parseSeconds("0:0:4200"));
+        // trailing colons while typing
+        assertEquals(5, TimeParser.parseSeconds("5:"));
+        assertEquals(5, TimeParser.parseSeconds("5::"));
+        assertEquals(0, TimeParser.parseSeconds(":::"));
+    }
+
+    @Test
+    public void testFractionOfSeconds() {
+        assertEquals(330, TimeParser.parseSeconds("5:30.4"));
+        assertEquals(331, TimeParser.parseSeconds("5:30.5"));
+        assertEquals(331, TimeParser.parseSeconds("5:30,99"));
+        assertEquals(330, TimeParser.parseSeconds("5:30.49"));
+        assertEquals(330, TimeParser.parseSeconds("5:30."));
+        assertEquals(3600, TimeParser.parseSeconds("59:59.5"));
+    }
+
+    @Test
+    public void testStatusCodes() {
+        assertEquals(TimeParser.EMPTY_SEGMENT, TimeParser.parseSeconds("::00"));
+        assertEquals(TimeParser.EMPTY_SEGMENT, TimeParser.parseSeconds(":30"));
+        assertEquals(TimeParser.INVALID_CHARACTER, TimeParser.parseSeconds("weer24"));
+        assertEquals(TimeParser.INVALID_CHARACTER, TimeParser.parseSeconds("-5"));
+        assertEquals(TimeParser.INVALID_CHARACTER, TimeParser.parseSeconds("5 :30"));
+        assertEquals(TimeParser.TOO_MANY_SEGMENTS, TimeParser.parseSeconds("1:2:3:4"));
+        assertEquals(TimeParser.MISPLACED_FRACTION, TimeParser.parseSeconds("1,45,11"));
+        assertEquals(TimeParser.MISPLACED_FRACTION, TimeParser.parseSeconds("5.5:30"));
+        assertEquals(TimeParser.MISPLACED_FRACTION, TimeParser.parseSeconds(".5"));
+        assertEquals(TimeParser.TOO_LONG, TimeParser.parseSeconds("2147483648"));
+        assertEquals(TimeParser.TOO_LONG, TimeParser.parseSeconds("596524:00:00"));
+        assertEquals(Integer.MAX_VALUE, TimeParser.parseSeconds("2147483647"));
+        assertTrue(TimeParser.isError(TimeParser.parseSeconds("1:x")));
+        assertFalse(TimeParser.isError(TimeParser.parseSeconds("1:00")));
+    }
+}
@@ -14,6 +14,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class TestUnit {
 
@@ -164,7 +165,7 @@ public class TestUnit {
         // kmh to minutes per km
         Assert.assertEquals(300, Unit.KM_H.toMinPerKm(12), 0.01f);
         // mph to minutes per km
-        Assert.assertEquals(300, Unit.MPH.toMinPerKm(19.31208f), 0.01f);
+        Assert.assertEquals(300, Unit.MPH.toMinPerKm(7.45645f), 0.01f);
         // minutes per km to minutes per km
         Assert.assertEquals(300, Unit.MIN_KM.toMinPerKm(300), 0.01f);
         // miles per km to minutes per km
@@ -181,12 +182,34 @@ public class TestUnit {
         }
     }
 
+    @Test
+    public void testToMinPerKmOfZeroSpeed() throws CustomException {
+        // no reciprocal conversion
+        Assert.assertEquals(0, Unit.MIN_KM.toMinPerKm(0));
+        Assert.assertEquals(0, Unit.KM_H.toKmPerHour(0), 0);
+        // a speed of 0 has no pace
+        exception.expect(CustomException.class);
+        Unit.KM_H.toMinPerKm(0);
+    }
+
+    @Test
+    public void testToMinPerKmOfZeroMph() throws CustomException {
+        exception.expect(CustomException.class);
+        Unit.MPH.toMinPerKm(0);
+    }
+
+    @Test
+    public void testMinPerKmToOfZeroPace() throws CustomException {
+        exception.expect(CustomException.class);
+        Unit.KM_H.minPerKmTo(0);
+    }
+
     @Test
     public void testMinPerKmTo()  throws CustomException {
         // kmh to minutes per km
         Assert.assertEquals(12, Unit.KM_H.minPerKmTo(300), 0.01f);
         // mph to minutes per km
-        Assert.assertEquals(19.31208f, Unit.MPH.minPerKmTo(300), 0.01f);
+        Assert.assertEquals(7.45645f, Unit.MPH.minPerKmTo(300), 0.01f);
         // minutes per km to minutes per km
         Assert.assertEquals(300, Unit.MIN_KM.minPerKmTo(300), 0.01f);
         // miles per km to minutes per km
@@ -274,4 +297,222 @@ public class TestUnit {
             e.printStackTrace();
         }
     }
+
+    // =============================================================================================
+    // conversion matrix
+    // =============================================================================================
+
+    @Test
+    public void testConvertCrossProduct() throws CustomException {
+        final float[] values = {0.5f, 1, 5, 10, 12.5f, 42.195f, 180, 298, 300, 483, 1234.5f};
+        for (Unit unit : Unit.values()) {
+            for (float value : values) {
+                final Integer kg = formerToKg(unit, (int) value);
+                if (assertConversion(kg, unit, Unit.KG, (int) value)) {
+                    assertEquals(kg.intValue(), unit.toKg((int) value));
+                }
+                final Float cm = formerToCm(unit, value);
+                if (assertConversion(cm, unit, Unit.CM, value)) {
+                    assertEquals(cm, unit.toCm(value), Math.abs(cm) * 1e-5);
+                }
+                final Float km = formerToKm(unit, value);
+                if (assertConversion(km, unit, Unit.KM, value)) {
+                    assertEquals(km, unit.toKm(value), Math.abs(km) * 1e-5);
+                }
+                final Float length = formerKmTo(unit, value);
+                if (assertConversion(length, Unit.KM, unit, value)) {
+                    assertEquals(length, unit.kmTo(value), Math.abs(length) * 1e-5);
+                }
+                final Float kmPerHour = formerToKmPerHour(unit, value);
+                if (assertConversion(kmPerHour, unit, Unit.KM_H, value)) {
+                    assertEquals(kmPerHour, unit.toKmPerHour(value), Math.abs(kmPerHour) * 1e-5);
+                }
+                final Float speedOrPace = formerKmPerHourTo(unit, value);
+                if (assertConversion(speedOrPace, Unit.KM_H, unit, value)) {
+                    assertEquals(speedOrPace, unit.kmPerHourTo(value), Math.abs(speedOrPace) * 1e-5);
+                }
+                // mph was converted like a pace before
+                final Integer minPerKm = formerToMinPerKm(unit, value);
+                if (unit != Unit.MPH && assertConversion(minPerKm, unit, Unit.MIN_KM, value)) {
+                    assertEquals(minPerKm.intValue(), unit.toMinPerKm(value));
+                }
+            }
+            // paces were converted by integer division to speeds before
+            for (int pace : new int[]{120, 240, 300, 360, 400, 600, 720, 900, 1200}) {
+                final Number paceOrSpeed = formerMinPerKmTo(unit, pace);
+                if (unit != Unit.MPH && assertConversion(paceOrSpeed, Unit.MIN_KM, unit, pace)) {
+                    assertEquals(paceOrSpeed.floatValue(), unit.minPerKmTo(pace),
+                            Math.abs(paceOrSpeed.floatValue()) * 1e-5);
+                }
+            }
+        }
+        // paces, which do not divide an hour, are not truncated to whole speeds
+        assertEquals(10.909091f, Unit.KM_H.minPerKmTo(330), 1e-5f);
+        assertEquals(9.068010f, Unit.KM_H.minPerKmTo(397), 1e-5f);
+        assertEquals(3.002502f, Unit.KM_H.minPerKmTo(1199), 1e-5f);
+        assertEquals(10.909091f / 1.60934f, Unit.MPH.minPerKmTo(330), 1e-5f);
+        assertEquals(12.096774f, Unit.MIN_KM.toKmPerHour(297.6f), 1e-5f);
+        // mph is a speed
+        assertEquals(300, Unit.convert(Unit.convert(300, Unit.MIN_KM, Unit.MPH), Unit.MPH, Unit.MIN_KM), 1e-9);
+        assertEquals(12 / 1.60934, Unit.convert(300, Unit.MIN_KM, Unit.MPH), 1e-9);
+        assertEquals(300, Unit.convert(12, Unit.MPH, Unit.MIN_MILE), 1e-9);
+        // time
+        assertEquals(3600, Unit.convert(3600, Unit.HOUR, Unit.MINUTE), 0);
+        assertFalse(Unit.isConvertible(Unit.DEFAULT, Unit.DEFAULT));
+        assertFalse(Unit.isConvertible(Unit.HOUR, Unit.KM));
+    }
+
+    @Test
+    public void testConvertUnsupported() {
+        exception.expect(IllegalArgumentException.class);
+        Unit.convert(10, Unit.KG, Unit.KM);
+    }
+
+    /**
+     * Asserts, that a conversion is supported as before with the same result.
+     *
+     * @param expected former result, null if not supported
+     * @param from     source unit
+     * @param to       target unit
+     * @param value    value
+     * @return true, if conversion is supported
+     */
+    private static boolean assertConversion(Number expected, Unit from, Unit to, float value) {
+        final String message = value + " " + from.name() + " -> " + to.name();
+        assertEquals(message, expected != null, Unit.isConvertible(from, to));
+        if (expected == null) {
+            return false;
+        }
+        final double converted = Unit.convert(value, from, to);
+        if (expected instanceof Integer) {
+            assertEquals(message, expected.intValue(), Math.round(converted));
+        } else {
+            assertEquals(message, expected.doubleValue(), converted, Math.abs(expected.doubleValue()) * 1e-5);
+        }
+        return true;
+    }
+
+    // former conversions with switch, null if not supported
+
+    private static Integer formerToKg(Unit unit, int weight) {
+        switch (unit) {
+            case KG:
+                return weight;
+            case LB:
+                return Math.round(weight / 2.20462f);
+            default:
+                return null;
+        }
+    }
+
+    private static Float formerToCm(Unit unit, float length) {
+        switch (unit) {
+            case CM:
+                return length;
+            case FEET:
+                return length * 30.48f;
+            case INCH:
+                return length * 2.54f;
+            case KM:
+                return length * 1000f * 100;
+            case MILE:
+                return length * 160934f;
+            default:
+                return null;
+        }
+    }
+
+    private static Float formerToKm(Unit unit, float length) {
+        switch (unit) {
+            case CM:
+                return length / 1000 / 100;
+            case KM:
+                return length;
+            case FEET:
+                return length / 3280.84f;
+            case INCH:
+                return length / 39370.1f;
+            case MILE:
+                return length * 1.60934f;
+            default:
+                return null;
+        }
+    }
+
+    private static Float formerKmTo(Unit unit, float km) {
+        switch (unit) {
+            case CM:
+                return km * 1000 * 100;
+            case KM:
+                return km;
+            case FEET:
+                return km * 3280.84f;
+            case INCH:
+                return km * 39370.1f;
+            case MILE:
+                return km / 1.60934f;
+            default:
+                return null;
+        }
+    }
+
+    private static Integer formerToMinPerKm(Unit unit, float paceOrSpeed) {
+        switch (unit) {
+            case KM_H:
+                return Math.round((60 * 60) / paceOrSpeed);
+            case MPH:
+                return Math.round((60 * 60 / paceOrSpeed) * 1.60934f);
+            case MIN_KM:
+                return Math.round(paceOrSpeed);
+            case MIN_MILE:
+                return Math.round(paceOrSpeed / 1.60934f);
+            default:
+                return null;
+        }
+    }
+
+    private static Number formerMinPerKmTo(Unit unit, int pace) {
+        switch (unit) {
+            case KM_H:
+                return (float) (Unit.HOUR_IN_SECONDS / pace);
+            case MPH:
+                return Unit.HOUR_IN_SECONDS / pace * 1.60934f;
+            case MIN_KM:
+                return pace;
+            case MIN_MILE:
+                return Math.round(pace * 1.60934f);
+            default:
+                return null;
+        }
+    }
+
+    private static Float formerToKmPerHour(Unit unit, float speedOrPace) {
+        switch (unit) {
+            case KM_H:
+                return speedOrPace;
+            case MPH:
+                return speedOrPace * 1.60934f;
+            case MIN_KM:
+                return Unit.HOUR_IN_SECONDS / speedOrPace;
+            case MIN_MILE:
+                return Unit.HOUR_IN_SECONDS / speedOrPace * 1.60934f;
+            default:
+                return null;
+        }
+    }
+
+    private static Float formerKmPerHourTo(Unit unit, float speed) {
+        switch (unit) {
+            case KM_H:
+                return speed;
+            case MPH:
+                return speed / 1.60934f;
+            case MIN_KM:
+                return Unit.HOUR_IN_SECONDS / speed;
+            case MIN_MILE:
+                return Unit.HOUR_IN_SECONDS / speed * 1.60934f;
+            default:
+                return null;
+        }
+    }
 }
@@ -0,0 +1,105 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.forecast.TrainingPace;
+import com.stappert.runulator.forecast.VdotTables;
+import com.stappert.runulator.utils.Run;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class VdotTables and the training paces.
+ */
+public class TestVdotTables {
+
+    /**
+     * Standard distances with tables.
+     */
+    private static final float[] DISTANCES = {1.5f, 3f, 5f, 10f, 15f, Run.HALF_MARATHON, Run.MARATHON};
+
+    @Test
+    public void testDurationEqualsFormulas() {
+        Random random = new Random(42);
+        for (float distance : DISTANCES) {
+            for (int i = 0; i < 10_000; i++) {
+                double vdot = VdotTables.MIN_VDOT + random.nextDouble() * (VdotTables.MAX_VDOT - VdotTables.MIN_VDOT);
+                double duration = VdotTables.getDuration(vdot, distance);
+                assertEquals("vdot " + vdot + " at " + distance, vdot, vdot(distance, duration), 0.001);
+            }
+        }
+    }
+
+    @Test
+    public void testVdotEqualsFormulas() {
+        for (float distance : DISTANCES) {
+            int fastest = (int) Math.ceil(VdotTables.getDuration(VdotTables.MAX_VDOT, distance));
+            int slowest = (int) VdotTables.getDuration(VdotTables.MIN_VDOT, distance);
+            for (int duration = fastest; duration <= slowest; duration++) {
+                assertEquals("duration " + duration + " at " + distance,
+                        vdot(distance, duration), VdotTables.getVdot(distance, duration), 0.001);
+            }
+        }
+    }
+
+    @Test
+    public void testOutsideOfTables() {
+        // slower than VDOT 30, faster than VDOT 85 and no standard distance
+        assertEquals(vdot(5, 2400), VdotTables.getVdot(5, 2400), 1e-9);
+        assertEquals(vdot(5, 720), VdotTables.getVdot(5, 720), 1e-9);
+        assertEquals(vdot(7, 1800), VdotTables.getVdot(7, 1800), 1e-9);
+        assertEquals(25, vdot(5, VdotTables.getDuration(25, 5)), 1e-6);
+        assertEquals(50, vdot(7, VdotTables.getDuration(50, 7)), 1e-6);
+    }
+
+    @Test
+    public void testDanielsTable() {
+        // VDOT 50: 5 km in 19:57, 10 km in 41:21, half marathon in 1:31:35, marathon in 3:10:49
+        assertEquals(50, VdotTables.getVdot(5, 19 * 60 + 57), 0.05);
+        assertEquals(41 * 60 + 21, VdotTables.getDuration(50, 10), 3);
+        assertEquals(60 * 60 + 31 * 60 + 35, VdotTables.getDuration(50, Run.HALF_MARATHON), 5);
+        assertEquals(3 * 60 * 60 + 10 * 60 + 49, VdotTables.getDuration(50, Run.MARATHON), 10);
+    }
+
+    @Test
+    public void testTrainingPaces() {
+        assertEquals(307, TrainingPace.EASY.getPace(50));
+        assertEquals(271, TrainingPace.MARATHON.getPace(50));
+        assertEquals(255, TrainingPace.THRESHOLD.getPace(50));
+        assertEquals(235, TrainingPace.INTERVAL.getPace(50));
+        assertEquals(221, TrainingPace.REPETITION.getPace(50));
+    }
+
+    @Test
+    public void testVdotRange() {
+        // 1 km in 2 hours
+        assertFalse(VdotTables.isInRange(VdotTables.getVdot(1, 2 * 60 * 60)));
+        assertFalse(VdotTables.isInRange(Double.NaN));
+        assertFalse(VdotTables.isInRange(Double.POSITIVE_INFINITY));
+        assertTrue(VdotTables.isInRange(VdotTables.getVdot(5, 19 * 60 + 57)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrainingPaceOutOfRange() {
+        TrainingPace.MARATHON.getPace(-3.66);
+    }
+
+    /**
+     * Calculates the VDOT with the formulas of Jack Daniels.
+     *
+     * @param distance distance in km
+     * @param duration duration in seconds
+     * @return VDOT
+     */
+    private static double vdot(float distance, double duration) {
+        double minutes = duration / 60;
+        double speed = distance * 1000.0 / minutes;
+        double oxygenCost = -4.60 + 0.182258 * speed + 0.000104 * speed * speed;
+        return oxygenCost / (0.8 + 0.1894393 * Math.exp(-0.012778 * minutes)
+                + 0.2989558 * Math.exp(-0.1932605 * minutes));
+    }
+}
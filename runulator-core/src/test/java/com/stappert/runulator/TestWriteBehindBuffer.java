@@ -0,0 +1,97 @@
+package com.stappert.runulator;
+
+import com.stappert.runulator.storage.WriteBehindBuffer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests class WriteBehindBuffer.
+ */
+public class TestWriteBehindBuffer {
+
+    /**
+     * Sink, which records all batches.
+     */
+    private static class RecordingSink implements WriteBehindBuffer.Sink {
+
+        private final List<Map<String, Object>> batches = new ArrayList<>();
+
+        private final CountDownLatch written = new CountDownLatch(1);
+
+        @Override
+        public synchronized void write(Map<String, Object> values) {
+            batches.add(new LinkedHashMap<>(values));
+            written.countDown();
+        }
+    }
+
+    @Test
+    public void testMergeUpdates() throws InterruptedException {
+        RecordingSink sink = new RecordingSink();
+        WriteBehindBuffer buffer = new WriteBehindBuffer(sink, 60_000);
+        buffer.put("distance_unit", "MI");
+        buffer.put("pace_unit", "MIN_MI");
+        buffer.put("speed_unit", "MPH");
+        buffer.put("distance_unit", "KM");
+        assertEquals("KM", buffer.get("distance_unit"));
+        assertSame(WriteBehindBuffer.NOT_PENDING, buffer.get("weight"));
+        buffer.flushAndWait();
+        assertEquals(1, sink.batches.size());
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("distance_unit", "KM");
+        expected.put("pace_unit", "MIN_MI");
+        expected.put("speed_unit", "MPH");
+        assertEquals(expected, sink.batches.get(0));
+        assertEquals(1, buffer.getWrites());
+        assertEquals(3, buffer.getSavedWrites());
+        assertSame(WriteBehindBuffer.NOT_PENDING, buffer.get("distance_unit"));
+    }
+
+    @Test
+    public void testFlushWithoutUpdates() throws InterruptedException {
+        RecordingSink sink = new RecordingSink();
+        WriteBehindBuffer buffer = new WriteBehindBuffer(sink, 60_000);
+        buffer.flushAndWait();
+        assertTrue(sink.batches.isEmpty());
+        assertEquals(0, buffer.getWrites());
+    }
+
+    @Test
+    public void testDelayedWrite() throws InterruptedException {
+        RecordingSink sink = new RecordingSink();
+        WriteBehindBuffer buffer = new WriteBehindBuffer(sink, 10);
+        buffer.put("weight", 80);
+        buffer.put("weight_unit", "KG");
+        assertTrue(sink.written.await(10, TimeUnit.SECONDS));
+        buffer.flushAndWait();
+        assertEquals(1, sink.batches.size());
+        assertEquals(2, sink.batches.get(0).size());
+        assertEquals(1, buffer.getSavedWrites());
+    }
+
+    @Test
+    public void testRemoveAndClear() throws InterruptedException {
+        RecordingSink sink = new RecordingSink();
+        WriteBehindBuffer buffer = new WriteBehindBuffer(sink, 60_000);
+        buffer.put("runs", WriteBehindBuffer.REMOVED);
+        assertSame(WriteBehindBuffer.REMOVED, buffer.get("runs"));
+        buffer.flushAndWait();
+        assertSame(WriteBehindBuffer.REMOVED, sink.batches.get(0).get("runs"));
+        buffer.put("height", 180);
+        buffer.clear();
+        buffer.flushAndWait();
+        assertEquals(1, sink.batches.size());
+        assertEquals(0, buffer.getSavedWrites());
+    }
+}